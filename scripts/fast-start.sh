@@ -0,0 +1,32 @@
+#!/bin/sh
+# Starts the application with the fast-start profile and an application class-data-sharing archive.
+# The first invocation builds the archive with a training run that exits after the startup warm-up.
+set -e
+cd "$(dirname "$0")/.."
+
+APP_DIR=target/fast-start
+APP_JAR=$APP_DIR/app.jar
+ARCHIVE=$APP_DIR/app-cds.jsa
+MAIN=com.skypro.simplebanking.SimpleBankingApplication
+
+if [ ! -f "$APP_JAR" ]; then
+  ./mvnw -q -B -DskipTests package
+  rm -rf "$APP_DIR"
+  mkdir -p "$APP_DIR"
+  (cd "$APP_DIR" && jar -xf ../simple-banking-0.0.1-SNAPSHOT.jar)
+  # CDS refuses to dump with a non-empty directory on the class path, so the classes go in a jar.
+  jar -cf "$APP_JAR" -C "$APP_DIR/BOOT-INF/classes" .
+fi
+
+# CDS requires the same class path at dump and run time, so build it in a stable order.
+CLASSPATH="$APP_JAR:$(ls "$APP_DIR"/BOOT-INF/lib/*.jar | sort | paste -sd: -)"
+
+if [ ! -f "$ARCHIVE" ]; then
+  # The archive is dumped even when the training run fails, so only a successful one is kept.
+  java -XX:ArchiveClassesAtExit="$ARCHIVE.tmp" -cp "$CLASSPATH" \
+    -Dspring.profiles.active=fast-start -Dapp.startup.exit-after-warmup=true "$MAIN" "$@"
+  mv "$ARCHIVE.tmp" "$ARCHIVE"
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -cp "$CLASSPATH" \
+  -Dspring.profiles.active=fast-start "$MAIN" "$@"
@@ -0,0 +1,31 @@
+package com.skypro.simplebanking.configuration;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import org.springframework.web.filter.GenericFilterBean;
+
+/**
+ * Marks the start or the end of authentication in the security chain; one instance sits before
+ * the HTTP Basic filter and one after it.
+ */
+class AuthenticationTimingFilter extends GenericFilterBean {
+  private final boolean begin;
+
+  AuthenticationTimingFilter(boolean begin) {
+    this.begin = begin;
+  }
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    if (begin) {
+      RequestTimings.begin(RequestTimings.AUTH);
+    } else {
+      RequestTimings.end(RequestTimings.AUTH);
+    }
+    chain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,154 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.BalanceChangeRequest;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+/**
+ * Fixed-width big-endian encoding of the account and transfer payloads. Longs take 8 bytes and a
+ * currency is its ordinal in one byte, so an {@link AccountDTO} is always 17 bytes. Values are
+ * encoded in a per-thread scratch array and handed to the stream in a single write.
+ */
+public class BankingBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+  public static final String MEDIA_TYPE_VALUE = "application/x-banking-binary";
+  public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+  public static final int ACCOUNT_SIZE = 17;
+  public static final int TRANSFER_REQUEST_SIZE = 32;
+  public static final int BALANCE_CHANGE_REQUEST_SIZE = 8;
+
+  private static final AccountCurrency[] CURRENCIES = AccountCurrency.values();
+  private static final VarHandle LONG =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+  private static final ThreadLocal<byte[]> SCRATCH =
+      ThreadLocal.withInitial(() -> new byte[TRANSFER_REQUEST_SIZE]);
+
+  public BankingBinaryHttpMessageConverter() {
+    super(MEDIA_TYPE);
+  }
+
+  @Override
+  protected boolean supports(@NonNull Class<?> clazz) {
+    return clazz == AccountDTO.class
+        || clazz == TransferRequest.class
+        || clazz == BalanceChangeRequest.class;
+  }
+
+  @Override
+  protected Long getContentLength(@NonNull Object value, MediaType contentType) {
+    if (value instanceof AccountDTO) {
+      return (long) ACCOUNT_SIZE;
+    }
+    if (value instanceof TransferRequest) {
+      return (long) TRANSFER_REQUEST_SIZE;
+    }
+    return (long) BALANCE_CHANGE_REQUEST_SIZE;
+  }
+
+  @Override
+  @NonNull
+  protected Object readInternal(
+      @NonNull Class<?> clazz, @NonNull HttpInputMessage inputMessage) throws IOException {
+    InputStream body = inputMessage.getBody();
+    if (clazz == AccountDTO.class) {
+      return readAccount(body, inputMessage);
+    }
+    if (clazz == TransferRequest.class) {
+      return readTransferRequest(body, inputMessage);
+    }
+    return readBalanceChangeRequest(body, inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(@NonNull Object value, @NonNull HttpOutputMessage outputMessage)
+      throws IOException {
+    OutputStream body = outputMessage.getBody();
+    if (value instanceof AccountDTO) {
+      writeAccount(body, (AccountDTO) value);
+    } else if (value instanceof TransferRequest) {
+      writeTransferRequest(body, (TransferRequest) value);
+    } else {
+      writeBalanceChangeRequest(body, (BalanceChangeRequest) value);
+    }
+  }
+
+  public static void writeAccount(OutputStream out, AccountDTO account) throws IOException {
+    byte[] buffer = SCRATCH.get();
+    LONG.set(buffer, 0, account.getId());
+    LONG.set(buffer, 8, account.getAmount());
+    buffer[16] = (byte) account.getCurrency().ordinal();
+    out.write(buffer, 0, ACCOUNT_SIZE);
+  }
+
+  public static void writeTransferRequest(OutputStream out, TransferRequest request)
+      throws IOException {
+    byte[] buffer = SCRATCH.get();
+    LONG.set(buffer, 0, request.getFromAccountId());
+    LONG.set(buffer, 8, request.getToUserId());
+    LONG.set(buffer, 16, request.getToAccountId());
+    LONG.set(buffer, 24, request.getAmount());
+    out.write(buffer, 0, TRANSFER_REQUEST_SIZE);
+  }
+
+  public static void writeBalanceChangeRequest(OutputStream out, BalanceChangeRequest request)
+      throws IOException {
+    byte[] buffer = SCRATCH.get();
+    LONG.set(buffer, 0, request.getAmount());
+    out.write(buffer, 0, BALANCE_CHANGE_REQUEST_SIZE);
+  }
+
+  public static AccountDTO readAccount(InputStream in, HttpInputMessage message)
+      throws IOException {
+    byte[] buffer = read(in, ACCOUNT_SIZE, message);
+    int currency = buffer[16] & 0xFF;
+    if (currency >= CURRENCIES.length) {
+      throw new HttpMessageNotReadableException("Unknown currency " + currency, message);
+    }
+    return new AccountDTO(
+        (long) LONG.get(buffer, 0), (long) LONG.get(buffer, 8), CURRENCIES[currency]);
+  }
+
+  public static TransferRequest readTransferRequest(InputStream in, HttpInputMessage message)
+      throws IOException {
+    byte[] buffer = read(in, TRANSFER_REQUEST_SIZE, message);
+    TransferRequest request = new TransferRequest();
+    request.setFromAccountId((long) LONG.get(buffer, 0));
+    request.setToUserId((long) LONG.get(buffer, 8));
+    request.setToAccountId((long) LONG.get(buffer, 16));
+    request.setAmount((long) LONG.get(buffer, 24));
+    return request;
+  }
+
+  public static BalanceChangeRequest readBalanceChangeRequest(
+      InputStream in, HttpInputMessage message) throws IOException {
+    byte[] buffer = read(in, BALANCE_CHANGE_REQUEST_SIZE, message);
+    BalanceChangeRequest request = new BalanceChangeRequest();
+    request.setAmount((long) LONG.get(buffer, 0));
+    return request;
+  }
+
+  private static byte[] read(InputStream in, int size, HttpInputMessage message)
+      throws IOException {
+    byte[] buffer = SCRATCH.get();
+    if (in.readNBytes(buffer, 0, size) < size) {
+      throw new HttpMessageNotReadableException("Truncated binary payload", message);
+    }
+    if (in.read() != -1) {
+      throw new HttpMessageNotReadableException(
+          "Binary payload longer than " + size + " bytes", message);
+    }
+    return buffer;
+  }
+}
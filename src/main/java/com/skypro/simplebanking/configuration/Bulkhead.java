@@ -0,0 +1,90 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.BulkheadStatsDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the requests of one traffic class that run at once. Callers over the cap wait in a bounded
+ * queue for at most {@code maxWait}; a full queue or an expired wait is rejected immediately, so a
+ * stalled class sheds its own load instead of holding on to the shared request threads.
+ */
+public final class Bulkhead {
+  private final String name;
+  private final int maxConcurrent;
+  private final int maxQueued;
+  private final long maxWaitNanos;
+  private final Semaphore permits;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private volatile HikariDataSource pool;
+
+  public Bulkhead(String name, int maxConcurrent, int maxQueued, Duration maxWait) {
+    this.name = name;
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueued = maxQueued;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.permits = new Semaphore(maxConcurrent, true);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Returns whether the caller may run; a caller that may must call {@link #exit} when done. */
+  public boolean tryEnter() {
+    if (permits.tryAcquire()) {
+      accepted.increment();
+      return true;
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      rejected.increment();
+      return false;
+    }
+    boolean entered;
+    try {
+      entered = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      entered = false;
+    } finally {
+      queued.decrementAndGet();
+    }
+    (entered ? accepted : rejected).increment();
+    return entered;
+  }
+
+  public void exit() {
+    permits.release();
+  }
+
+  /** Reports the connection pool dedicated to this class alongside its occupancy. */
+  void attachPool(HikariDataSource pool) {
+    this.pool = pool;
+  }
+
+  public BulkheadStatsDTO getStats() {
+    HikariDataSource attached = pool;
+    HikariPoolMXBean poolBean = attached == null ? null : attached.getHikariPoolMXBean();
+    return new BulkheadStatsDTO(
+        name,
+        maxConcurrent,
+        maxConcurrent - permits.availablePermits(),
+        maxQueued,
+        queued.get(),
+        Duration.ofNanos(maxWaitNanos).toMillis(),
+        accepted.sum(),
+        rejected.sum(),
+        attached == null ? 0 : attached.getMaximumPoolSize(),
+        poolBean == null ? 0 : poolBean.getActiveConnections(),
+        poolBean == null ? 0 : poolBean.getIdleConnections(),
+        poolBean == null ? 0 : poolBean.getThreadsAwaitingConnection());
+  }
+}
@@ -0,0 +1,113 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.BulkheadStatsDTO;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Runs balance and user reads in the read {@link Bulkhead} and money movement and sign-up in the
+ * write one, ahead of authentication so its queries are bounded too. The traffic class stays bound
+ * to the request thread, which lets the data source hand each class its own connection pool.
+ * Event streams and admin endpoints are not bulkheaded.
+ *
+ * <p>Queued requests wait on their container thread, so the two bulkheads together can hold
+ * {@code max-concurrent + max-queued} threads each. Startup fails unless that total stays below
+ * {@code server.tomcat.threads.max}, which leaves threads for the other class and for unbulkheaded
+ * endpoints when one class is saturated.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadFilter extends OncePerRequestFilter {
+  public enum TrafficClass {
+    READ,
+    WRITE
+  }
+
+  private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+  private static final List<String> BULKHEADED_PATHS =
+      List.of("/account", "/user", "/transfer", "/hold");
+
+  private final Bulkhead read;
+  private final Bulkhead write;
+
+  public BulkheadFilter(
+      @Value("${app.bulkhead.read.max-concurrent:60}") int readMaxConcurrent,
+      @Value("${app.bulkhead.read.max-queued:40}") int readMaxQueued,
+      @Value("${app.bulkhead.read.max-wait:1s}") Duration readMaxWait,
+      @Value("${app.bulkhead.write.max-concurrent:40}") int writeMaxConcurrent,
+      @Value("${app.bulkhead.write.max-queued:20}") int writeMaxQueued,
+      @Value("${app.bulkhead.write.max-wait:500ms}") Duration writeMaxWait,
+      @Value("${server.tomcat.threads.max:200}") int containerThreads) {
+    int bulkheadThreads = readMaxConcurrent + readMaxQueued + writeMaxConcurrent + writeMaxQueued;
+    if (bulkheadThreads >= containerThreads) {
+      throw new IllegalStateException(
+          "Bulkheads can hold "
+              + bulkheadThreads
+              + " request threads, which must stay below server.tomcat.threads.max="
+              + containerThreads);
+    }
+    this.read = new Bulkhead("read", readMaxConcurrent, readMaxQueued, readMaxWait);
+    this.write = new Bulkhead("write", writeMaxConcurrent, writeMaxQueued, writeMaxWait);
+  }
+
+  /** The class of the request on this thread, or null outside a bulkheaded request. */
+  public static TrafficClass currentTrafficClass() {
+    return CURRENT.get();
+  }
+
+  public Bulkhead getBulkhead(TrafficClass trafficClass) {
+    return trafficClass == TrafficClass.READ ? read : write;
+  }
+
+  public List<BulkheadStatsDTO> getStats() {
+    return List.of(read.getStats(), write.getStats());
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    TrafficClass trafficClass = classify(request);
+    if (trafficClass == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    Bulkhead bulkhead = getBulkhead(trafficClass);
+    if (!bulkhead.tryEnter()) {
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.getWriter().write("Too many " + bulkhead.getName() + " requests in progress");
+      return;
+    }
+    CURRENT.set(trafficClass);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      CURRENT.remove();
+      bulkhead.exit();
+    }
+  }
+
+  private static TrafficClass classify(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    if (path.endsWith("/events") || BULKHEADED_PATHS.stream().noneMatch(path::startsWith)) {
+      return null;
+    }
+    return "GET".equals(request.getMethod()) ? TrafficClass.READ : TrafficClass.WRITE;
+  }
+}
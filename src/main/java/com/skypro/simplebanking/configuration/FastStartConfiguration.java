@@ -0,0 +1,50 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.controller.AccountController;
+import com.skypro.simplebanking.gateway.BinaryGatewayServer;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.BalanceEventRelay;
+import com.skypro.simplebanking.service.BalanceSnapshotService;
+import com.skypro.simplebanking.service.PayrollImportService;
+import com.skypro.simplebanking.service.ReconciliationService;
+import com.skypro.simplebanking.service.ScheduledTransferService;
+import com.skypro.simplebanking.service.TransferService;
+import com.skypro.simplebanking.service.UserService;
+import com.skypro.simplebanking.service.VelocityLimiter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * The {@code fast-start} profile turns on lazy bean initialization. Beans serving the first {@code
+ * /account} request stay eager so that request does not pay for their creation, as do beans that
+ * only do their work once instantiated (scheduled jobs, the gateway listener).
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfiguration {
+  @Bean
+  static LazyInitializationExcludeFilter firstRequestBeans() {
+    return LazyInitializationExcludeFilter.forBeanTypes(
+        SecurityFilterChain.class,
+        PasswordEncoder.class,
+        UserService.class,
+        UserRepository.class,
+        AccountController.class,
+        AccountService.class,
+        AccountRepository.class,
+        BalanceEventRelay.class,
+        BalanceSnapshotService.class,
+        PayrollImportService.class,
+        ReconciliationService.class,
+        ScheduledTransferService.class,
+        TransferService.class,
+        VelocityLimiter.class,
+        BinaryGatewayServer.class);
+  }
+}
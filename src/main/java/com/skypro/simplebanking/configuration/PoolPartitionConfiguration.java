@@ -0,0 +1,46 @@
+package com.skypro.simplebanking.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+@Configuration
+@ConditionalOnExpression(
+    "${app.bulkhead.pool-partitions:false} && '${app.datasource.replica.urls:}'.isEmpty()"
+        + " && '${app.sharding.urls:}'.isEmpty()")
+public class PoolPartitionConfiguration {
+  @Bean
+  public PoolPartitionDataSource poolPartitionDataSource(
+      DataSourceProperties properties,
+      BulkheadFilter bulkheadFilter,
+      @Value("${app.bulkhead.read.pool-size:10}") int readPoolSize,
+      @Value("${app.bulkhead.write.pool-size:10}") int writePoolSize) {
+    HikariDataSource readPool = partition(properties, "read", readPoolSize);
+    HikariDataSource writePool = partition(properties, "write", writePoolSize);
+    bulkheadFilter.getBulkhead(BulkheadFilter.TrafficClass.READ).attachPool(readPool);
+    bulkheadFilter.getBulkhead(BulkheadFilter.TrafficClass.WRITE).attachPool(writePool);
+    return new PoolPartitionDataSource(readPool, writePool);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(PoolPartitionDataSource poolPartitionDataSource) {
+    return new LazyConnectionDataSourceProxy(poolPartitionDataSource);
+  }
+
+  private static HikariDataSource partition(
+      DataSourceProperties properties, String name, int poolSize) {
+    HikariDataSource pool =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    pool.setPoolName(name);
+    pool.setMaximumPoolSize(poolSize);
+    pool.setMetricsTrackerFactory(RequestTimings.POOL_METRICS);
+    return pool;
+  }
+}
@@ -0,0 +1,38 @@
+package com.skypro.simplebanking.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.util.Map;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections from the pool of the current request's traffic class, so a write stall
+ * that exhausts its pool leaves the read pool alone. Threads outside a bulkheaded request, such as
+ * jobs and group-commit flushers, use the write pool. Must be wrapped in a {@code
+ * LazyConnectionDataSourceProxy} so the connection is fetched on the request thread.
+ */
+public class PoolPartitionDataSource extends AbstractRoutingDataSource implements Closeable {
+  private final HikariDataSource readPool;
+  private final HikariDataSource writePool;
+
+  public PoolPartitionDataSource(HikariDataSource readPool, HikariDataSource writePool) {
+    this.readPool = readPool;
+    this.writePool = writePool;
+    setTargetDataSources(
+        Map.of(
+            BulkheadFilter.TrafficClass.READ, readPool,
+            BulkheadFilter.TrafficClass.WRITE, writePool));
+    setDefaultTargetDataSource(writePool);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return BulkheadFilter.currentTrafficClass();
+  }
+
+  @Override
+  public void close() {
+    readPool.close();
+    writePool.close();
+  }
+}
@@ -0,0 +1,55 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.service.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.urls")
+@ConditionalOnExpression("'${app.sharding.urls:}'.isEmpty()")
+public class ReplicaRoutingConfiguration {
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      DataSourceProperties properties,
+      ReadYourWritesTracker readYourWritesTracker,
+      @Value("${app.datasource.replica.urls}") List<String> replicaUrls,
+      @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+      @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password,
+      @Value("${app.datasource.replica.max-lag:1s}") Duration maxLag,
+      @Value("${app.datasource.replica.lag-check-interval:1s}") Duration lagCheckInterval) {
+    HikariDataSource primary =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("primary");
+    List<HikariDataSource> replicas = new ArrayList<>();
+    for (String url : replicaUrls) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setPoolName("replica-" + replicas.size());
+      replica.setJdbcUrl(url);
+      replica.setUsername(username);
+      replica.setPassword(password);
+      replica.setReadOnly(true);
+      replicas.add(replica);
+    }
+    primary.setMetricsTrackerFactory(RequestTimings.POOL_METRICS);
+    replicas.forEach(replica -> replica.setMetricsTrackerFactory(RequestTimings.POOL_METRICS));
+    return new ReplicaRoutingDataSource(
+        primary, replicas, readYourWritesTracker, maxLag, lagCheckInterval);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+}
@@ -0,0 +1,127 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.service.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a replica chosen round-robin among those whose replication lag
+ * is under the threshold, and everything else to the primary. Must be wrapped in a {@code
+ * LazyConnectionDataSourceProxy} so the read-only flag is known when the connection is fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+  private static final String PRIMARY = "primary";
+  /**
+   * Zero when the replica streams from the primary and has replayed all it received. A replica
+   * without a running WAL receiver may be cut off from the primary, so it counts as lagging by the
+   * age of its last replayed transaction, or without bound if it never replayed one.
+   */
+  private static final String LAG_SQL =
+      "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+          + " WHEN EXISTS (SELECT 1 FROM pg_stat_wal_receiver"
+          + "   WHERE status IS NULL OR status = 'streaming')"
+          + "  AND pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+          + " ELSE COALESCE(CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())"
+          + "  * 1000 AS bigint), 9223372036854775807)"
+          + " END";
+
+  private final HikariDataSource primary;
+  private final List<HikariDataSource> replicas;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final long maxLagMillis;
+  private volatile boolean[] healthy;
+  private final AtomicInteger next = new AtomicInteger();
+  private final ScheduledExecutorService lagMonitor;
+
+  public ReplicaRoutingDataSource(
+      HikariDataSource primary,
+      List<HikariDataSource> replicas,
+      ReadYourWritesTracker readYourWritesTracker,
+      Duration maxLag,
+      Duration lagCheckInterval) {
+    this.primary = primary;
+    this.replicas = replicas;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.maxLagMillis = maxLag.toMillis();
+    this.healthy = new boolean[replicas.size()];
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(i, replicas.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    this.lagMonitor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "replica-lag-monitor");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.lagMonitor.scheduleWithFixedDelay(
+        this::checkReplicas, 0, lagCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        || readYourWritesTracker.currentUserNeedsPrimary()) {
+      return PRIMARY;
+    }
+    boolean[] inRotation = healthy;
+    int start = Math.floorMod(next.getAndIncrement(), inRotation.length);
+    for (int i = 0; i < inRotation.length; i++) {
+      int candidate = (start + i) % inRotation.length;
+      if (inRotation[candidate]) {
+        return candidate;
+      }
+    }
+    return PRIMARY;
+  }
+
+  @Override
+  public void close() {
+    lagMonitor.shutdownNow();
+    replicas.forEach(HikariDataSource::close);
+    primary.close();
+  }
+
+  private void checkReplicas() {
+    boolean[] checked = new boolean[replicas.size()];
+    for (int i = 0; i < checked.length; i++) {
+      checked[i] = lagMillis(replicas.get(i)) <= maxLagMillis;
+      if (checked[i] != healthy[i]) {
+        log.warn("Replica {} is now {}", i, checked[i] ? "in rotation" : "out of rotation");
+      }
+    }
+    healthy = checked;
+    readYourWritesTracker.evictExpired();
+  }
+
+  private static long lagMillis(HikariDataSource replica) {
+    try (Connection connection = replica.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    } catch (Exception e) {
+      return Long.MAX_VALUE;
+    }
+  }
+}
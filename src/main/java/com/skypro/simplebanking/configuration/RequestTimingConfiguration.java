@@ -0,0 +1,83 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.service.FlightRecorderEvents;
+import com.skypro.simplebanking.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Feeds {@link RequestTimings}: statements and commits through {@link TimingDataSource} around the
+ * primary data source, pool checkouts through the Hikari metrics hook and the span of every
+ * physical transaction through the transaction manager, which also emits a {@link
+ * FlightRecorderEvents.CommitEvent} per commit.
+ */
+@Configuration
+public class RequestTimingConfiguration {
+  @Bean
+  static BeanPostProcessor requestTimingDataSource() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String name) {
+        if (bean instanceof HikariDataSource) {
+          ((HikariDataSource) bean).setMetricsTrackerFactory(RequestTimings.POOL_METRICS);
+        }
+        return bean;
+      }
+
+      @Override
+      public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String name) {
+        if ("dataSource".equals(name) && bean instanceof DataSource) {
+          return new TimingDataSource((DataSource) bean);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public JpaTransactionManager transactionManager(
+      ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+    JpaTransactionManager transactionManager =
+        new JpaTransactionManager() {
+          @Override
+          protected void doBegin(
+              @NonNull Object transaction, @NonNull TransactionDefinition definition) {
+            RequestTimings.begin(RequestTimings.TX);
+            super.doBegin(transaction, definition);
+          }
+
+          @Override
+          protected void doCommit(@NonNull DefaultTransactionStatus status) {
+            FlightRecorderEvents.CommitEvent event = new FlightRecorderEvents.CommitEvent();
+            event.begin();
+            try {
+              super.doCommit(status);
+            } finally {
+              if (event.shouldCommit()) {
+                event.readOnly = status.isReadOnly();
+                event.shard = ShardRouter.currentShard();
+                event.commit();
+              }
+            }
+          }
+
+          @Override
+          protected void doCleanupAfterCompletion(@NonNull Object transaction) {
+            super.doCleanupAfterCompletion(transaction);
+            RequestTimings.end(RequestTimings.TX);
+          }
+        };
+    transactionManagerCustomizers.ifAvailable(
+        customizers -> customizers.customize(transactionManager));
+    return transactionManager;
+  }
+}
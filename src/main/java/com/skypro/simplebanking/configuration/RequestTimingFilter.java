@@ -0,0 +1,83 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.RequestTimingSettingsDTO;
+import java.io.IOException;
+import java.time.Duration;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Binds a {@link RequestTimings} recording to every request. Requests slower than the threshold
+ * are written to the {@code slow-requests} log with their statements. While the admin has enabled
+ * it, the breakdown is also returned in a {@code Server-Timing} header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+  public static final String SERVER_TIMING = "Server-Timing";
+  private static final Logger slowRequests = LoggerFactory.getLogger("slow-requests");
+
+  private volatile boolean serverTiming;
+  private volatile long slowThresholdNanos;
+
+  public RequestTimingFilter(
+      @Value("${app.request-timing.server-timing:false}") boolean serverTiming,
+      @Value("${app.request-timing.slow-threshold:500ms}") Duration slowThreshold) {
+    this.serverTiming = serverTiming;
+    this.slowThresholdNanos = slowThreshold.toNanos();
+  }
+
+  public RequestTimingSettingsDTO getSettings() {
+    RequestTimingSettingsDTO settings = new RequestTimingSettingsDTO();
+    settings.setServerTiming(serverTiming);
+    settings.setSlowThresholdMillis(Duration.ofNanos(slowThresholdNanos).toMillis());
+    return settings;
+  }
+
+  public void updateSettings(RequestTimingSettingsDTO settings) {
+    serverTiming = settings.isServerTiming();
+    slowThresholdNanos = Duration.ofMillis(settings.getSlowThresholdMillis()).toNanos();
+  }
+
+  boolean isServerTimingEnabled() {
+    return serverTiming;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestTimings timings = RequestTimings.start();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      timings.closeOpenPhases();
+      if (serverTiming && !response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+        response.setHeader(SERVER_TIMING, timings.toServerTiming());
+      }
+      long elapsed = timings.getElapsedNanos();
+      if (elapsed >= slowThresholdNanos) {
+        slowRequests.warn(
+            "method={} uri={} status={} totalMs={}{}",
+            request.getMethod(),
+            request.getRequestURI(),
+            response.getStatus(),
+            elapsed / 1_000_000,
+            timings.toLogFields());
+      }
+      RequestTimings.stop();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.skypro.simplebanking.configuration;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Time spent by the current request in authentication, pool checkout, SQL statements and
+ * transactions. A recording is bound to the request thread by {@link RequestTimingFilter}; the
+ * static recording methods do nothing on threads without one.
+ */
+public final class RequestTimings {
+  public static final String AUTH = "auth";
+  public static final String POOL = "pool";
+  public static final String SQL = "sql";
+  public static final String TX = "tx";
+  public static final String COMMIT = "commit";
+  public static final String ROLLBACK = "rollback";
+
+  /** Reports the time each Hikari pool checkout waited, on the thread that waited. */
+  public static final MetricsTrackerFactory POOL_METRICS =
+      (poolName, poolStats) ->
+          new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+              record(POOL, elapsedAcquiredNanos);
+            }
+          };
+
+  private static final int MAX_STATEMENTS = 50;
+  private static final int MAX_SQL_LENGTH = 200;
+  private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+  private final long startNanos = System.nanoTime();
+  private final Map<String, Phase> phases = new LinkedHashMap<>();
+  private final Map<String, ArrayDeque<Long>> open = new HashMap<>();
+  private final List<String> statements = new ArrayList<>();
+
+  private RequestTimings() {}
+
+  static RequestTimings start() {
+    RequestTimings timings = new RequestTimings();
+    CURRENT.set(timings);
+    return timings;
+  }
+
+  static void stop() {
+    CURRENT.remove();
+  }
+
+  public static void record(String phase, long nanos) {
+    RequestTimings timings = CURRENT.get();
+    if (timings != null) {
+      timings.phases.computeIfAbsent(phase, name -> new Phase()).add(nanos);
+    }
+  }
+
+  public static void recordStatement(String sql, long nanos) {
+    RequestTimings timings = CURRENT.get();
+    if (timings == null) {
+      return;
+    }
+    record(SQL, nanos);
+    if (timings.statements.size() < MAX_STATEMENTS) {
+      String statement = sql == null ? "?" : sql.replaceAll("\\s+", " ");
+      if (statement.length() > MAX_SQL_LENGTH) {
+        statement = statement.substring(0, MAX_SQL_LENGTH) + "...";
+      }
+      timings.statements.add(millis(nanos) + "ms " + statement);
+    }
+  }
+
+  /** Opens a phase that is closed by {@link #end}; phases of the same name may nest. */
+  public static void begin(String phase) {
+    RequestTimings timings = CURRENT.get();
+    if (timings != null) {
+      timings.open.computeIfAbsent(phase, name -> new ArrayDeque<>()).push(System.nanoTime());
+    }
+  }
+
+  public static void end(String phase) {
+    RequestTimings timings = CURRENT.get();
+    if (timings == null) {
+      return;
+    }
+    ArrayDeque<Long> started = timings.open.get(phase);
+    if (started != null && !started.isEmpty()) {
+      record(phase, System.nanoTime() - started.pop());
+    }
+  }
+
+  static RequestTimings current() {
+    return CURRENT.get();
+  }
+
+  long getElapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  /** Closes phases left open, e.g. authentication that ended in a rejection. */
+  void closeOpenPhases() {
+    List<String> names = new ArrayList<>(open.keySet());
+    for (String name : names) {
+      while (!open.get(name).isEmpty()) {
+        end(name);
+      }
+    }
+  }
+
+  String toServerTiming() {
+    StringBuilder header = new StringBuilder();
+    phases.forEach(
+        (name, phase) ->
+            header
+                .append(name)
+                .append(";dur=")
+                .append(millis(phase.nanos))
+                .append(";desc=\"")
+                .append(phase.count)
+                .append(" calls\", "));
+    return header.append("total;dur=").append(millis(getElapsedNanos())).toString();
+  }
+
+  String toLogFields() {
+    StringBuilder fields = new StringBuilder();
+    phases.forEach(
+        (name, phase) ->
+            fields
+                .append(' ')
+                .append(name)
+                .append("Ms=")
+                .append(millis(phase.nanos))
+                .append(' ')
+                .append(name)
+                .append("Count=")
+                .append(phase.count));
+    return fields.append(" statements=").append(statements).toString();
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+  }
+
+  private static final class Phase {
+    private long nanos;
+    private int count;
+
+    private void add(long elapsed) {
+      nanos += elapsed;
+      count++;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.skypro.simplebanking.configuration;
 
+import com.skypro.simplebanking.service.FlightRecorderEvents;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,18 +11,34 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfiguration {
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder() {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                FlightRecorderEvents.PasswordCheckEvent event =
+                        new FlightRecorderEvents.PasswordCheckEvent();
+                event.begin();
+                boolean matched = super.matches(rawPassword, encodedPassword);
+                if (event.shouldCommit()) {
+                    event.matched = matched;
+                    event.commit();
+                }
+                return matched;
+            }
+        };
     }
 
     @Bean
     public SecurityFilterChain httpSecurity(
-            HttpSecurity httpSecurity, AdminSecurityFilter adminSecurityFilter) throws Exception {
+            HttpSecurity httpSecurity,
+            AdminSecurityFilter adminSecurityFilter,
+            TrafficCaptureFilter trafficCaptureFilter) throws Exception {
         return httpSecurity
                 .csrf()
                 .disable()
@@ -41,16 +58,27 @@ public class SecurityConfiguration {
                 .authorizeHttpRequests()
                 .antMatchers(HttpMethod.POST, "/user/")
                 .hasRole("ADMIN")
+                .antMatchers(HttpMethod.GET, "/user/search")
+                .hasRole("ADMIN")
                 .antMatchers("/user/*")
                 .hasRole("USER")
                 .antMatchers("/account/**")
                 .hasRole("USER")
                 .antMatchers("/transfer/**")
                 .hasRole("USER")
+                .antMatchers("/hold/**")
+                .hasRole("USER")
+                .antMatchers("/admin/**")
+                .hasRole("ADMIN")
                 .anyRequest()
                 .authenticated()
                 .and()
                 .addFilterBefore(adminSecurityFilter, AnonymousAuthenticationFilter.class)
+                .addFilterAfter(trafficCaptureFilter, AdminSecurityFilter.class)
+                .addFilterBefore(
+                        new AuthenticationTimingFilter(true), BasicAuthenticationFilter.class)
+                .addFilterAfter(
+                        new AuthenticationTimingFilter(false), BasicAuthenticationFilter.class)
                 .build();
     }
 }
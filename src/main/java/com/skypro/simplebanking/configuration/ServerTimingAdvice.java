@@ -0,0 +1,45 @@
+package com.skypro.simplebanking.configuration;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@code Server-Timing} header just before a body is written, since the response is
+ * committed by then and {@link RequestTimingFilter} can only set it on empty responses.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+  private final RequestTimingFilter requestTimingFilter;
+
+  public ServerTimingAdvice(RequestTimingFilter requestTimingFilter) {
+    this.requestTimingFilter = requestTimingFilter;
+  }
+
+  @Override
+  public boolean supports(
+      @NonNull MethodParameter returnType,
+      @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+    return requestTimingFilter.isServerTimingEnabled();
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      @NonNull MethodParameter returnType,
+      @NonNull MediaType selectedContentType,
+      @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      @NonNull ServerHttpRequest request,
+      @NonNull ServerHttpResponse response) {
+    RequestTimings timings = RequestTimings.current();
+    if (timings != null) {
+      response.getHeaders().set(RequestTimingFilter.SERVER_TIMING, timings.toServerTiming());
+    }
+    return body;
+  }
+}
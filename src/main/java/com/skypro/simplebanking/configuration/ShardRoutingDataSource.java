@@ -0,0 +1,39 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections to the shard selected by {@link ShardRouter} on the calling thread. Must be
+ * wrapped in a {@code LazyConnectionDataSourceProxy} so a transaction can pick its shard after it
+ * has begun.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+  private final List<HikariDataSource> shards;
+
+  public ShardRoutingDataSource(List<HikariDataSource> shards) {
+    this.shards = shards;
+    Map<Object, Object> targets = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      targets.put(i, shards.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(shards.get(0));
+    setLenientFallback(false);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return ShardRouter.currentShard();
+  }
+
+  @Override
+  public void close() {
+    shards.forEach(HikariDataSource::close);
+  }
+}
@@ -0,0 +1,133 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Spreads users over several databases. {@code spring.datasource} is shard 0 and every url in
+ * {@code app.sharding.urls} adds one more shard. Hibernate only manages the schema of shard 0, so
+ * the other shards get the same schema update once the context is up, and their id sequences are
+ * moved to the shard's own id range.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.sharding.urls:}'.isEmpty()")
+public class ShardingConfiguration {
+  private static final Logger log = LoggerFactory.getLogger(ShardingConfiguration.class);
+  private static final String[] SEQUENCES = {
+    "user_sequence", "account_sequence", "transfer_sequence", "scheduled_transfer_sequence"
+  };
+  private static final long SEQUENCE_INCREMENT = 50;
+
+  private final AtomicReference<Metadata> metadata = new AtomicReference<>();
+
+  @Bean
+  public ShardRoutingDataSource shardRoutingDataSource(
+      DataSourceProperties properties,
+      @Value("${app.sharding.urls}") List<String> shardUrls,
+      @Value("${app.sharding.username:${spring.datasource.username}}") String username,
+      @Value("${app.sharding.password:${spring.datasource.password}}") String password) {
+    List<HikariDataSource> shards = new ArrayList<>();
+    HikariDataSource first =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    first.setPoolName("shard-0");
+    shards.add(first);
+    for (String url : shardUrls) {
+      if (url.isBlank()) {
+        continue;
+      }
+      HikariDataSource shard = new HikariDataSource();
+      shard.setPoolName("shard-" + shards.size());
+      shard.setJdbcUrl(url);
+      shard.setUsername(username);
+      shard.setPassword(password);
+      shards.add(shard);
+    }
+    shards.forEach(shard -> shard.setMetricsTrackerFactory(RequestTimings.POOL_METRICS));
+    return new ShardRoutingDataSource(shards);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer shardMetadataCapture() {
+    Integrator capture =
+        new Integrator() {
+          @Override
+          public void integrate(
+              Metadata bootMetadata,
+              SessionFactoryImplementor sessionFactory,
+              SessionFactoryServiceRegistry serviceRegistry) {
+            metadata.set(bootMetadata);
+          }
+
+          @Override
+          public void disintegrate(
+              SessionFactoryImplementor sessionFactory,
+              SessionFactoryServiceRegistry serviceRegistry) {}
+        };
+    IntegratorProvider provider = () -> List.of(capture);
+    return properties -> properties.put("hibernate.integrator_provider", provider);
+  }
+
+  @Bean
+  public SmartInitializingSingleton shardSchemaInitializer(
+      ShardRouter shardRouter,
+      JdbcTemplate jdbcTemplate,
+      @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+    return () -> {
+      for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+        int target = shard;
+        shardRouter.onShard(
+            target,
+            () -> {
+              if (!"none".equals(ddlAuto) && !"validate".equals(ddlAuto)) {
+                new SchemaUpdate().execute(EnumSet.of(TargetType.DATABASE), metadata.get());
+              }
+              positionSequences(jdbcTemplate, target);
+            });
+        log.info("Shard {} is ready", target);
+      }
+    };
+  }
+
+  private static void positionSequences(JdbcTemplate jdbcTemplate, int shard) {
+    long firstBlock = ShardRouter.firstId(shard) + SEQUENCE_INCREMENT;
+    for (String sequence : SEQUENCES) {
+      jdbcTemplate.queryForObject(
+          "SELECT CASE WHEN last_value < ? THEN setval(?, ?, false) ELSE last_value END FROM "
+              + sequence,
+          Long.class,
+          firstBlock,
+          sequence,
+          firstBlock);
+    }
+  }
+}
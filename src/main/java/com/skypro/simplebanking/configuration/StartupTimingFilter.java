@@ -0,0 +1,45 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.service.StartupTimings;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@Component
+public class StartupTimingFilter extends OncePerRequestFilter {
+  private static final Logger log = LoggerFactory.getLogger(StartupTimingFilter.class);
+
+  private final StartupTimings startupTimings;
+
+  public StartupTimingFilter(StartupTimings startupTimings) {
+    this.startupTimings = startupTimings;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return startupTimings.isFirstAccountRequestRecorded()
+        || !request.getRequestURI().startsWith("/account");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    filterChain.doFilter(request, response);
+    if (response.getStatus() < 300 && !startupTimings.isFirstAccountRequestRecorded()) {
+      startupTimings.firstAccountRequestSucceeded();
+      log.info(
+          "First successful /account request {} ms after JVM start",
+          startupTimings.getFirstAccountRequestMillis());
+    }
+  }
+}
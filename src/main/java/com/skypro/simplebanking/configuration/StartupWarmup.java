@@ -0,0 +1,106 @@
+package com.skypro.simplebanking.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.StartupTimings;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the connection pool and runs the hot queries, BCrypt and Jackson once in the background,
+ * so the first real requests find warm connections, compiled query plans and loaded classes.
+ */
+@Component
+@Profile("fast-start")
+public class StartupWarmup {
+  private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+  private final DataSource dataSource;
+  private final TransactionTemplate transactionTemplate;
+  private final AccountRepository accountRepository;
+  private final UserRepository userRepository;
+  private final PasswordEncoder passwordEncoder;
+  private final ObjectMapper objectMapper;
+  private final StartupTimings startupTimings;
+  private final int connections;
+  private final boolean exitAfterWarmup;
+
+  public StartupWarmup(
+      DataSource dataSource,
+      TransactionTemplate transactionTemplate,
+      AccountRepository accountRepository,
+      UserRepository userRepository,
+      PasswordEncoder passwordEncoder,
+      ObjectMapper objectMapper,
+      StartupTimings startupTimings,
+      @Value("${app.startup.warmup-connections:10}") int connections,
+      @Value("${app.startup.exit-after-warmup:false}") boolean exitAfterWarmup) {
+    this.dataSource = dataSource;
+    this.transactionTemplate = transactionTemplate;
+    this.accountRepository = accountRepository;
+    this.userRepository = userRepository;
+    this.passwordEncoder = passwordEncoder;
+    this.objectMapper = objectMapper;
+    this.startupTimings = startupTimings;
+    this.connections = connections;
+    this.exitAfterWarmup = exitAfterWarmup;
+  }
+
+  @EventListener(ApplicationStartedEvent.class)
+  public void warmUp(ApplicationStartedEvent event) {
+    Thread thread = new Thread(() -> run(event.getApplicationContext()), "startup-warmup");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void run(ConfigurableApplicationContext context) {
+    try {
+      fillConnectionPool();
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            accountRepository.getAccountByUser_IdAndId(-1L, -1L);
+            userRepository.findByUsername("");
+            userRepository.findById(-1L);
+          });
+      passwordEncoder.matches("warmup", passwordEncoder.encode("warmup"));
+      objectMapper.writeValueAsString(new AccountDTO(0, 0, AccountCurrency.USD));
+      startupTimings.warmupFinished();
+      log.info(
+          "Startup warm-up finished {} ms after JVM start", startupTimings.getWarmupMillis());
+    } catch (Exception e) {
+      log.warn("Startup warm-up failed", e);
+    }
+    if (exitAfterWarmup) {
+      System.exit(SpringApplication.exit(context, () -> 0));
+    }
+  }
+
+  private void fillConnectionPool() throws Exception {
+    List<Connection> opened = new ArrayList<>();
+    try {
+      for (int i = 0; i < connections; i++) {
+        opened.add(dataSource.getConnection());
+      }
+    } finally {
+      for (Connection connection : opened) {
+        connection.close();
+      }
+    }
+  }
+}
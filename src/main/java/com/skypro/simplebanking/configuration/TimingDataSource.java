@@ -0,0 +1,137 @@
+package com.skypro.simplebanking.configuration;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+/**
+ * Reports every statement execution and every commit or rollback on its connections to {@link
+ * RequestTimings}.
+ */
+public class TimingDataSource extends DelegatingDataSource {
+  public TimingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  @NonNull
+  public Connection getConnection() throws SQLException {
+    return timed(super.getConnection());
+  }
+
+  @Override
+  @NonNull
+  public Connection getConnection(@NonNull String username, @NonNull String password)
+      throws SQLException {
+    return timed(super.getConnection(username, password));
+  }
+
+  private static Connection timed(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            TimingDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  private static final class ConnectionHandler implements InvocationHandler {
+    private final Connection target;
+
+    private ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "commit":
+          return timedCall(RequestTimings.COMMIT, method, args);
+        case "rollback":
+          return timedCall(RequestTimings.ROLLBACK, method, args);
+        case "createStatement":
+          return statement(
+              Statement.class, TimingDataSource.invoke(target, method, args), null);
+        case "prepareStatement":
+          return statement(
+              PreparedStatement.class,
+              TimingDataSource.invoke(target, method, args),
+              (String) args[0]);
+        case "prepareCall":
+          return statement(
+              CallableStatement.class,
+              TimingDataSource.invoke(target, method, args),
+              (String) args[0]);
+        default:
+          return TimingDataSource.invoke(target, method, args);
+      }
+    }
+
+    private Object timedCall(String phase, Method method, Object[] args) throws Throwable {
+      long start = System.nanoTime();
+      try {
+        return TimingDataSource.invoke(target, method, args);
+      } finally {
+        RequestTimings.record(phase, System.nanoTime() - start);
+      }
+    }
+
+    private static Object statement(Class<?> type, Object statement, String sql) {
+      return Proxy.newProxyInstance(
+          TimingDataSource.class.getClassLoader(),
+          new Class<?>[] {type},
+          new StatementHandler(statement, sql));
+    }
+  }
+
+  private static final class StatementHandler implements InvocationHandler {
+    private final Object target;
+    private final String sql;
+
+    private StatementHandler(Object target, String sql) {
+      this.target = target;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getName().equals("equals")) {
+        return proxy == args[0];
+      }
+      if (method.getName().equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      }
+      if (!method.getName().startsWith("execute")) {
+        return TimingDataSource.invoke(target, method, args);
+      }
+      long start = System.nanoTime();
+      try {
+        return TimingDataSource.invoke(target, method, args);
+      } finally {
+        String statement =
+            args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+        RequestTimings.recordStatement(statement, System.nanoTime() - start);
+      }
+    }
+  }
+}
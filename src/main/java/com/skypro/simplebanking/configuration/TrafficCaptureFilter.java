@@ -0,0 +1,101 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+/**
+ * Opt-in capture of {@code /account}, {@code /transfer} and {@code /user} traffic into a {@link
+ * TrafficLog} for replay. Runs in the security chain after {@link AdminSecurityFilter}, so the
+ * authenticated user id is known. Request bodies are kept except on {@code /user}, whose bodies
+ * carry passwords. Credentials are never recorded; the replayer signs in as seeded users.
+ */
+@Component
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+  private static final byte[] NO_BODY = new byte[0];
+
+  private final TrafficCaptureWriter writer;
+  private final long startNanos = System.nanoTime();
+
+  public TrafficCaptureFilter(
+      @Value("${app.capture.enabled:false}") boolean enabled,
+      @Value("${app.capture.directory:${java.io.tmpdir}/capture}") String directory,
+      @Value("${app.capture.queue-capacity:65536}") int queueCapacity)
+      throws IOException {
+    Instant start = Instant.now();
+    Path file = Paths.get(directory, "traffic-" + FILE_TIMESTAMP.format(start) + ".sbtc");
+    this.writer =
+        enabled ? new TrafficCaptureWriter(file, queueCapacity, start.toEpochMilli()) : null;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    if (writer == null) {
+      return true;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return !path.startsWith("/account")
+        && !path.startsWith("/transfer")
+        && !path.startsWith("/user");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    long arrivalNanos = System.nanoTime();
+    ContentCachingRequestWrapper wrapped = new ContentCachingRequestWrapper(request);
+    try {
+      filterChain.doFilter(wrapped, response);
+    } finally {
+      long completedNanos = System.nanoTime();
+      String path = wrapped.getRequestURI().substring(wrapped.getContextPath().length());
+      Object pattern = wrapped.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      writer.offer(
+          new TrafficLog.CapturedRequest(
+              TimeUnit.NANOSECONDS.toMicros(arrivalNanos - startNanos),
+              userId(),
+              wrapped.getMethod(),
+              pattern == null ? path : pattern.toString(),
+              wrapped.getQueryString() == null ? path : path + "?" + wrapped.getQueryString(),
+              path.startsWith("/user") ? NO_BODY : wrapped.getContentAsByteArray(),
+              response.getStatus(),
+              TimeUnit.NANOSECONDS.toMicros(completedNanos - arrivalNanos)));
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (writer != null) {
+      writer.close();
+    }
+  }
+
+  private static long userId() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null && authentication.getPrincipal() instanceof BankingUserDetails
+        ? ((BankingUserDetails) authentication.getPrincipal()).getId()
+        : 0;
+  }
+}
@@ -0,0 +1,100 @@
+package com.skypro.simplebanking.configuration;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends captured requests to a {@link TrafficLog} from a background thread. Request threads only
+ * offer to a bounded queue; when the writer falls behind, requests are dropped and counted rather
+ * than waited for. The buffer is flushed whenever the queue runs empty.
+ */
+final class TrafficCaptureWriter implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(TrafficCaptureWriter.class);
+  private static final int DRAIN_BATCH = 256;
+
+  private final Path file;
+  private final BlockingQueue<TrafficLog.CapturedRequest> queue;
+  private final OutputStream out;
+  private final Thread thread;
+  private final LongAdder written = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private volatile boolean closed;
+
+  TrafficCaptureWriter(Path file, int queueCapacity, long startEpochMillis) throws IOException {
+    this.file = file;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    this.out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+    TrafficLog.writeHeader(out, startEpochMillis);
+    this.thread = new Thread(this::run, "traffic-capture-writer");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** Queues the request without blocking; returns false if it was dropped. */
+  boolean offer(TrafficLog.CapturedRequest request) {
+    if (!closed && queue.offer(request)) {
+      return true;
+    }
+    dropped.increment();
+    return false;
+  }
+
+  /**
+   * Stops taking requests and waits for the writer to drain the queue, which it notices within one
+   * poll. The writer is not interrupted: an interrupt closes the file's channel under a write.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.info("Traffic capture {} closed: {} written, {} dropped", file, written, dropped);
+  }
+
+  private void run() {
+    List<TrafficLog.CapturedRequest> batch = new ArrayList<>(DRAIN_BATCH);
+    try (out) {
+      while (!closed || !queue.isEmpty()) {
+        try {
+          TrafficLog.CapturedRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+          if (first != null) {
+            batch.add(first);
+          }
+        } catch (InterruptedException e) {
+          closed = true;
+        }
+        queue.drainTo(batch, DRAIN_BATCH);
+        for (TrafficLog.CapturedRequest request : batch) {
+          TrafficLog.write(out, request);
+        }
+        written.add(batch.size());
+        batch.clear();
+        if (queue.isEmpty()) {
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      closed = true;
+      log.error("Traffic capture to {} failed, capture stopped", file, e);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.skypro.simplebanking.configuration;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Binary format of captured traffic. A log starts with the magic {@code SBTC}, a version byte and
+ * the capture start in epoch millis; each request follows as varints and length-prefixed bytes:
+ * arrival micros since the start, user id (zigzag), method, matched pattern, path with query,
+ * body, status and latency micros. Requests are written as they complete, so {@link #read} sorts
+ * them back into arrival order.
+ */
+public final class TrafficLog {
+  private static final int MAGIC = 0x53425443;
+  private static final int VERSION = 1;
+
+  private TrafficLog() {}
+
+  public static void writeHeader(OutputStream out, long startEpochMillis) throws IOException {
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      out.write(MAGIC >>> shift);
+    }
+    out.write(VERSION);
+    writeVarLong(out, startEpochMillis);
+  }
+
+  public static void write(OutputStream out, CapturedRequest request) throws IOException {
+    writeVarLong(out, request.arrivalMicros);
+    writeVarLong(out, (request.userId << 1) ^ (request.userId >> 63));
+    writeBytes(out, request.method.getBytes(StandardCharsets.US_ASCII));
+    writeBytes(out, request.pattern.getBytes(StandardCharsets.UTF_8));
+    writeBytes(out, request.path.getBytes(StandardCharsets.UTF_8));
+    writeBytes(out, request.body);
+    writeVarLong(out, request.status);
+    writeVarLong(out, request.latencyMicros);
+  }
+
+  /** Reads a whole log, in arrival order. */
+  public static List<CapturedRequest> read(Path file) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.read() != VERSION) {
+        throw new IOException("Not a traffic log: " + file);
+      }
+      readVarLong(in);
+      List<CapturedRequest> requests = new ArrayList<>();
+      while (true) {
+        long arrivalMicros;
+        try {
+          arrivalMicros = readVarLong(in);
+        } catch (EOFException e) {
+          break;
+        }
+        long zigzag = readVarLong(in);
+        requests.add(
+            new CapturedRequest(
+                arrivalMicros,
+                (zigzag >>> 1) ^ -(zigzag & 1),
+                new String(readBytes(in), StandardCharsets.US_ASCII),
+                new String(readBytes(in), StandardCharsets.UTF_8),
+                new String(readBytes(in), StandardCharsets.UTF_8),
+                readBytes(in),
+                (int) readVarLong(in),
+                readVarLong(in)));
+      }
+      requests.sort(Comparator.comparingLong(CapturedRequest::getArrivalMicros));
+      return requests;
+    }
+  }
+
+  private static void writeBytes(OutputStream out, byte[] bytes) throws IOException {
+    writeVarLong(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[(int) readVarLong(in)];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static void writeVarLong(OutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(InputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int next = in.read();
+      if (next < 0) {
+        throw new EOFException();
+      }
+      value |= (long) (next & 0x7F) << shift;
+      if ((next & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  /** One captured request. */
+  public static final class CapturedRequest {
+    private final long arrivalMicros;
+    private final long userId;
+    private final String method;
+    private final String pattern;
+    private final String path;
+    private final byte[] body;
+    private final int status;
+    private final long latencyMicros;
+
+    public CapturedRequest(
+        long arrivalMicros,
+        long userId,
+        String method,
+        String pattern,
+        String path,
+        byte[] body,
+        int status,
+        long latencyMicros) {
+      this.arrivalMicros = arrivalMicros;
+      this.userId = userId;
+      this.method = method;
+      this.pattern = pattern;
+      this.path = path;
+      this.body = body;
+      this.status = status;
+      this.latencyMicros = latencyMicros;
+    }
+
+    public long getArrivalMicros() {
+      return arrivalMicros;
+    }
+
+    public long getUserId() {
+      return userId;
+    }
+
+    public String getMethod() {
+      return method;
+    }
+
+    /** The matched request mapping, e.g. {@code /account/deposit/{id}}. */
+    public String getPattern() {
+      return pattern;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public byte[] getBody() {
+      return body;
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    public long getLatencyMicros() {
+      return latencyMicros;
+    }
+  }
+}
@@ -1,24 +1,44 @@
 package com.skypro.simplebanking.controller;
 
 import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.BalanceAsOfDTO;
 import com.skypro.simplebanking.dto.BalanceChangeRequest;
 import com.skypro.simplebanking.dto.BankingUserDetails;
 import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.BalanceEventRelay;
+import com.skypro.simplebanking.service.BalanceSnapshotService;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/account")
 public class AccountController {
   private final AccountService accountService;
+  private final BalanceEventRelay balanceEventRelay;
+  private final BalanceSnapshotService balanceSnapshotService;
 
-  public AccountController(AccountService accountService) {
+  public AccountController(AccountService accountService,
+                           BalanceEventRelay balanceEventRelay,
+                           BalanceSnapshotService balanceSnapshotService) {
     this.accountService = accountService;
+    this.balanceEventRelay = balanceEventRelay;
+    this.balanceSnapshotService = balanceSnapshotService;
   }
 
   @GetMapping("/{id}")
-  public AccountDTO getUserAccount(Authentication authentication, @PathVariable("id") Long accountId) {
+  public AccountDTO getUserAccount(Authentication authentication,
+                                   @PathVariable("id") Long accountId,
+                                   WebRequest webRequest) {
     BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    long version = accountService.getAccountVersion(bankingUserDetails.getId(), accountId);
+    if (webRequest.checkNotModified(accountId + "." + version)) {
+      return null;
+    }
     return accountService.getAccount(bankingUserDetails.getId(), accountId);
   }
 
@@ -37,4 +57,23 @@ public class AccountController {
     BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
     return accountService.withdrawFromAccount(bankingUserDetails.getId(),accountId, balanceChangeRequest.getAmount());
   }
+
+  @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamAccountEvents(Authentication authentication,
+                                        @PathVariable("id") Long accountId,
+                                        @RequestHeader(value = "Last-Event-ID", required = false)
+                                        Long lastEventId) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return balanceEventRelay.subscribe(bankingUserDetails.getId(), accountId, lastEventId);
+  }
+
+  @GetMapping("/{id}/balance")
+  public BalanceAsOfDTO getBalanceAsOf(Authentication authentication,
+                                       @PathVariable("id") Long accountId,
+                                       @RequestParam("asOf")
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                       LocalDate asOf) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return balanceSnapshotService.getBalanceAsOf(bankingUserDetails.getId(), accountId, asOf);
+  }
 }
@@ -0,0 +1,27 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.AccrualRequest;
+import com.skypro.simplebanking.dto.JobProgressDTO;
+import com.skypro.simplebanking.service.AccrualJobService;
+import javax.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/accrual")
+public class AccrualController {
+  private final AccrualJobService accrualJobService;
+
+  public AccrualController(AccrualJobService accrualJobService) {
+    this.accrualJobService = accrualJobService;
+  }
+
+  @PostMapping
+  public JobProgressDTO startAccrual(@RequestBody @Valid AccrualRequest accrualRequest) {
+    return JobProgressDTO.from(accrualJobService.start(accrualRequest));
+  }
+
+  @GetMapping
+  public JobProgressDTO getAccrualProgress() {
+    return JobProgressDTO.from(accrualJobService.getProgress());
+  }
+}
@@ -1,6 +1,7 @@
 package com.skypro.simplebanking.controller;
 
 import com.skypro.simplebanking.exception.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,11 +13,41 @@ public class BankingExceptionHandlers {
     return ResponseEntity.notFound().build();
   }
 
+  @ExceptionHandler(value = {ScheduledTransferNotFoundException.class})
+  public ResponseEntity<?> handleScheduledTransferNotFound() {
+    return ResponseEntity.notFound().build();
+  }
+
+  @ExceptionHandler(value = {PayrollImportNotFoundException.class})
+  public ResponseEntity<?> handlePayrollImportNotFound() {
+    return ResponseEntity.notFound().build();
+  }
+
+  @ExceptionHandler(value = {RecordingNotFoundException.class})
+  public ResponseEntity<?> handleRecordingNotFound() {
+    return ResponseEntity.notFound().build();
+  }
+
+  @ExceptionHandler(value = {HoldNotFoundException.class})
+  public ResponseEntity<?> handleHoldNotFound() {
+    return ResponseEntity.notFound().build();
+  }
+
+  @ExceptionHandler(value = {HoldNotActiveException.class})
+  public ResponseEntity<?> handleHoldNotActive(HoldNotActiveException exception) {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(exception.getMessage());
+  }
+
   @ExceptionHandler(value = {InsufficientFundsException.class})
   public ResponseEntity<?> handleInsufficientFunds(InsufficientFundsException exception) {
     return ResponseEntity.badRequest().body(exception.getMessage());
   }
 
+  @ExceptionHandler(value = {VelocityLimitExceededException.class})
+  public ResponseEntity<?> handleVelocityLimitExceeded(VelocityLimitExceededException exception) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(exception.getMessage());
+  }
+
   @ExceptionHandler(value = {UserAlreadyExistsException.class})
   public ResponseEntity<?> handleUserAlreadyExists() {
     return ResponseEntity.badRequest().build();
@@ -29,6 +60,26 @@ public class BankingExceptionHandlers {
 
   @ExceptionHandler(value = {WrongCurrencyException.class})
   public ResponseEntity<?> handleWrongCurrency() {
-    return ResponseEntity.badRequest().body("Account currencies should be same");
+    return ResponseEntity.badRequest().body("No exchange rate for account currencies");
+  }
+
+  @ExceptionHandler(value = {InvalidFxRateException.class})
+  public ResponseEntity<?> handleInvalidFxRate(InvalidFxRateException exception) {
+    return ResponseEntity.badRequest().body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {InvalidPayrollImportException.class})
+  public ResponseEntity<?> handleInvalidPayrollImport(InvalidPayrollImportException exception) {
+    return ResponseEntity.badRequest().body(exception.getMessage());
+  }
+
+  @ExceptionHandler(value = {GroupCommitUnavailableException.class})
+  public ResponseEntity<?> handleGroupCommitUnavailable() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+  }
+
+  @ExceptionHandler(value = {JobAlreadyRunningException.class})
+  public ResponseEntity<?> handleJobAlreadyRunning() {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body("Job is already running");
   }
 }
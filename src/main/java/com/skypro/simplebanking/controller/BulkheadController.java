@@ -0,0 +1,21 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.configuration.BulkheadFilter;
+import com.skypro.simplebanking.dto.BulkheadStatsDTO;
+import java.util.List;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/bulkheads")
+public class BulkheadController {
+  private final BulkheadFilter bulkheadFilter;
+
+  public BulkheadController(BulkheadFilter bulkheadFilter) {
+    this.bulkheadFilter = bulkheadFilter;
+  }
+
+  @GetMapping
+  public List<BulkheadStatsDTO> getStats() {
+    return bulkheadFilter.getStats();
+  }
+}
@@ -0,0 +1,47 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.FlightRecordingDTO;
+import com.skypro.simplebanking.service.FlightRecordingService;
+import java.nio.file.Path;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/jfr")
+public class FlightRecorderController {
+  private final FlightRecordingService flightRecordingService;
+
+  public FlightRecorderController(FlightRecordingService flightRecordingService) {
+    this.flightRecordingService = flightRecordingService;
+  }
+
+  @GetMapping
+  public FlightRecordingDTO getStatus() {
+    return flightRecordingService.getStatus();
+  }
+
+  @PostMapping("/start")
+  public FlightRecordingDTO start(
+      @RequestParam(value = "settings", defaultValue = "DEFAULT")
+          FlightRecordingService.Settings settings) {
+    return flightRecordingService.start(settings);
+  }
+
+  @PostMapping("/stop")
+  public FlightRecordingDTO stop() {
+    return flightRecordingService.stop();
+  }
+
+  @GetMapping("/recording")
+  public ResponseEntity<Resource> getRecording() {
+    Path file = flightRecordingService.getRecordingFile();
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + file.getFileName())
+        .body(new FileSystemResource(file));
+  }
+}
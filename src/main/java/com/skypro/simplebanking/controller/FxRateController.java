@@ -0,0 +1,31 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.FxRatesDTO;
+import com.skypro.simplebanking.service.FxRateService;
+import java.util.Map;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/fx")
+public class FxRateController {
+  private final FxRateService fxRateService;
+
+  public FxRateController(FxRateService fxRateService) {
+    this.fxRateService = fxRateService;
+  }
+
+  @GetMapping("/rates")
+  public FxRatesDTO getRates() {
+    return FxRatesDTO.from(fxRateService.getSnapshot());
+  }
+
+  @PutMapping("/rates")
+  public FxRatesDTO publishRates(@RequestBody Map<String, String> rates) {
+    return FxRatesDTO.from(fxRateService.publish(rates));
+  }
+
+  @PostMapping("/reload")
+  public FxRatesDTO reloadRates() {
+    return FxRatesDTO.from(fxRateService.reloadFromFile());
+  }
+}
@@ -0,0 +1,20 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.GroupCommitStatsDTO;
+import com.skypro.simplebanking.service.GroupCommitService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/group-commit")
+public class GroupCommitController {
+  private final GroupCommitService groupCommitService;
+
+  public GroupCommitController(GroupCommitService groupCommitService) {
+    this.groupCommitService = groupCommitService;
+  }
+
+  @GetMapping
+  public GroupCommitStatsDTO getStats() {
+    return groupCommitService.getStats();
+  }
+}
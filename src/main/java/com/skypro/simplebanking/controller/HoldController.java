@@ -0,0 +1,50 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.BalanceChangeRequest;
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.HoldDTO;
+import com.skypro.simplebanking.dto.HoldRequest;
+import com.skypro.simplebanking.service.AccountService;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/hold")
+public class HoldController {
+  private final AccountService accountService;
+
+  public HoldController(AccountService accountService) {
+    this.accountService = accountService;
+  }
+
+  @PostMapping
+  public HoldDTO authorizeHold(Authentication authentication, @RequestBody HoldRequest request) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return accountService.authorizeHold(
+        bankingUserDetails.getId(),
+        request.getAccountId(),
+        request.getAmount(),
+        request.getExpiresIn());
+  }
+
+  @GetMapping("/{id}")
+  public HoldDTO getHold(Authentication authentication, @PathVariable("id") long holdId) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return accountService.getHold(bankingUserDetails.getId(), holdId);
+  }
+
+  @PostMapping("/{id}/capture")
+  public HoldDTO captureHold(
+      Authentication authentication,
+      @PathVariable("id") long holdId,
+      @RequestBody BalanceChangeRequest request) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return accountService.captureHold(bankingUserDetails.getId(), holdId, request.getAmount());
+  }
+
+  @PostMapping("/{id}/release")
+  public HoldDTO releaseHold(Authentication authentication, @PathVariable("id") long holdId) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return accountService.releaseHold(bankingUserDetails.getId(), holdId);
+  }
+}
@@ -0,0 +1,44 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.JobProgressDTO;
+import com.skypro.simplebanking.service.PayrollImportService;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/payroll")
+public class PayrollImportController {
+  private final PayrollImportService payrollImportService;
+
+  public PayrollImportController(PayrollImportService payrollImportService) {
+    this.payrollImportService = payrollImportService;
+  }
+
+  @PutMapping("/{importId}")
+  public JobProgressDTO importPayroll(
+      @PathVariable("importId") String importId,
+      @RequestParam(value = "format", defaultValue = "CSV") PayrollImportService.Format format,
+      InputStream content)
+      throws IOException {
+    return JobProgressDTO.from(payrollImportService.start(importId, format, content));
+  }
+
+  @GetMapping("/{importId}")
+  public JobProgressDTO getImportProgress(@PathVariable("importId") String importId) {
+    return JobProgressDTO.from(payrollImportService.getProgress(importId));
+  }
+
+  @GetMapping("/{importId}/result")
+  public ResponseEntity<Resource> getImportResult(@PathVariable("importId") String importId) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType("text/csv"))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + importId + ".csv")
+        .body(new FileSystemResource(payrollImportService.getResultFile(importId)));
+  }
+}
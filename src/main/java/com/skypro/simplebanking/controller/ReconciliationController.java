@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.ReconciliationReportDTO;
+import com.skypro.simplebanking.service.ReconciliationService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/reconciliation")
+public class ReconciliationController {
+  private final ReconciliationService reconciliationService;
+
+  public ReconciliationController(ReconciliationService reconciliationService) {
+    this.reconciliationService = reconciliationService;
+  }
+
+  @PostMapping
+  public ReconciliationReportDTO startReconciliation() {
+    return reconciliationService.start();
+  }
+
+  @GetMapping
+  public ReconciliationReportDTO getReconciliationReport() {
+    return reconciliationService.getReport();
+  }
+}
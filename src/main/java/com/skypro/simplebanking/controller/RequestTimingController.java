@@ -0,0 +1,26 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.configuration.RequestTimingFilter;
+import com.skypro.simplebanking.dto.RequestTimingSettingsDTO;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/request-timing")
+public class RequestTimingController {
+  private final RequestTimingFilter requestTimingFilter;
+
+  public RequestTimingController(RequestTimingFilter requestTimingFilter) {
+    this.requestTimingFilter = requestTimingFilter;
+  }
+
+  @GetMapping
+  public RequestTimingSettingsDTO getSettings() {
+    return requestTimingFilter.getSettings();
+  }
+
+  @PutMapping
+  public RequestTimingSettingsDTO updateSettings(@RequestBody RequestTimingSettingsDTO settings) {
+    requestTimingFilter.updateSettings(settings);
+    return requestTimingFilter.getSettings();
+  }
+}
@@ -0,0 +1,40 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.ScheduledTransferDTO;
+import com.skypro.simplebanking.dto.ScheduledTransferRequest;
+import com.skypro.simplebanking.service.ScheduledTransferService;
+import java.util.List;
+import javax.validation.Valid;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/transfer/scheduled")
+public class ScheduledTransferController {
+  private final ScheduledTransferService scheduledTransferService;
+
+  public ScheduledTransferController(ScheduledTransferService scheduledTransferService) {
+    this.scheduledTransferService = scheduledTransferService;
+  }
+
+  @PostMapping
+  public ScheduledTransferDTO createScheduledTransfer(
+      Authentication authentication, @RequestBody @Valid ScheduledTransferRequest request) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return scheduledTransferService.create(bankingUserDetails.getId(), request);
+  }
+
+  @GetMapping
+  public List<ScheduledTransferDTO> listScheduledTransfers(Authentication authentication) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    return scheduledTransferService.list(bankingUserDetails.getId());
+  }
+
+  @DeleteMapping("/{id}")
+  public void cancelScheduledTransfer(
+      Authentication authentication, @PathVariable("id") long id) {
+    BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    scheduledTransferService.cancel(bankingUserDetails.getId(), id);
+  }
+}
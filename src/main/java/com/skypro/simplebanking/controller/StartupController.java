@@ -0,0 +1,22 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.StartupTimingsDTO;
+import com.skypro.simplebanking.service.StartupTimings;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/startup")
+public class StartupController {
+  private final StartupTimings startupTimings;
+
+  public StartupController(StartupTimings startupTimings) {
+    this.startupTimings = startupTimings;
+  }
+
+  @GetMapping
+  public StartupTimingsDTO getStartupTimings() {
+    return StartupTimingsDTO.from(startupTimings);
+  }
+}
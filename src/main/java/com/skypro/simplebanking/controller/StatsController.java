@@ -0,0 +1,26 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.NodeStatsDTO;
+import com.skypro.simplebanking.service.BankingStatistics;
+import java.util.List;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/stats")
+public class StatsController {
+  private final BankingStatistics bankingStatistics;
+
+  public StatsController(BankingStatistics bankingStatistics) {
+    this.bankingStatistics = bankingStatistics;
+  }
+
+  @GetMapping
+  public NodeStatsDTO getNodeStats() {
+    return bankingStatistics.snapshot();
+  }
+
+  @PostMapping("/merge")
+  public NodeStatsDTO mergeNodeStats(@RequestBody List<NodeStatsDTO> nodes) {
+    return NodeStatsDTO.merge(nodes);
+  }
+}
@@ -6,9 +6,11 @@ import com.skypro.simplebanking.dto.ListUserDTO;
 import com.skypro.simplebanking.dto.UserDTO;
 import javax.validation.Valid;
 
+import com.skypro.simplebanking.service.AccountService;
 import com.skypro.simplebanking.service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,9 +18,11 @@ import java.util.List;
 @RequestMapping("/user")
 public class UserController {
   private final UserService userService;
+  private final AccountService accountService;
 
-  public UserController(UserService userService) {
+  public UserController(UserService userService, AccountService accountService) {
     this.userService = userService;
+    this.accountService = accountService;
   }
 
   @PostMapping
@@ -29,9 +33,20 @@ public class UserController {
   public List<ListUserDTO> getAllUsers(){
     return userService.listUsers();
   }
+  @GetMapping("/search")
+  public List<ListUserDTO> searchUsers(
+      @RequestParam("q") String query,
+      @RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "20") int size) {
+    return userService.searchUsers(query, after, size);
+  }
   @GetMapping("/me")
-  public UserDTO getMyProfile(Authentication authentication){
+  public UserDTO getMyProfile(Authentication authentication, WebRequest webRequest){
     BankingUserDetails bankingUserDetails = (BankingUserDetails) authentication.getPrincipal();
+    String version = accountService.getAccountsVersion(bankingUserDetails.getId());
+    if (webRequest.checkNotModified(bankingUserDetails.getId() + "." + version)) {
+      return null;
+    }
     return userService.getUser(bankingUserDetails.getId());
   }
 }
@@ -0,0 +1,44 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+
+public class AccountDiscrepancyDTO {
+  private final long accountId;
+  private final long userId;
+  private final AccountCurrency currency;
+  private final long actualBalance;
+  private final long expectedBalance;
+
+  public AccountDiscrepancyDTO(
+      long accountId,
+      long userId,
+      AccountCurrency currency,
+      long actualBalance,
+      long expectedBalance) {
+    this.accountId = accountId;
+    this.userId = userId;
+    this.currency = currency;
+    this.actualBalance = actualBalance;
+    this.expectedBalance = expectedBalance;
+  }
+
+  public long getAccountId() {
+    return accountId;
+  }
+
+  public long getUserId() {
+    return userId;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public long getActualBalance() {
+    return actualBalance;
+  }
+
+  public long getExpectedBalance() {
+    return expectedBalance;
+  }
+}
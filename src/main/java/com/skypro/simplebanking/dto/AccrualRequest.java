@@ -0,0 +1,40 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
+
+public class AccrualRequest {
+  @NotBlank private String period;
+  private Map<AccountCurrency, @NotNull @PositiveOrZero Long> interestBasisPoints =
+      new EnumMap<>(AccountCurrency.class);
+  private Map<AccountCurrency, @NotNull @PositiveOrZero Long> monthlyFee =
+      new EnumMap<>(AccountCurrency.class);
+
+  public String getPeriod() {
+    return period;
+  }
+
+  public void setPeriod(String period) {
+    this.period = period;
+  }
+
+  public Map<AccountCurrency, Long> getInterestBasisPoints() {
+    return interestBasisPoints;
+  }
+
+  public void setInterestBasisPoints(Map<AccountCurrency, Long> interestBasisPoints) {
+    this.interestBasisPoints = interestBasisPoints;
+  }
+
+  public Map<AccountCurrency, Long> getMonthlyFee() {
+    return monthlyFee;
+  }
+
+  public void setMonthlyFee(Map<AccountCurrency, Long> monthlyFee) {
+    this.monthlyFee = monthlyFee;
+  }
+}
@@ -0,0 +1,34 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.time.LocalDate;
+
+public class BalanceAsOfDTO {
+  private final long accountId;
+  private final AccountCurrency currency;
+  private final LocalDate asOf;
+  private final long balance;
+
+  public BalanceAsOfDTO(long accountId, AccountCurrency currency, LocalDate asOf, long balance) {
+    this.accountId = accountId;
+    this.currency = currency;
+    this.asOf = asOf;
+    this.balance = balance;
+  }
+
+  public long getAccountId() {
+    return accountId;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public LocalDate getAsOf() {
+    return asOf;
+  }
+
+  public long getBalance() {
+    return balance;
+  }
+}
@@ -0,0 +1,64 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.BalanceEvent;
+import com.skypro.simplebanking.entity.MovementType;
+import java.time.Instant;
+
+public class BalanceEventDTO {
+  private final long accountId;
+  private final AccountCurrency currency;
+  private final long balance;
+  private final long amount;
+  private final MovementType type;
+  private final Instant createdAt;
+
+  public BalanceEventDTO(
+      long accountId,
+      AccountCurrency currency,
+      long balance,
+      long amount,
+      MovementType type,
+      Instant createdAt) {
+    this.accountId = accountId;
+    this.currency = currency;
+    this.balance = balance;
+    this.amount = amount;
+    this.type = type;
+    this.createdAt = createdAt;
+  }
+
+  public long getAccountId() {
+    return accountId;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public long getBalance() {
+    return balance;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public MovementType getType() {
+    return type;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public static BalanceEventDTO from(BalanceEvent event) {
+    return new BalanceEventDTO(
+        event.getAccountId(),
+        event.getAccountCurrency(),
+        event.getBalance(),
+        event.getAmount(),
+        event.getType(),
+        event.getCreatedAt());
+  }
+}
@@ -0,0 +1,91 @@
+package com.skypro.simplebanking.dto;
+
+public class BulkheadStatsDTO {
+  private final String name;
+  private final int maxConcurrent;
+  private final int active;
+  private final int maxQueued;
+  private final int queued;
+  private final long maxWaitMillis;
+  private final long accepted;
+  private final long rejected;
+  private final int poolSize;
+  private final int poolActive;
+  private final int poolIdle;
+  private final int poolWaiting;
+
+  public BulkheadStatsDTO(
+      String name,
+      int maxConcurrent,
+      int active,
+      int maxQueued,
+      int queued,
+      long maxWaitMillis,
+      long accepted,
+      long rejected,
+      int poolSize,
+      int poolActive,
+      int poolIdle,
+      int poolWaiting) {
+    this.name = name;
+    this.maxConcurrent = maxConcurrent;
+    this.active = active;
+    this.maxQueued = maxQueued;
+    this.queued = queued;
+    this.maxWaitMillis = maxWaitMillis;
+    this.accepted = accepted;
+    this.rejected = rejected;
+    this.poolSize = poolSize;
+    this.poolActive = poolActive;
+    this.poolIdle = poolIdle;
+    this.poolWaiting = poolWaiting;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  public int getActive() {
+    return active;
+  }
+
+  public int getMaxQueued() {
+    return maxQueued;
+  }
+
+  public int getQueued() {
+    return queued;
+  }
+
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  public long getAccepted() {
+    return accepted;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public int getPoolActive() {
+    return poolActive;
+  }
+
+  public int getPoolIdle() {
+    return poolIdle;
+  }
+
+  public int getPoolWaiting() {
+    return poolWaiting;
+  }
+}
@@ -0,0 +1,105 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+
+public class CurrencyStatsDTO {
+  private AccountCurrency currency;
+  private long seedAccounts;
+  private long seedBalance;
+  private long accounts;
+  private long balance;
+  private long depositCount;
+  private long depositVolume;
+  private long withdrawalCount;
+  private long withdrawalVolume;
+  private long transferCount;
+  private long transferVolume;
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public void setCurrency(AccountCurrency currency) {
+    this.currency = currency;
+  }
+
+  public long getSeedAccounts() {
+    return seedAccounts;
+  }
+
+  public void setSeedAccounts(long seedAccounts) {
+    this.seedAccounts = seedAccounts;
+  }
+
+  public long getSeedBalance() {
+    return seedBalance;
+  }
+
+  public void setSeedBalance(long seedBalance) {
+    this.seedBalance = seedBalance;
+  }
+
+  public long getAccounts() {
+    return accounts;
+  }
+
+  public void setAccounts(long accounts) {
+    this.accounts = accounts;
+  }
+
+  public long getBalance() {
+    return balance;
+  }
+
+  public void setBalance(long balance) {
+    this.balance = balance;
+  }
+
+  public long getDepositCount() {
+    return depositCount;
+  }
+
+  public void setDepositCount(long depositCount) {
+    this.depositCount = depositCount;
+  }
+
+  public long getDepositVolume() {
+    return depositVolume;
+  }
+
+  public void setDepositVolume(long depositVolume) {
+    this.depositVolume = depositVolume;
+  }
+
+  public long getWithdrawalCount() {
+    return withdrawalCount;
+  }
+
+  public void setWithdrawalCount(long withdrawalCount) {
+    this.withdrawalCount = withdrawalCount;
+  }
+
+  public long getWithdrawalVolume() {
+    return withdrawalVolume;
+  }
+
+  public void setWithdrawalVolume(long withdrawalVolume) {
+    this.withdrawalVolume = withdrawalVolume;
+  }
+
+  public long getTransferCount() {
+    return transferCount;
+  }
+
+  public void setTransferCount(long transferCount) {
+    this.transferCount = transferCount;
+  }
+
+  public long getTransferVolume() {
+    return transferVolume;
+  }
+
+  public void setTransferVolume(long transferVolume) {
+    this.transferVolume = transferVolume;
+  }
+}
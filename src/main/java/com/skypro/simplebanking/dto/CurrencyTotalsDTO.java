@@ -0,0 +1,38 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+
+public class CurrencyTotalsDTO {
+  private final AccountCurrency currency;
+  private final long accounts;
+  private final long actualBalance;
+  private final long expectedBalance;
+
+  public CurrencyTotalsDTO(
+      AccountCurrency currency, long accounts, long actualBalance, long expectedBalance) {
+    this.currency = currency;
+    this.accounts = accounts;
+    this.actualBalance = actualBalance;
+    this.expectedBalance = expectedBalance;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  public long getAccounts() {
+    return accounts;
+  }
+
+  public long getActualBalance() {
+    return actualBalance;
+  }
+
+  public long getExpectedBalance() {
+    return expectedBalance;
+  }
+
+  public long getDifference() {
+    return actualBalance - expectedBalance;
+  }
+}
@@ -0,0 +1,40 @@
+package com.skypro.simplebanking.dto;
+
+import java.time.Instant;
+
+public class FlightRecordingDTO {
+  private final boolean running;
+  private final String settings;
+  private final Instant startedAt;
+  private final Instant stoppedAt;
+  private final long sizeBytes;
+
+  public FlightRecordingDTO(
+      boolean running, String settings, Instant startedAt, Instant stoppedAt, long sizeBytes) {
+    this.running = running;
+    this.settings = settings;
+    this.startedAt = startedAt;
+    this.stoppedAt = stoppedAt;
+    this.sizeBytes = sizeBytes;
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  public String getSettings() {
+    return settings;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public Instant getStoppedAt() {
+    return stoppedAt;
+  }
+
+  public long getSizeBytes() {
+    return sizeBytes;
+  }
+}
@@ -0,0 +1,35 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.service.FxRateService;
+import com.skypro.simplebanking.service.FxRateSnapshot;
+import java.time.Instant;
+import java.util.Map;
+
+public class FxRatesDTO {
+  private final long version;
+  private final Instant publishedAt;
+  private final Map<String, String> rates;
+
+  public FxRatesDTO(long version, Instant publishedAt, Map<String, String> rates) {
+    this.version = version;
+    this.publishedAt = publishedAt;
+    this.rates = rates;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Instant getPublishedAt() {
+    return publishedAt;
+  }
+
+  public Map<String, String> getRates() {
+    return rates;
+  }
+
+  public static FxRatesDTO from(FxRateSnapshot snapshot) {
+    return new FxRatesDTO(
+        snapshot.getVersion(), snapshot.getPublishedAt(), FxRateService.describe(snapshot));
+  }
+}
@@ -0,0 +1,56 @@
+package com.skypro.simplebanking.dto;
+
+public class GroupCommitStatsDTO {
+  private final boolean enabled;
+  private final long windowMicros;
+  private final int maxBatchSize;
+  private final long batches;
+  private final long operations;
+  private final long retriedAlone;
+  private final double averageBatchSize;
+
+  public GroupCommitStatsDTO(
+      boolean enabled,
+      long windowMicros,
+      int maxBatchSize,
+      long batches,
+      long operations,
+      long retriedAlone,
+      double averageBatchSize) {
+    this.enabled = enabled;
+    this.windowMicros = windowMicros;
+    this.maxBatchSize = maxBatchSize;
+    this.batches = batches;
+    this.operations = operations;
+    this.retriedAlone = retriedAlone;
+    this.averageBatchSize = averageBatchSize;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getWindowMicros() {
+    return windowMicros;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public long getBatches() {
+    return batches;
+  }
+
+  public long getOperations() {
+    return operations;
+  }
+
+  public long getRetriedAlone() {
+    return retriedAlone;
+  }
+
+  public double getAverageBatchSize() {
+    return averageBatchSize;
+  }
+}
@@ -0,0 +1,72 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.Hold;
+import com.skypro.simplebanking.entity.HoldStatus;
+import java.time.Instant;
+
+public class HoldDTO {
+  private final long id;
+  private final long accountId;
+  private final long amount;
+  private final long captured;
+  private final HoldStatus status;
+  private final Instant expiresAt;
+  private final long accountAvailable;
+
+  public HoldDTO(
+      long id,
+      long accountId,
+      long amount,
+      long captured,
+      HoldStatus status,
+      Instant expiresAt,
+      long accountAvailable) {
+    this.id = id;
+    this.accountId = accountId;
+    this.amount = amount;
+    this.captured = captured;
+    this.status = status;
+    this.expiresAt = expiresAt;
+    this.accountAvailable = accountAvailable;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public long getAccountId() {
+    return accountId;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public long getCaptured() {
+    return captured;
+  }
+
+  public HoldStatus getStatus() {
+    return status;
+  }
+
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+
+  public long getAccountAvailable() {
+    return accountAvailable;
+  }
+
+  public static HoldDTO from(Hold hold, Account account) {
+    return new HoldDTO(
+        hold.getId(),
+        hold.getAccountId(),
+        hold.getAmount(),
+        hold.getCaptured(),
+        hold.getStatus(),
+        hold.getExpiresAt(),
+        account.getAvailable());
+  }
+}
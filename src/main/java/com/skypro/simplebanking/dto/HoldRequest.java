@@ -0,0 +1,33 @@
+package com.skypro.simplebanking.dto;
+
+import java.time.Duration;
+
+public class HoldRequest {
+  private long accountId;
+  private long amount;
+  private Duration expiresIn;
+
+  public long getAccountId() {
+    return accountId;
+  }
+
+  public void setAccountId(long accountId) {
+    this.accountId = accountId;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(long amount) {
+    this.amount = amount;
+  }
+
+  public Duration getExpiresIn() {
+    return expiresIn;
+  }
+
+  public void setExpiresIn(Duration expiresIn) {
+    this.expiresIn = expiresIn;
+  }
+}
@@ -0,0 +1,94 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.service.JobProgress;
+import java.time.Instant;
+
+public class JobProgressDTO {
+  private final String name;
+  private final JobProgress.Status status;
+  private final Instant startedAt;
+  private final Instant finishedAt;
+  private final long totalUnits;
+  private final long completedUnits;
+  private final long skippedUnits;
+  private final long processedItems;
+  private final long itemsPerSecond;
+  private final String error;
+
+  public JobProgressDTO(
+      String name,
+      JobProgress.Status status,
+      Instant startedAt,
+      Instant finishedAt,
+      long totalUnits,
+      long completedUnits,
+      long skippedUnits,
+      long processedItems,
+      long itemsPerSecond,
+      String error) {
+    this.name = name;
+    this.status = status;
+    this.startedAt = startedAt;
+    this.finishedAt = finishedAt;
+    this.totalUnits = totalUnits;
+    this.completedUnits = completedUnits;
+    this.skippedUnits = skippedUnits;
+    this.processedItems = processedItems;
+    this.itemsPerSecond = itemsPerSecond;
+    this.error = error;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public JobProgress.Status getStatus() {
+    return status;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public long getTotalUnits() {
+    return totalUnits;
+  }
+
+  public long getCompletedUnits() {
+    return completedUnits;
+  }
+
+  public long getSkippedUnits() {
+    return skippedUnits;
+  }
+
+  public long getProcessedItems() {
+    return processedItems;
+  }
+
+  public long getItemsPerSecond() {
+    return itemsPerSecond;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public static JobProgressDTO from(JobProgress progress) {
+    return new JobProgressDTO(
+        progress.getName(),
+        progress.getStatus(),
+        progress.getStartedAt(),
+        progress.getFinishedAt(),
+        progress.getTotalUnits(),
+        progress.getCompletedUnits(),
+        progress.getSkippedUnits(),
+        progress.getProcessedItems(),
+        progress.getItemsPerSecond(),
+        progress.getError());
+  }
+}
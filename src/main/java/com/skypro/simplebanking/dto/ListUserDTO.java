@@ -1,5 +1,6 @@
 package com.skypro.simplebanking.dto;
 
+import com.skypro.simplebanking.entity.Account;
 import com.skypro.simplebanking.entity.User;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,6 +33,8 @@ public class ListUserDTO {
     return new ListUserDTO(
         user.getId(),
         user.getUsername(),
-        user.getAccounts().stream().map(ListAccountDTO::from).collect(Collectors.toList()));
+        Account.withVirtualAccounts(user).stream()
+            .map(ListAccountDTO::from)
+            .collect(Collectors.toList()));
   }
 }
@@ -0,0 +1,101 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class NodeStatsDTO {
+  private String nodeId;
+  private Instant seededAt;
+  private Instant capturedAt;
+  private List<CurrencyStatsDTO> currencies = new ArrayList<>();
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  public void setNodeId(String nodeId) {
+    this.nodeId = nodeId;
+  }
+
+  public Instant getSeededAt() {
+    return seededAt;
+  }
+
+  public void setSeededAt(Instant seededAt) {
+    this.seededAt = seededAt;
+  }
+
+  public Instant getCapturedAt() {
+    return capturedAt;
+  }
+
+  public void setCapturedAt(Instant capturedAt) {
+    this.capturedAt = capturedAt;
+  }
+
+  public List<CurrencyStatsDTO> getCurrencies() {
+    return currencies;
+  }
+
+  public void setCurrencies(List<CurrencyStatsDTO> currencies) {
+    this.currencies = currencies;
+  }
+
+  /**
+   * Activity counters are summed across nodes. Each node's balance and account count are its
+   * startup seed plus its own changes since then, so the merge takes the earliest seed and adds the
+   * changes of every node: whatever another node wrote before the earliest seed is already in it,
+   * and every node seeded later only counts what it wrote after its own seed. Writes made by a node
+   * that is missing from the list, or by a previous run of a restarted node, are not included.
+   */
+  public static NodeStatsDTO merge(List<NodeStatsDTO> nodes) {
+    Map<AccountCurrency, CurrencyStatsDTO> merged = new EnumMap<>(AccountCurrency.class);
+    NodeStatsDTO earliestSeed =
+        nodes.stream()
+            .filter(node -> node.getSeededAt() != null)
+            .min(Comparator.comparing(NodeStatsDTO::getSeededAt))
+            .orElse(null);
+    Instant capturedAt = null;
+    for (NodeStatsDTO node : nodes) {
+      if (node.getCapturedAt() != null
+          && (capturedAt == null || node.getCapturedAt().isAfter(capturedAt))) {
+        capturedAt = node.getCapturedAt();
+      }
+      for (CurrencyStatsDTO stats : node.getCurrencies()) {
+        CurrencyStatsDTO total =
+            merged.computeIfAbsent(
+                stats.getCurrency(),
+                currency -> {
+                  CurrencyStatsDTO empty = new CurrencyStatsDTO();
+                  empty.setCurrency(currency);
+                  return empty;
+                });
+        total.setAccounts(total.getAccounts() + stats.getAccounts() - stats.getSeedAccounts());
+        total.setBalance(total.getBalance() + stats.getBalance() - stats.getSeedBalance());
+        if (node == earliestSeed) {
+          total.setSeedAccounts(stats.getSeedAccounts());
+          total.setSeedBalance(stats.getSeedBalance());
+          total.setAccounts(total.getAccounts() + stats.getSeedAccounts());
+          total.setBalance(total.getBalance() + stats.getSeedBalance());
+        }
+        total.setDepositCount(total.getDepositCount() + stats.getDepositCount());
+        total.setDepositVolume(total.getDepositVolume() + stats.getDepositVolume());
+        total.setWithdrawalCount(total.getWithdrawalCount() + stats.getWithdrawalCount());
+        total.setWithdrawalVolume(total.getWithdrawalVolume() + stats.getWithdrawalVolume());
+        total.setTransferCount(total.getTransferCount() + stats.getTransferCount());
+        total.setTransferVolume(total.getTransferVolume() + stats.getTransferVolume());
+      }
+    }
+    NodeStatsDTO result = new NodeStatsDTO();
+    result.setNodeId("merged");
+    result.setCapturedAt(capturedAt);
+    result.setSeededAt(earliestSeed == null ? null : earliestSeed.getSeededAt());
+    result.setCurrencies(new ArrayList<>(merged.values()));
+    return result;
+  }
+}
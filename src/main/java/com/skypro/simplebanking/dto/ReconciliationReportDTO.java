@@ -0,0 +1,50 @@
+package com.skypro.simplebanking.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class ReconciliationReportDTO {
+  private final JobProgressDTO progress;
+  private final List<CurrencyTotalsDTO> totals;
+  private final Map<Long, Long> userDifferences;
+  private final List<AccountDiscrepancyDTO> discrepancies;
+  private final long discrepancyCount;
+
+  public ReconciliationReportDTO(
+      JobProgressDTO progress,
+      List<CurrencyTotalsDTO> totals,
+      Map<Long, Long> userDifferences,
+      List<AccountDiscrepancyDTO> discrepancies,
+      long discrepancyCount) {
+    this.progress = progress;
+    this.totals = totals;
+    this.userDifferences = userDifferences;
+    this.discrepancies = discrepancies;
+    this.discrepancyCount = discrepancyCount;
+  }
+
+  public JobProgressDTO getProgress() {
+    return progress;
+  }
+
+  public List<CurrencyTotalsDTO> getTotals() {
+    return totals;
+  }
+
+  public Map<Long, Long> getUserDifferences() {
+    return userDifferences;
+  }
+
+  public List<AccountDiscrepancyDTO> getDiscrepancies() {
+    return discrepancies;
+  }
+
+  public long getDiscrepancyCount() {
+    return discrepancyCount;
+  }
+
+  public boolean isBalanced() {
+    return discrepancyCount == 0
+        && totals.stream().allMatch(total -> total.getDifference() == 0);
+  }
+}
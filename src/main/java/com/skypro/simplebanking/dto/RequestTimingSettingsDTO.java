@@ -0,0 +1,22 @@
+package com.skypro.simplebanking.dto;
+
+public class RequestTimingSettingsDTO {
+  private boolean serverTiming;
+  private long slowThresholdMillis;
+
+  public boolean isServerTiming() {
+    return serverTiming;
+  }
+
+  public void setServerTiming(boolean serverTiming) {
+    this.serverTiming = serverTiming;
+  }
+
+  public long getSlowThresholdMillis() {
+    return slowThresholdMillis;
+  }
+
+  public void setSlowThresholdMillis(long slowThresholdMillis) {
+    this.slowThresholdMillis = slowThresholdMillis;
+  }
+}
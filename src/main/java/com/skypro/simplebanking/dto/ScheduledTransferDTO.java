@@ -0,0 +1,103 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.Recurrence;
+import com.skypro.simplebanking.entity.ScheduledTransfer;
+import java.time.Instant;
+
+public class ScheduledTransferDTO {
+  private final long id;
+  private final long fromAccountId;
+  private final long toUserId;
+  private final long toAccountId;
+  private final long amount;
+  private final Recurrence recurrence;
+  private final Instant nextExecutionAt;
+  private final boolean active;
+  private final long executions;
+  private final Instant lastExecutedAt;
+  private final String lastError;
+
+  public ScheduledTransferDTO(
+      long id,
+      long fromAccountId,
+      long toUserId,
+      long toAccountId,
+      long amount,
+      Recurrence recurrence,
+      Instant nextExecutionAt,
+      boolean active,
+      long executions,
+      Instant lastExecutedAt,
+      String lastError) {
+    this.id = id;
+    this.fromAccountId = fromAccountId;
+    this.toUserId = toUserId;
+    this.toAccountId = toAccountId;
+    this.amount = amount;
+    this.recurrence = recurrence;
+    this.nextExecutionAt = nextExecutionAt;
+    this.active = active;
+    this.executions = executions;
+    this.lastExecutedAt = lastExecutedAt;
+    this.lastError = lastError;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public long getToUserId() {
+    return toUserId;
+  }
+
+  public long getToAccountId() {
+    return toAccountId;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public Recurrence getRecurrence() {
+    return recurrence;
+  }
+
+  public Instant getNextExecutionAt() {
+    return nextExecutionAt;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public long getExecutions() {
+    return executions;
+  }
+
+  public Instant getLastExecutedAt() {
+    return lastExecutedAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public static ScheduledTransferDTO from(ScheduledTransfer scheduledTransfer) {
+    return new ScheduledTransferDTO(
+        scheduledTransfer.getId(),
+        scheduledTransfer.getFromAccountId(),
+        scheduledTransfer.getToUserId(),
+        scheduledTransfer.getToAccountId(),
+        scheduledTransfer.getAmount(),
+        scheduledTransfer.getRecurrence(),
+        scheduledTransfer.getNextExecutionAt(),
+        scheduledTransfer.isActive(),
+        scheduledTransfer.getExecutions(),
+        scheduledTransfer.getLastExecutedAt(),
+        scheduledTransfer.getLastError());
+  }
+}
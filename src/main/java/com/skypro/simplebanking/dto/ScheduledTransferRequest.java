@@ -0,0 +1,26 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.Recurrence;
+import java.time.Instant;
+import javax.validation.constraints.NotNull;
+
+public class ScheduledTransferRequest extends TransferRequest {
+  @NotNull private Instant executeAt;
+  @NotNull private Recurrence recurrence;
+
+  public Instant getExecuteAt() {
+    return executeAt;
+  }
+
+  public void setExecuteAt(Instant executeAt) {
+    this.executeAt = executeAt;
+  }
+
+  public Recurrence getRecurrence() {
+    return recurrence;
+  }
+
+  public void setRecurrence(Recurrence recurrence) {
+    this.recurrence = recurrence;
+  }
+}
@@ -0,0 +1,43 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.service.StartupTimings;
+import java.time.Instant;
+
+public class StartupTimingsDTO {
+  private final Instant jvmStartedAt;
+  private final long readyMillis;
+  private final long warmupMillis;
+  private final long firstAccountRequestMillis;
+
+  public StartupTimingsDTO(
+      Instant jvmStartedAt, long readyMillis, long warmupMillis, long firstAccountRequestMillis) {
+    this.jvmStartedAt = jvmStartedAt;
+    this.readyMillis = readyMillis;
+    this.warmupMillis = warmupMillis;
+    this.firstAccountRequestMillis = firstAccountRequestMillis;
+  }
+
+  public Instant getJvmStartedAt() {
+    return jvmStartedAt;
+  }
+
+  public long getReadyMillis() {
+    return readyMillis;
+  }
+
+  public long getWarmupMillis() {
+    return warmupMillis;
+  }
+
+  public long getFirstAccountRequestMillis() {
+    return firstAccountRequestMillis;
+  }
+
+  public static StartupTimingsDTO from(StartupTimings timings) {
+    return new StartupTimingsDTO(
+        timings.getJvmStartedAt(),
+        timings.getReadyMillis(),
+        timings.getWarmupMillis(),
+        timings.getFirstAccountRequestMillis());
+  }
+}
@@ -1,5 +1,6 @@
 package com.skypro.simplebanking.dto;
 
+import com.skypro.simplebanking.entity.Account;
 import com.skypro.simplebanking.entity.User;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -31,6 +32,8 @@ public class UserDTO {
     return new UserDTO(
         user.getId(),
         user.getUsername(),
-        user.getAccounts().stream().map(AccountDTO::from).collect(Collectors.toList()));
+        Account.withVirtualAccounts(user).stream()
+            .map(AccountDTO::from)
+            .collect(Collectors.toList()));
   }
 }
@@ -1,18 +1,50 @@
 package com.skypro.simplebanking.entity;
 
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.ShardRouter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
 import javax.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
+/**
+ * A balance in one currency. With lazy accounts a user starts without rows; each currency is then
+ * a virtual account whose id is derived from the user id and currency, and the row is inserted
+ * under that id on first use. Derived ids set the bit below the shard bits, which the account
+ * sequence never reaches, and keep the user's shard so they route like any other id.
+ */
 @Entity
 @Table(name = "accounts")
 public class Account {
+  private static final long VIRTUAL_ID_BIT = 1L << (ShardRouter.SHARD_ID_SHIFT - 1);
+  private static final long SHARD_BITS = -1L << ShardRouter.SHARD_ID_SHIFT;
+  private static final int CURRENCY_BITS = 3;
+
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account-sequence")
-  @SequenceGenerator(name = "account-sequence", sequenceName = "account_sequence")
+  @GenericGenerator(
+      name = "account-sequence",
+      strategy = "com.skypro.simplebanking.entity.ShardedSequenceGenerator",
+      parameters = {
+        @Parameter(name = "sequence_name", value = "account_sequence"),
+        @Parameter(name = "increment_size", value = "50")
+      })
   private Long id;
 
   private AccountCurrency accountCurrency;
   private Long amount;
 
+  @Column(columnDefinition = "bigint not null default 0")
+  private long version;
+
+  /** Sum of the active holds on the account; {@code amount - held} is available. */
+  @Column(columnDefinition = "bigint not null default 0")
+  private long held;
+
   @ManyToOne(optional = false)
   @JoinColumn(nullable = false, updatable = false, name = "user_id")
   private User user;
@@ -41,6 +73,14 @@ public class Account {
     this.amount = amount;
   }
 
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
   public User getUser() {
     return user;
   }
@@ -48,4 +88,56 @@ public class Account {
   public void setUser(User user) {
     this.user = user;
   }
+
+  public long getHeld() {
+    return held;
+  }
+
+  public void setHeld(long held) {
+    this.held = held;
+  }
+
+  public long getAvailable() {
+    return amount - held;
+  }
+
+  public static long virtualId(long userId, AccountCurrency currency) {
+    return (userId & SHARD_BITS)
+        | VIRTUAL_ID_BIT
+        | (userId & ~SHARD_BITS) << CURRENCY_BITS
+        | currency.ordinal();
+  }
+
+  public static boolean isVirtualId(long accountId) {
+    return (accountId & VIRTUAL_ID_BIT) != 0;
+  }
+
+  /** The owner encoded in a virtual account id. */
+  public static long virtualUserId(long accountId) {
+    return (accountId & SHARD_BITS) | (accountId & (VIRTUAL_ID_BIT - 1)) >>> CURRENCY_BITS;
+  }
+
+  /** The currency encoded in a virtual account id, or null if it encodes none. */
+  public static AccountCurrency virtualCurrency(long accountId) {
+    int ordinal = (int) (accountId & ((1 << CURRENCY_BITS) - 1));
+    return ordinal < AccountCurrency.values().length ? AccountCurrency.values()[ordinal] : null;
+  }
+
+  /** The user's accounts by currency, with an unsaved virtual account for each missing one. */
+  public static List<Account> withVirtualAccounts(User user) {
+    Collection<Account> accounts = user.getAccounts();
+    List<Account> all = new ArrayList<>(accounts == null ? List.of() : accounts);
+    EnumSet<AccountCurrency> missing = EnumSet.allOf(AccountCurrency.class);
+    all.forEach(account -> missing.remove(account.getAccountCurrency()));
+    for (AccountCurrency currency : missing) {
+      Account account = new Account();
+      account.setId(virtualId(user.getId(), currency));
+      account.setAccountCurrency(currency);
+      account.setAmount(AccountService.INITIAL_AMOUNT);
+      account.setUser(user);
+      all.add(account);
+    }
+    all.sort(Comparator.comparing(Account::getAccountCurrency));
+    return all;
+  }
 }
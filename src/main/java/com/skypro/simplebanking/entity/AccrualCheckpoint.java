@@ -0,0 +1,64 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+@Entity
+@Table(name = "accrual_checkpoints")
+public class AccrualCheckpoint {
+  @Id private String id;
+
+  private String period;
+  private Long rangeStart;
+  private Long rangeEnd;
+  private Long accountsUpdated;
+  private Instant completedAt;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getPeriod() {
+    return period;
+  }
+
+  public void setPeriod(String period) {
+    this.period = period;
+  }
+
+  public Long getRangeStart() {
+    return rangeStart;
+  }
+
+  public void setRangeStart(Long rangeStart) {
+    this.rangeStart = rangeStart;
+  }
+
+  public Long getRangeEnd() {
+    return rangeEnd;
+  }
+
+  public void setRangeEnd(Long rangeEnd) {
+    this.rangeEnd = rangeEnd;
+  }
+
+  public Long getAccountsUpdated() {
+    return accountsUpdated;
+  }
+
+  public void setAccountsUpdated(Long accountsUpdated) {
+    this.accountsUpdated = accountsUpdated;
+  }
+
+  public Instant getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(Instant completedAt) {
+    this.completedAt = completedAt;
+  }
+}
@@ -0,0 +1,90 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * Outbox row written in the same transaction as every balance change and tailed by the event
+ * relay. Rows are pruned once they are older than the retention window.
+ */
+@Entity
+@Table(
+    name = "balance_events",
+    indexes = @Index(name = "balance_events_account_idx", columnList = "accountId, id"))
+public class BalanceEvent {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  private Long accountId;
+  private Long userId;
+  private AccountCurrency accountCurrency;
+  private Long balance;
+  private Long amount;
+  private MovementType type;
+  private Instant createdAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getAccountId() {
+    return accountId;
+  }
+
+  public void setAccountId(Long accountId) {
+    this.accountId = accountId;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public AccountCurrency getAccountCurrency() {
+    return accountCurrency;
+  }
+
+  public void setAccountCurrency(AccountCurrency accountCurrency) {
+    this.accountCurrency = accountCurrency;
+  }
+
+  public Long getBalance() {
+    return balance;
+  }
+
+  public void setBalance(Long balance) {
+    this.balance = balance;
+  }
+
+  public Long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Long amount) {
+    this.amount = amount;
+  }
+
+  public MovementType getType() {
+    return type;
+  }
+
+  public void setType(MovementType type) {
+    this.type = type;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
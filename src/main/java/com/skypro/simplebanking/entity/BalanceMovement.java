@@ -0,0 +1,80 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+@Entity
+@Table(
+    name = "balance_movements",
+    indexes = {
+      @Index(name = "balance_movements_account_idx", columnList = "accountId, createdAt"),
+      @Index(name = "balance_movements_created_idx", columnList = "createdAt")
+    })
+public class BalanceMovement {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  private Long accountId;
+  private Long userId;
+  private AccountCurrency accountCurrency;
+  private Long amount;
+  private MovementType type;
+  private Instant createdAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getAccountId() {
+    return accountId;
+  }
+
+  public void setAccountId(Long accountId) {
+    this.accountId = accountId;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public AccountCurrency getAccountCurrency() {
+    return accountCurrency;
+  }
+
+  public void setAccountCurrency(AccountCurrency accountCurrency) {
+    this.accountCurrency = accountCurrency;
+  }
+
+  public Long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Long amount) {
+    this.amount = amount;
+  }
+
+  public MovementType getType() {
+    return type;
+  }
+
+  public void setType(MovementType type) {
+    this.type = type;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
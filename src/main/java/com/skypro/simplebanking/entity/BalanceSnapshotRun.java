@@ -0,0 +1,39 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import javax.persistence.*;
+
+/** Marks a day whose end-of-day balance snapshots have been written. */
+@Entity
+@Table(name = "balance_snapshot_runs")
+public class BalanceSnapshotRun {
+  @Id private LocalDate snapshotDate;
+
+  private Long accountsSnapshotted;
+  private Instant completedAt;
+
+  public LocalDate getSnapshotDate() {
+    return snapshotDate;
+  }
+
+  public void setSnapshotDate(LocalDate snapshotDate) {
+    this.snapshotDate = snapshotDate;
+  }
+
+  public Long getAccountsSnapshotted() {
+    return accountsSnapshotted;
+  }
+
+  public void setAccountsSnapshotted(Long accountsSnapshotted) {
+    this.accountsSnapshotted = accountsSnapshotted;
+  }
+
+  public Instant getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(Instant completedAt) {
+    this.completedAt = completedAt;
+  }
+}
@@ -0,0 +1,103 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * Funds reserved on an account by a card authorization. While active, {@code amount - captured}
+ * is counted in {@link Account#getHeld()}.
+ */
+@Entity
+@Table(
+    name = "holds",
+    indexes = @Index(name = "holds_status_expires_idx", columnList = "status, expiresAt"))
+public class Hold {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hold-sequence")
+  @GenericGenerator(
+      name = "hold-sequence",
+      strategy = "com.skypro.simplebanking.entity.ShardedSequenceGenerator",
+      parameters = {
+        @Parameter(name = "sequence_name", value = "hold_sequence"),
+        @Parameter(name = "increment_size", value = "50")
+      })
+  private Long id;
+
+  private Long userId;
+  private Long accountId;
+  private Long amount;
+  private Long captured;
+  private HoldStatus status;
+  private Instant createdAt;
+  private Instant expiresAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public Long getAccountId() {
+    return accountId;
+  }
+
+  public void setAccountId(Long accountId) {
+    this.accountId = accountId;
+  }
+
+  public Long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Long amount) {
+    this.amount = amount;
+  }
+
+  public Long getCaptured() {
+    return captured;
+  }
+
+  public void setCaptured(Long captured) {
+    this.captured = captured;
+  }
+
+  public HoldStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(HoldStatus status) {
+    this.status = status;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+
+  public void setExpiresAt(Instant expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  public long getRemaining() {
+    return amount - captured;
+  }
+}
@@ -0,0 +1,28 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+@Entity
+@Table(name = "journal_migrations")
+public class JournalMigration {
+  @Id private String id;
+
+  private Instant appliedAt;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public Instant getAppliedAt() {
+    return appliedAt;
+  }
+
+  public void setAppliedAt(Instant appliedAt) {
+    this.appliedAt = appliedAt;
+  }
+}
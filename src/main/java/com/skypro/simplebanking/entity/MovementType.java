@@ -0,0 +1,13 @@
+package com.skypro.simplebanking.entity;
+
+public enum MovementType {
+  DEPOSIT,
+  WITHDRAWAL,
+  ACCRUAL,
+  TRANSFER_IN,
+  TRANSFER_OUT,
+  TRANSFER_REFUND,
+  PAYROLL,
+  HOLD_CAPTURE,
+  OPENING
+}
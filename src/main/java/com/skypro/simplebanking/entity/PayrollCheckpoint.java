@@ -0,0 +1,105 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * One applied part of a payroll chunk, committed together with its balance changes. Holds the
+ * result lines of that part so the result file can be rebuilt after a crash, and the chunk size
+ * and file hash the part was cut with so a resume can tell whether its chunks still line up.
+ */
+@Entity
+@Table(
+    name = "payroll_checkpoints",
+    indexes = @Index(name = "payroll_checkpoints_import_idx", columnList = "importId, chunkIndex"))
+public class PayrollCheckpoint {
+  @Id private String id;
+
+  private String importId;
+  private Long chunkIndex;
+  private Long linesApplied;
+  private Long linesRejected;
+
+  @Column(nullable = false)
+  private Integer chunkSize;
+
+  @Column(nullable = false)
+  private String fileHash;
+
+  @Column(columnDefinition = "text")
+  private String results;
+
+  private Instant completedAt;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getImportId() {
+    return importId;
+  }
+
+  public void setImportId(String importId) {
+    this.importId = importId;
+  }
+
+  public Long getChunkIndex() {
+    return chunkIndex;
+  }
+
+  public void setChunkIndex(Long chunkIndex) {
+    this.chunkIndex = chunkIndex;
+  }
+
+  public Long getLinesApplied() {
+    return linesApplied;
+  }
+
+  public void setLinesApplied(Long linesApplied) {
+    this.linesApplied = linesApplied;
+  }
+
+  public Long getLinesRejected() {
+    return linesRejected;
+  }
+
+  public void setLinesRejected(Long linesRejected) {
+    this.linesRejected = linesRejected;
+  }
+
+  public Integer getChunkSize() {
+    return chunkSize;
+  }
+
+  public void setChunkSize(Integer chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  public String getFileHash() {
+    return fileHash;
+  }
+
+  public void setFileHash(String fileHash) {
+    this.fileHash = fileHash;
+  }
+
+  public String getResults() {
+    return results;
+  }
+
+  public void setResults(String results) {
+    this.results = results;
+  }
+
+  public Instant getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(Instant completedAt) {
+    this.completedAt = completedAt;
+  }
+}
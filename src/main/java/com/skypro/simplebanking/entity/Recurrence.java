@@ -0,0 +1,38 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+public enum Recurrence {
+  ONCE(null),
+  DAILY(ChronoUnit.DAYS),
+  WEEKLY(ChronoUnit.WEEKS),
+  MONTHLY(ChronoUnit.MONTHS);
+
+  private final ChronoUnit unit;
+
+  Recurrence(ChronoUnit unit) {
+    this.unit = unit;
+  }
+
+  /**
+   * Returns the first execution after {@code previous}, or {@code null} when there is none.
+   * Executions are whole units from {@code anchor} rather than from the previous one, so a monthly
+   * schedule anchored on the 31st runs on the last day of shorter months and on the 31st again
+   * after them.
+   */
+  public Instant next(Instant anchor, Instant previous) {
+    if (unit == null) {
+      return null;
+    }
+    OffsetDateTime start = anchor.atOffset(ZoneOffset.UTC);
+    long units = Math.max(1, unit.between(start, previous.atOffset(ZoneOffset.UTC)));
+    Instant next = start.plus(units, unit).toInstant();
+    while (!next.isAfter(previous)) {
+      next = start.plus(++units, unit).toInstant();
+    }
+    return next;
+  }
+}
@@ -0,0 +1,146 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+@Entity
+@Table(
+    name = "scheduled_transfers",
+    indexes = @Index(name = "scheduled_transfers_user_idx", columnList = "userId"))
+public class ScheduledTransfer {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled-transfer-sequence")
+  @GenericGenerator(
+      name = "scheduled-transfer-sequence",
+      strategy = "com.skypro.simplebanking.entity.ShardedSequenceGenerator",
+      parameters = {
+        @Parameter(name = "sequence_name", value = "scheduled_transfer_sequence"),
+        @Parameter(name = "increment_size", value = "50")
+      })
+  private Long id;
+
+  private Long userId;
+  private Long fromAccountId;
+  private Long toUserId;
+  private Long toAccountId;
+  private Long amount;
+  private Recurrence recurrence;
+  private Instant anchorAt;
+  private Instant nextExecutionAt;
+  private boolean active;
+  private Long executions;
+  private Instant lastExecutedAt;
+  private String lastError;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public void setUserId(Long userId) {
+    this.userId = userId;
+  }
+
+  public Long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public void setFromAccountId(Long fromAccountId) {
+    this.fromAccountId = fromAccountId;
+  }
+
+  public Long getToUserId() {
+    return toUserId;
+  }
+
+  public void setToUserId(Long toUserId) {
+    this.toUserId = toUserId;
+  }
+
+  public Long getToAccountId() {
+    return toAccountId;
+  }
+
+  public void setToAccountId(Long toAccountId) {
+    this.toAccountId = toAccountId;
+  }
+
+  public Long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Long amount) {
+    this.amount = amount;
+  }
+
+  public Recurrence getRecurrence() {
+    return recurrence;
+  }
+
+  public void setRecurrence(Recurrence recurrence) {
+    this.recurrence = recurrence;
+  }
+
+  /** The first execution; later ones are counted from it. {@code null} on older schedules. */
+  public Instant getAnchorAt() {
+    return anchorAt;
+  }
+
+  public void setAnchorAt(Instant anchorAt) {
+    this.anchorAt = anchorAt;
+  }
+
+  /** The anchor, or for schedules created before it was stored, the pending execution. */
+  public Instant getRecurrenceAnchor() {
+    return anchorAt == null ? nextExecutionAt : anchorAt;
+  }
+
+  public Instant getNextExecutionAt() {
+    return nextExecutionAt;
+  }
+
+  public void setNextExecutionAt(Instant nextExecutionAt) {
+    this.nextExecutionAt = nextExecutionAt;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+
+  public Long getExecutions() {
+    return executions;
+  }
+
+  public void setExecutions(Long executions) {
+    this.executions = executions;
+  }
+
+  public Instant getLastExecutedAt() {
+    return lastExecutedAt;
+  }
+
+  public void setLastExecutedAt(Instant lastExecutedAt) {
+    this.lastExecutedAt = lastExecutedAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+}
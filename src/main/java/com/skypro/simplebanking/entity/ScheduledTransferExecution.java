@@ -0,0 +1,86 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * One claimed occurrence of a {@link ScheduledTransfer}, written in the same transaction that moves
+ * the schedule on. It stays {@code PENDING} until the debit commits together with the switch to
+ * {@code COMPLETED}, so an occurrence interrupted by a crash is found and finished later.
+ */
+@Entity
+@Table(
+    name = "scheduled_transfer_executions",
+    indexes =
+        @Index(name = "scheduled_transfer_executions_status_idx", columnList = "status, claimedAt"))
+public class ScheduledTransferExecution {
+  /** {@code <scheduledTransferId>:<due epoch millis>}. */
+  @Id private String id;
+
+  private Long scheduledTransferId;
+  private Instant dueAt;
+  private TransferStatus status;
+  private String error;
+  private Instant claimedAt;
+  private Instant finishedAt;
+
+  public static String idFor(long scheduledTransferId, Instant dueAt) {
+    return scheduledTransferId + ":" + dueAt.toEpochMilli();
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public Long getScheduledTransferId() {
+    return scheduledTransferId;
+  }
+
+  public void setScheduledTransferId(Long scheduledTransferId) {
+    this.scheduledTransferId = scheduledTransferId;
+  }
+
+  public Instant getDueAt() {
+    return dueAt;
+  }
+
+  public void setDueAt(Instant dueAt) {
+    this.dueAt = dueAt;
+  }
+
+  public TransferStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(TransferStatus status) {
+    this.status = status;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  public Instant getClaimedAt() {
+    return claimedAt;
+  }
+
+  public void setClaimedAt(Instant claimedAt) {
+    this.claimedAt = claimedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public void setFinishedAt(Instant finishedAt) {
+    this.finishedAt = finishedAt;
+  }
+}
@@ -0,0 +1,38 @@
+package com.skypro.simplebanking.entity;
+
+import com.skypro.simplebanking.service.ShardRouter;
+import java.io.Serializable;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * Sequence generator that keeps a separate pooled block per shard, so an id is always drawn from
+ * the sequence of the shard the row is written to. On a single database it behaves exactly like
+ * the default sequence generator.
+ */
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+  @Override
+  public Serializable generate(SharedSessionContractImplementor session, Object object) {
+    AccessCallback callback = getDatabaseStructure().buildCallback(session);
+    int shard = ShardRouter.currentShard();
+    if (shard == 0) {
+      return getOptimizer().generate(callback);
+    }
+    String blockKey = "shard-" + shard;
+    return getOptimizer()
+        .generate(
+            new AccessCallback() {
+              @Override
+              public IntegralDataTypeHolder getNextValue() {
+                return callback.getNextValue();
+              }
+
+              @Override
+              public String getTenantIdentifier() {
+                return blockKey;
+              }
+            });
+  }
+}
@@ -0,0 +1,120 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+@Entity
+@Table(name = "transfers")
+public class Transfer {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer-sequence")
+  @GenericGenerator(
+      name = "transfer-sequence",
+      strategy = "com.skypro.simplebanking.entity.ShardedSequenceGenerator",
+      parameters = {
+        @Parameter(name = "sequence_name", value = "transfer_sequence"),
+        @Parameter(name = "increment_size", value = "50")
+      })
+  private Long id;
+
+  private Long fromUserId;
+  private Long fromAccountId;
+  private Long toUserId;
+  private Long toAccountId;
+  private Long amount;
+  private Long creditedAmount;
+  private Long fxRate;
+  private Long fxRateVersion;
+  private TransferStatus status;
+  private Instant createdAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getFromUserId() {
+    return fromUserId;
+  }
+
+  public void setFromUserId(Long fromUserId) {
+    this.fromUserId = fromUserId;
+  }
+
+  public Long getFromAccountId() {
+    return fromAccountId;
+  }
+
+  public void setFromAccountId(Long fromAccountId) {
+    this.fromAccountId = fromAccountId;
+  }
+
+  public Long getToUserId() {
+    return toUserId;
+  }
+
+  public void setToUserId(Long toUserId) {
+    this.toUserId = toUserId;
+  }
+
+  public Long getToAccountId() {
+    return toAccountId;
+  }
+
+  public void setToAccountId(Long toAccountId) {
+    this.toAccountId = toAccountId;
+  }
+
+  public Long getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Long amount) {
+    this.amount = amount;
+  }
+
+  public Long getCreditedAmount() {
+    return creditedAmount;
+  }
+
+  public void setCreditedAmount(Long creditedAmount) {
+    this.creditedAmount = creditedAmount;
+  }
+
+  public Long getFxRate() {
+    return fxRate;
+  }
+
+  public void setFxRate(Long fxRate) {
+    this.fxRate = fxRate;
+  }
+
+  public Long getFxRateVersion() {
+    return fxRateVersion;
+  }
+
+  public void setFxRateVersion(Long fxRateVersion) {
+    this.fxRateVersion = fxRateVersion;
+  }
+
+  public TransferStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(TransferStatus status) {
+    this.status = status;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
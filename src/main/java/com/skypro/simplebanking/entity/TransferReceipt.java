@@ -0,0 +1,32 @@
+package com.skypro.simplebanking.entity;
+
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * Written on the destination shard in the same transaction as the credit of a cross-shard transfer,
+ * so the credit is applied at most once however often it is retried.
+ */
+@Entity
+@Table(name = "transfer_receipts")
+public class TransferReceipt {
+  @Id private Long transferId;
+
+  private Instant createdAt;
+
+  public Long getTransferId() {
+    return transferId;
+  }
+
+  public void setTransferId(Long transferId) {
+    this.transferId = transferId;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+}
@@ -0,0 +1,7 @@
+package com.skypro.simplebanking.entity;
+
+public enum TransferStatus {
+  PENDING,
+  COMPLETED,
+  FAILED
+}
@@ -1,6 +1,8 @@
 package com.skypro.simplebanking.entity;
 
 import javax.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -10,7 +12,13 @@ import java.util.Set;
 public class User {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user-generator")
-  @SequenceGenerator(name = "user-generator", sequenceName = "user_sequence")
+  @GenericGenerator(
+      name = "user-generator",
+      strategy = "com.skypro.simplebanking.entity.ShardedSequenceGenerator",
+      parameters = {
+        @Parameter(name = "sequence_name", value = "user_sequence"),
+        @Parameter(name = "increment_size", value = "50")
+      })
   private Long id;
   private String username;
   private String password;
@@ -1,3 +1,5 @@
 package com.skypro.simplebanking.exception;
 
-public class AccountNotFoundException extends RuntimeException {}
+public class AccountNotFoundException extends BankingRejection {
+  public static final AccountNotFoundException INSTANCE = new AccountNotFoundException();
+}
@@ -0,0 +1,12 @@
+package com.skypro.simplebanking.exception;
+
+/**
+ * Base for expected business outcomes such as a missing account or insufficient funds. These are
+ * thrown on hot paths, so they skip stack trace capture and the ones without per-request data are
+ * preallocated.
+ */
+public abstract class BankingRejection extends RuntimeException {
+  protected BankingRejection() {
+    super(null, null, false, false);
+  }
+}
@@ -0,0 +1,7 @@
+package com.skypro.simplebanking.exception;
+
+/** A group commit operation that got no result in time, or was queued while shutting down. */
+public class GroupCommitUnavailableException extends BankingRejection {
+  public static final GroupCommitUnavailableException INSTANCE =
+      new GroupCommitUnavailableException();
+}
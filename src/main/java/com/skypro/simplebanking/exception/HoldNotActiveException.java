@@ -0,0 +1,20 @@
+package com.skypro.simplebanking.exception;
+
+import com.skypro.simplebanking.entity.HoldStatus;
+
+public class HoldNotActiveException extends BankingRejection {
+  private final HoldStatus status;
+
+  public HoldNotActiveException(HoldStatus status) {
+    this.status = status;
+  }
+
+  public HoldStatus getStatus() {
+    return status;
+  }
+
+  @Override
+  public String getMessage() {
+    return "Hold is " + status.name();
+  }
+}
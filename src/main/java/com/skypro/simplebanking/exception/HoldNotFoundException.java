@@ -0,0 +1,5 @@
+package com.skypro.simplebanking.exception;
+
+public class HoldNotFoundException extends BankingRejection {
+  public static final HoldNotFoundException INSTANCE = new HoldNotFoundException();
+}
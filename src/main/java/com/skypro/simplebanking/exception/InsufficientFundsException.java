@@ -1,7 +1,26 @@
 package com.skypro.simplebanking.exception;
 
-public class InsufficientFundsException extends RuntimeException {
-  public InsufficientFundsException(String message) {
-    super(message);
+import com.skypro.simplebanking.entity.AccountCurrency;
+
+public class InsufficientFundsException extends BankingRejection {
+  private final long amount;
+  private final AccountCurrency currency;
+
+  public InsufficientFundsException(long amount, AccountCurrency currency) {
+    this.amount = amount;
+    this.currency = currency;
+  }
+
+  public long getAmount() {
+    return amount;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  @Override
+  public String getMessage() {
+    return "Cannot withdraw " + amount + " " + currency.name();
   }
 }
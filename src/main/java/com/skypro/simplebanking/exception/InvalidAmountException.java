@@ -1,3 +1,5 @@
 package com.skypro.simplebanking.exception;
 
-public class InvalidAmountException extends RuntimeException {}
+public class InvalidAmountException extends BankingRejection {
+  public static final InvalidAmountException INSTANCE = new InvalidAmountException();
+}
@@ -0,0 +1,7 @@
+package com.skypro.simplebanking.exception;
+
+public class InvalidFxRateException extends RuntimeException {
+  public InvalidFxRateException(String message) {
+    super(message);
+  }
+}
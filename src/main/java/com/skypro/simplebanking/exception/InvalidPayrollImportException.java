@@ -0,0 +1,7 @@
+package com.skypro.simplebanking.exception;
+
+public class InvalidPayrollImportException extends RuntimeException {
+  public InvalidPayrollImportException(String message) {
+    super(message);
+  }
+}
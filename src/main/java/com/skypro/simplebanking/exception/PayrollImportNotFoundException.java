@@ -0,0 +1,6 @@
+package com.skypro.simplebanking.exception;
+
+public class PayrollImportNotFoundException extends BankingRejection {
+  public static final PayrollImportNotFoundException INSTANCE =
+      new PayrollImportNotFoundException();
+}
@@ -0,0 +1,5 @@
+package com.skypro.simplebanking.exception;
+
+public class RecordingNotFoundException extends BankingRejection {
+  public static final RecordingNotFoundException INSTANCE = new RecordingNotFoundException();
+}
@@ -0,0 +1,6 @@
+package com.skypro.simplebanking.exception;
+
+public class ScheduledTransferNotFoundException extends BankingRejection {
+  public static final ScheduledTransferNotFoundException INSTANCE =
+      new ScheduledTransferNotFoundException();
+}
@@ -0,0 +1,26 @@
+package com.skypro.simplebanking.exception;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+
+public class VelocityLimitExceededException extends BankingRejection {
+  private final String window;
+  private final AccountCurrency currency;
+
+  public VelocityLimitExceededException(String window, AccountCurrency currency) {
+    this.window = window;
+    this.currency = currency;
+  }
+
+  public String getWindow() {
+    return window;
+  }
+
+  public AccountCurrency getCurrency() {
+    return currency;
+  }
+
+  @Override
+  public String getMessage() {
+    return "Limit for " + currency.name() + " debits in the last " + window + " reached";
+  }
+}
@@ -0,0 +1,130 @@
+package com.skypro.simplebanking.gateway;
+
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.TransferService;
+import com.skypro.simplebanking.service.UserService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * TCP listener for the ATM and card-switch integration. It runs next to the servlet container and
+ * dispatches commands straight into the services, authenticating once per connection.
+ */
+@Component
+@ConditionalOnProperty(name = "app.gateway.enabled", havingValue = "true")
+public class BinaryGatewayServer implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(BinaryGatewayServer.class);
+
+  private final GatewayCommandHandler handler;
+  private final int port;
+  private final int selectorThreads;
+  private final int maxInFlight;
+  private final DirectBufferPool bufferPool;
+  private final ExecutorService workers;
+  private GatewaySelectorLoop[] loops;
+  private ServerSocketChannel serverChannel;
+  private volatile boolean running;
+
+  public BinaryGatewayServer(
+      UserService userService,
+      PasswordEncoder passwordEncoder,
+      AccountService accountService,
+      TransferService transferService,
+      @Value("${app.gateway.port:9090}") int port,
+      @Value("${app.gateway.selector-threads:2}") int selectorThreads,
+      @Value("${app.gateway.worker-threads:32}") int workerThreads,
+      @Value("${app.gateway.buffer-size:16384}") int bufferSize,
+      @Value("${app.gateway.max-in-flight:256}") int maxInFlight) {
+    this.handler =
+        new GatewayCommandHandler(userService, passwordEncoder, accountService, transferService);
+    this.port = port;
+    this.selectorThreads = selectorThreads;
+    this.maxInFlight = maxInFlight;
+    this.bufferPool = new DirectBufferPool(bufferSize, 1024);
+    this.workers = Executors.newFixedThreadPool(workerThreads, daemon("gateway-worker"));
+  }
+
+  @Override
+  public synchronized void start() {
+    try {
+      serverChannel = ServerSocketChannel.open();
+      serverChannel.bind(new InetSocketAddress(port));
+      loops = new GatewaySelectorLoop[selectorThreads];
+      running = true;
+      ThreadFactory selectorThreadFactory = daemon("gateway-selector");
+      for (int i = 0; i < selectorThreads; i++) {
+        GatewaySelectorLoop loop =
+            new GatewaySelectorLoop(
+                (channel, owner) ->
+                    new GatewayConnection(
+                        channel, owner, bufferPool, handler, workers, maxInFlight));
+        loops[i] = loop;
+        selectorThreadFactory.newThread(loop).start();
+      }
+      daemon("gateway-acceptor").newThread(this::acceptLoop).start();
+      log.info("Binary gateway listening on port {}", port);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void stop() {
+    running = false;
+    try {
+      serverChannel.close();
+      for (GatewaySelectorLoop loop : loops) {
+        loop.shutdown();
+      }
+    } catch (IOException e) {
+      log.warn("Error while stopping binary gateway", e);
+    }
+    workers.shutdown();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void acceptLoop() {
+    int next = 0;
+    while (running) {
+      try {
+        SocketChannel channel = serverChannel.accept();
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        loops[next++ % loops.length].register(channel);
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        log.warn("Failed to accept gateway connection", e);
+      }
+    }
+  }
+
+  private static ThreadFactory daemon(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,31 @@
+package com.skypro.simplebanking.gateway;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+class DirectBufferPool {
+  private final int bufferSize;
+  private final int maxPooled;
+  private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+  DirectBufferPool(int bufferSize, int maxPooled) {
+    this.bufferSize = bufferSize;
+    this.maxPooled = maxPooled;
+  }
+
+  ByteBuffer acquire() {
+    ByteBuffer buffer = buffers.poll();
+    return buffer == null ? ByteBuffer.allocateDirect(bufferSize) : buffer;
+  }
+
+  void release(ByteBuffer buffer) {
+    buffer.clear();
+    if (buffers.size() < maxPooled) {
+      buffers.offer(buffer);
+    }
+  }
+
+  int getBufferSize() {
+    return bufferSize;
+  }
+}
@@ -0,0 +1,61 @@
+package com.skypro.simplebanking.gateway;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+class GatewayCommand {
+  final byte opcode;
+  final long correlationId;
+  final long[] arguments;
+  final String username;
+  final String password;
+
+  private GatewayCommand(
+      byte opcode, long correlationId, long[] arguments, String username, String password) {
+    this.opcode = opcode;
+    this.correlationId = correlationId;
+    this.arguments = arguments;
+    this.username = username;
+    this.password = password;
+  }
+
+  /** Parses one frame payload; returns {@code null} when the payload is malformed. */
+  static GatewayCommand parse(ByteBuffer frame) {
+    try {
+      byte opcode = frame.get();
+      long correlationId = frame.getLong();
+      switch (opcode) {
+        case GatewayProtocol.AUTH:
+          return new GatewayCommand(
+              opcode, correlationId, new long[0], readString(frame), readString(frame));
+        case GatewayProtocol.BALANCE:
+          return new GatewayCommand(opcode, correlationId, readLongs(frame, 1), null, null);
+        case GatewayProtocol.DEPOSIT:
+        case GatewayProtocol.WITHDRAW:
+          return new GatewayCommand(opcode, correlationId, readLongs(frame, 2), null, null);
+        case GatewayProtocol.TRANSFER:
+          return new GatewayCommand(opcode, correlationId, readLongs(frame, 4), null, null);
+        default:
+          return new GatewayCommand(opcode, correlationId, new long[0], null, null);
+      }
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static long[] readLongs(ByteBuffer frame, int count) {
+    long[] values = new long[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = frame.getLong();
+    }
+    return values;
+  }
+
+  private static String readString(ByteBuffer frame) {
+    int length = Short.toUnsignedInt(frame.getShort());
+    byte[] bytes = new byte[length];
+    frame.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,98 @@
+package com.skypro.simplebanking.gateway;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.TransferService;
+import com.skypro.simplebanking.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class GatewayCommandHandler {
+  private static final Logger log = LoggerFactory.getLogger(GatewayCommandHandler.class);
+
+  private final UserService userService;
+  private final PasswordEncoder passwordEncoder;
+  private final AccountService accountService;
+  private final TransferService transferService;
+
+  GatewayCommandHandler(
+      UserService userService,
+      PasswordEncoder passwordEncoder,
+      AccountService accountService,
+      TransferService transferService) {
+    this.userService = userService;
+    this.passwordEncoder = passwordEncoder;
+    this.accountService = accountService;
+    this.transferService = transferService;
+  }
+
+  GatewayResponse handle(GatewayConnection connection, GatewayCommand command) {
+    if (command.opcode == GatewayProtocol.AUTH) {
+      return authenticate(connection, command);
+    }
+    BankingUserDetails user = connection.getUser();
+    if (user == null) {
+      return GatewayResponse.status(GatewayProtocol.NOT_AUTHENTICATED, command.correlationId);
+    }
+    try {
+      long[] arguments = command.arguments;
+      switch (command.opcode) {
+        case GatewayProtocol.BALANCE:
+          return account(command, accountService.getAccount(user.getId(), arguments[0]));
+        case GatewayProtocol.DEPOSIT:
+          return account(
+              command, accountService.depositToAccount(user.getId(), arguments[0], arguments[1]));
+        case GatewayProtocol.WITHDRAW:
+          return account(
+              command,
+              accountService.withdrawFromAccount(user.getId(), arguments[0], arguments[1]));
+        case GatewayProtocol.TRANSFER:
+          TransferRequest transferRequest = new TransferRequest();
+          transferRequest.setFromAccountId(arguments[0]);
+          transferRequest.setToUserId(arguments[1]);
+          transferRequest.setToAccountId(arguments[2]);
+          transferRequest.setAmount(arguments[3]);
+          transferService.transfer(user.getId(), transferRequest);
+          return GatewayResponse.status(GatewayProtocol.OK, command.correlationId);
+        default:
+          return GatewayResponse.status(GatewayProtocol.BAD_REQUEST, command.correlationId);
+      }
+    } catch (RuntimeException e) {
+      return failed(command, e);
+    }
+  }
+
+  private GatewayResponse authenticate(GatewayConnection connection, GatewayCommand command) {
+    try {
+      BankingUserDetails user =
+          (BankingUserDetails) userService.loadUserByUsername(command.username);
+      if (passwordEncoder.matches(command.password, user.getPassword())) {
+        connection.setUser(user);
+        return GatewayResponse.status(GatewayProtocol.OK, command.correlationId);
+      }
+    } catch (UsernameNotFoundException e) {
+      // same answer as a wrong password
+    } catch (RuntimeException e) {
+      connection.setUser(null);
+      return failed(command, e);
+    }
+    connection.setUser(null);
+    return GatewayResponse.status(GatewayProtocol.AUTHENTICATION_FAILED, command.correlationId);
+  }
+
+  private static GatewayResponse failed(GatewayCommand command, RuntimeException e) {
+    byte status = GatewayProtocol.statusOf(e);
+    if (status == GatewayProtocol.INTERNAL_ERROR) {
+      log.error("Gateway command {} failed", command.opcode, e);
+    }
+    return GatewayResponse.status(status, command.correlationId);
+  }
+
+  private static GatewayResponse account(GatewayCommand command, AccountDTO account) {
+    return new GatewayResponse(GatewayProtocol.OK, command.correlationId, account);
+  }
+}
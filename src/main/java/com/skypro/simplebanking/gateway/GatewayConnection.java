@@ -0,0 +1,176 @@
+package com.skypro.simplebanking.gateway;
+
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One client connection. Frames are parsed on the selector thread and handled on the worker pool
+ * one after another, so pipelined commands are answered in the order they were sent.
+ */
+class GatewayConnection {
+  private static final Logger log = LoggerFactory.getLogger(GatewayConnection.class);
+
+  private final SocketChannel channel;
+  private final GatewaySelectorLoop loop;
+  private final DirectBufferPool bufferPool;
+  private final GatewayCommandHandler handler;
+  private final Executor workers;
+  private final int maxInFlight;
+  private final ByteBuffer readBuffer;
+  private final ByteBuffer writeBuffer;
+  private final Queue<GatewayResponse> responses = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+  private SelectionKey key;
+  private volatile BankingUserDetails user;
+  private volatile boolean open = true;
+
+  GatewayConnection(
+      SocketChannel channel,
+      GatewaySelectorLoop loop,
+      DirectBufferPool bufferPool,
+      GatewayCommandHandler handler,
+      Executor workers,
+      int maxInFlight) {
+    this.channel = channel;
+    this.loop = loop;
+    this.bufferPool = bufferPool;
+    this.handler = handler;
+    this.workers = workers;
+    this.maxInFlight = maxInFlight;
+    this.readBuffer = bufferPool.acquire();
+    this.writeBuffer = bufferPool.acquire();
+  }
+
+  void setKey(SelectionKey key) {
+    this.key = key;
+  }
+
+  BankingUserDetails getUser() {
+    return user;
+  }
+
+  void setUser(BankingUserDetails user) {
+    this.user = user;
+  }
+
+  void onReadable() throws IOException {
+    if (channel.read(readBuffer) < 0) {
+      close();
+      return;
+    }
+    readBuffer.flip();
+    while (readBuffer.remaining() >= GatewayProtocol.HEADER_SIZE) {
+      int length = readBuffer.getInt(readBuffer.position());
+      if (length <= 0 || length > readBuffer.capacity() - GatewayProtocol.HEADER_SIZE) {
+        close();
+        return;
+      }
+      if (readBuffer.remaining() < GatewayProtocol.HEADER_SIZE + length) {
+        break;
+      }
+      int frameStart = readBuffer.position() + GatewayProtocol.HEADER_SIZE;
+      ByteBuffer frame = readBuffer.duplicate();
+      frame.position(frameStart).limit(frameStart + length);
+      readBuffer.position(frameStart + length);
+      GatewayCommand command = GatewayCommand.parse(frame);
+      if (command == null) {
+        close();
+        return;
+      }
+      dispatch(command);
+    }
+    readBuffer.compact();
+    if (inFlight.get() >= maxInFlight) {
+      key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+    }
+  }
+
+  void onWritable() throws IOException {
+    flush();
+  }
+
+  void flush() throws IOException {
+    flushScheduled.set(false);
+    if (!open) {
+      return;
+    }
+    GatewayResponse response;
+    while (writeBuffer.remaining()
+            >= GatewayProtocol.HEADER_SIZE + GatewayProtocol.ACCOUNT_RESPONSE_SIZE
+        && (response = responses.poll()) != null) {
+      response.writeTo(writeBuffer);
+    }
+    writeBuffer.flip();
+    channel.write(writeBuffer);
+    writeBuffer.compact();
+    int interest = SelectionKey.OP_READ;
+    if (writeBuffer.position() > 0 || !responses.isEmpty()) {
+      interest |= SelectionKey.OP_WRITE;
+    }
+    if (inFlight.get() >= maxInFlight) {
+      interest &= ~SelectionKey.OP_READ;
+    }
+    key.interestOps(interest);
+  }
+
+  void close() {
+    if (!open) {
+      return;
+    }
+    open = false;
+    if (key != null) {
+      key.cancel();
+    }
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // nothing left to do with a broken socket
+    }
+    bufferPool.release(readBuffer);
+    bufferPool.release(writeBuffer);
+  }
+
+  /**
+   * Every command ends in exactly one response and one {@code inFlight} decrement, also when the
+   * handler throws or the worker pool rejects it, so one failure cannot stall the commands behind
+   * it.
+   */
+  private void dispatch(GatewayCommand command) {
+    inFlight.incrementAndGet();
+    tail =
+        tail.thenApplyAsync(ignored -> handler.handle(this, command), workers)
+            .exceptionally(error -> failed(command, error))
+            .thenAccept(this::respond)
+            .exceptionally(
+                error -> {
+                  log.warn("Could not schedule gateway response", error);
+                  return null;
+                });
+  }
+
+  private void respond(GatewayResponse response) {
+    responses.add(response);
+    inFlight.decrementAndGet();
+    if (flushScheduled.compareAndSet(false, true)) {
+      loop.scheduleFlush(this);
+    }
+  }
+
+  private static GatewayResponse failed(GatewayCommand command, Throwable error) {
+    log.error("Gateway command {} was not handled", command.opcode, error);
+    return GatewayResponse.status(GatewayProtocol.INTERNAL_ERROR, command.correlationId);
+  }
+}
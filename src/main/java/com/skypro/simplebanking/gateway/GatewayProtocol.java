@@ -0,0 +1,62 @@
+package com.skypro.simplebanking.gateway;
+
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.exception.VelocityLimitExceededException;
+import com.skypro.simplebanking.exception.WrongCurrencyException;
+
+/**
+ * Length-prefixed binary protocol of the gateway. Every frame is a 4-byte big-endian length
+ * followed by the payload.
+ *
+ * <p>Requests: {@code opcode:u8, correlationId:i64} followed by the command fields. AUTH carries
+ * two {@code u16}-length-prefixed UTF-8 strings (username, password), BALANCE an account id,
+ * DEPOSIT and WITHDRAW an account id and amount, TRANSFER the four {@code TransferRequest} longs.
+ *
+ * <p>Responses: {@code status:u8, correlationId:i64}; successful account commands append {@code
+ * accountId:i64, amount:i64, currency:u8}.
+ */
+final class GatewayProtocol {
+  static final byte AUTH = 1;
+  static final byte BALANCE = 2;
+  static final byte DEPOSIT = 3;
+  static final byte WITHDRAW = 4;
+  static final byte TRANSFER = 5;
+
+  static final byte OK = 0;
+  static final byte NOT_AUTHENTICATED = 1;
+  static final byte AUTHENTICATION_FAILED = 2;
+  static final byte ACCOUNT_NOT_FOUND = 3;
+  static final byte INSUFFICIENT_FUNDS = 4;
+  static final byte INVALID_AMOUNT = 5;
+  static final byte WRONG_CURRENCY = 6;
+  static final byte BAD_REQUEST = 7;
+  static final byte INTERNAL_ERROR = 8;
+  static final byte VELOCITY_LIMIT = 9;
+
+  static final int HEADER_SIZE = 4;
+  static final int RESPONSE_SIZE = 1 + 8;
+  static final int ACCOUNT_RESPONSE_SIZE = RESPONSE_SIZE + 8 + 8 + 1;
+
+  private GatewayProtocol() {}
+
+  static byte statusOf(RuntimeException exception) {
+    if (exception instanceof AccountNotFoundException) {
+      return ACCOUNT_NOT_FOUND;
+    }
+    if (exception instanceof InsufficientFundsException) {
+      return INSUFFICIENT_FUNDS;
+    }
+    if (exception instanceof InvalidAmountException) {
+      return INVALID_AMOUNT;
+    }
+    if (exception instanceof WrongCurrencyException) {
+      return WRONG_CURRENCY;
+    }
+    if (exception instanceof VelocityLimitExceededException) {
+      return VELOCITY_LIMIT;
+    }
+    return INTERNAL_ERROR;
+  }
+}
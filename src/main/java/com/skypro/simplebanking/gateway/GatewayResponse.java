@@ -0,0 +1,35 @@
+package com.skypro.simplebanking.gateway;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import java.nio.ByteBuffer;
+
+class GatewayResponse {
+  private final byte status;
+  private final long correlationId;
+  private final AccountDTO account;
+
+  GatewayResponse(byte status, long correlationId, AccountDTO account) {
+    this.status = status;
+    this.correlationId = correlationId;
+    this.account = account;
+  }
+
+  static GatewayResponse status(byte status, long correlationId) {
+    return new GatewayResponse(status, correlationId, null);
+  }
+
+  void writeTo(ByteBuffer buffer) {
+    if (account == null) {
+      buffer.putInt(GatewayProtocol.RESPONSE_SIZE);
+      buffer.put(status);
+      buffer.putLong(correlationId);
+      return;
+    }
+    buffer.putInt(GatewayProtocol.ACCOUNT_RESPONSE_SIZE);
+    buffer.put(status);
+    buffer.putLong(correlationId);
+    buffer.putLong(account.getId());
+    buffer.putLong(account.getAmount());
+    buffer.put((byte) account.getCurrency().ordinal());
+  }
+}
@@ -0,0 +1,100 @@
+package com.skypro.simplebanking.gateway;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class GatewaySelectorLoop implements Runnable {
+  private static final Logger log = LoggerFactory.getLogger(GatewaySelectorLoop.class);
+
+  private final Selector selector;
+  private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+  private final Queue<GatewayConnection> pendingFlushes = new ConcurrentLinkedQueue<>();
+  private final BiFunction<SocketChannel, GatewaySelectorLoop, GatewayConnection> connectionFactory;
+
+  GatewaySelectorLoop(
+      BiFunction<SocketChannel, GatewaySelectorLoop, GatewayConnection> connectionFactory)
+      throws IOException {
+    this.selector = Selector.open();
+    this.connectionFactory = connectionFactory;
+  }
+
+  void register(SocketChannel channel) {
+    accepted.add(channel);
+    selector.wakeup();
+  }
+
+  void scheduleFlush(GatewayConnection connection) {
+    pendingFlushes.add(connection);
+    selector.wakeup();
+  }
+
+  void shutdown() throws IOException {
+    for (SelectionKey key : selector.keys()) {
+      ((GatewayConnection) key.attachment()).close();
+    }
+    selector.close();
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (selector.isOpen()) {
+        selector.select();
+        registerAccepted();
+        flushPending();
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          GatewayConnection connection = (GatewayConnection) key.attachment();
+          try {
+            if (key.isValid() && key.isReadable()) {
+              connection.onReadable();
+            }
+            if (key.isValid() && key.isWritable()) {
+              connection.onWritable();
+            }
+          } catch (IOException e) {
+            connection.close();
+          }
+        }
+      }
+    } catch (ClosedSelectorException e) {
+      // shutting down
+    } catch (IOException e) {
+      log.error("Gateway selector loop stopped", e);
+    }
+  }
+
+  private void registerAccepted() {
+    SocketChannel channel;
+    while ((channel = accepted.poll()) != null) {
+      GatewayConnection connection = connectionFactory.apply(channel, this);
+      try {
+        connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+      } catch (IOException e) {
+        connection.close();
+      }
+    }
+  }
+
+  private void flushPending() {
+    GatewayConnection connection;
+    while ((connection = pendingFlushes.poll()) != null) {
+      try {
+        connection.flush();
+      } catch (IOException e) {
+        connection.close();
+      }
+    }
+  }
+}
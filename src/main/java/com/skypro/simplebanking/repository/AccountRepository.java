@@ -1,11 +1,25 @@
 package com.skypro.simplebanking.repository;
 
 import com.skypro.simplebanking.entity.Account;
+import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
   Optional<Account> getAccountByUser_IdAndId(Long userId, Long accountId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<Account> findForUpdateByUser_IdAndId(Long userId, Long accountId);
+
+  @Query("SELECT a.version FROM Account a WHERE a.user.id = :userId AND a.id = :accountId")
+  Optional<Long> findVersion(@Param("userId") Long userId, @Param("accountId") Long accountId);
+
+  @Query("SELECT a.version FROM Account a WHERE a.user.id = :userId")
+  List<Long> findVersionsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,11 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.AccrualCheckpoint;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccrualCheckpointRepository extends JpaRepository<AccrualCheckpoint, String> {
+  List<AccrualCheckpoint> findByPeriod(String period);
+}
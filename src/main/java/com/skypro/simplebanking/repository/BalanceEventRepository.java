@@ -0,0 +1,22 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.BalanceEvent;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceEventRepository extends JpaRepository<BalanceEvent, Long> {
+  List<BalanceEvent> findTop500ByAccountIdAndIdGreaterThanOrderById(Long accountId, Long id);
+
+  @Query("SELECT MAX(e.id) FROM BalanceEvent e WHERE e.accountId = :accountId")
+  Long findLastIdByAccountId(@Param("accountId") Long accountId);
+
+  @Modifying
+  @Query("DELETE FROM BalanceEvent e WHERE e.createdAt < :createdAt")
+  int deleteOlderThan(@Param("createdAt") Instant createdAt);
+}
@@ -0,0 +1,8 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.BalanceMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceMovementRepository extends JpaRepository<BalanceMovement, Long> {}
@@ -0,0 +1,14 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.BalanceSnapshotRun;
+import java.time.LocalDate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceSnapshotRunRepository
+    extends JpaRepository<BalanceSnapshotRun, LocalDate> {
+  @Query("SELECT MAX(r.snapshotDate) FROM BalanceSnapshotRun r")
+  LocalDate findLastSnapshotDate();
+}
@@ -0,0 +1,19 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.Hold;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+  Optional<Hold> findByIdAndUserId(Long id, Long userId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<Hold> findForUpdateByIdAndUserId(Long id, Long userId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<Hold> findForUpdateById(Long id);
+}
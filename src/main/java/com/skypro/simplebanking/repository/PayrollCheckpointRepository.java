@@ -0,0 +1,19 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.PayrollCheckpoint;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PayrollCheckpointRepository extends JpaRepository<PayrollCheckpoint, String> {
+  @Query("SELECT c.id FROM PayrollCheckpoint c WHERE c.importId = :importId")
+  List<String> findIdsByImportId(@Param("importId") String importId);
+
+  Optional<PayrollCheckpoint> findFirstByImportId(String importId);
+
+  List<PayrollCheckpoint> findByImportIdAndChunkIndex(String importId, Long chunkIndex);
+}
@@ -0,0 +1,30 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.ScheduledTransferExecution;
+import com.skypro.simplebanking.entity.TransferStatus;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScheduledTransferExecutionRepository
+    extends JpaRepository<ScheduledTransferExecution, String> {
+  List<ScheduledTransferExecution> findTop100ByStatusAndClaimedAtBeforeOrderByClaimedAt(
+      TransferStatus status, Instant claimedBefore);
+
+  /** Finishes a pending execution; returns 0 if it was already finished elsewhere. */
+  @Modifying
+  @Query(
+      "UPDATE ScheduledTransferExecution e SET e.status = :status, e.error = :error,"
+          + " e.finishedAt = :now WHERE e.id = :id"
+          + " AND e.status = com.skypro.simplebanking.entity.TransferStatus.PENDING")
+  int finish(
+      @Param("id") String id,
+      @Param("status") TransferStatus status,
+      @Param("error") String error,
+      @Param("now") Instant now);
+}
@@ -0,0 +1,35 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.ScheduledTransfer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+  List<ScheduledTransfer> findByUserIdOrderById(Long userId);
+
+  Optional<ScheduledTransfer> findByIdAndUserId(Long id, Long userId);
+
+  /** Claims the execution due at {@code due}; returns 0 if another node already took it. */
+  @Modifying
+  @Query(
+      "UPDATE ScheduledTransfer s SET s.nextExecutionAt = :next, s.active = :active,"
+          + " s.executions = s.executions + 1, s.lastExecutedAt = :now"
+          + " WHERE s.id = :id AND s.active = true AND s.nextExecutionAt = :due")
+  int claim(
+      @Param("id") long id,
+      @Param("due") Instant due,
+      @Param("next") Instant next,
+      @Param("active") boolean active,
+      @Param("now") Instant now);
+
+  @Modifying
+  @Query("UPDATE ScheduledTransfer s SET s.lastError = :error WHERE s.id = :id")
+  int recordError(@Param("id") long id, @Param("error") String error);
+}
@@ -0,0 +1,23 @@
+package com.skypro.simplebanking.repository;
+
+import com.skypro.simplebanking.entity.Transfer;
+import com.skypro.simplebanking.entity.TransferStatus;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransferRepository extends JpaRepository<Transfer, Long> {
+  List<Transfer> findTop100ByStatusAndCreatedAtBefore(TransferStatus status, Instant createdAt);
+
+  @Modifying
+  @Query("UPDATE Transfer t SET t.status = :status WHERE t.id = :id AND t.status = :expected")
+  int updateStatus(
+      @Param("id") long id,
+      @Param("expected") TransferStatus expected,
+      @Param("status") TransferStatus status);
+}
@@ -1,11 +1,41 @@
 package com.skypro.simplebanking.repository;
 
 import com.skypro.simplebanking.entity.User;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByUsername(String username);
+
+  /** Usernames starting with the pattern's prefix, a range scan of the "C" collated index. */
+  @Query(
+      value =
+          "SELECT * FROM users WHERE username COLLATE \"C\" LIKE :prefix"
+              + " AND username COLLATE \"C\" > :after"
+              + " ORDER BY username COLLATE \"C\" LIMIT :limit",
+      nativeQuery = true)
+  List<User> searchByPrefix(
+      @Param("prefix") String prefix, @Param("after") String after, @Param("limit") int limit);
+
+  /**
+   * Usernames containing but not starting with the query. The planner either walks the "C"
+   * collated index past the cursor and filters, or sorts the trigram index hits when they are few.
+   */
+  @Query(
+      value =
+          "SELECT * FROM users WHERE username LIKE :substring"
+              + " AND username COLLATE \"C\" NOT LIKE :prefix"
+              + " AND username COLLATE \"C\" > :after"
+              + " ORDER BY username COLLATE \"C\" LIMIT :limit",
+      nativeQuery = true)
+  List<User> searchBySubstring(
+      @Param("substring") String substring,
+      @Param("prefix") String prefix,
+      @Param("after") String after,
+      @Param("limit") int limit);
 }
@@ -0,0 +1,74 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Turns virtual accounts into rows. The row is inserted under the virtual id unless the user
+ * already has an account in its currency; concurrent first uses insert the same id, so all but one
+ * do nothing and then lock the row like any other account.
+ */
+@Component
+public class AccountMaterializer {
+  private static final String MATERIALIZE_SQL =
+      "INSERT INTO accounts (id, account_currency, amount, version, held, user_id)"
+          + " SELECT ?, ?, ?, 0, 0, u.id FROM users u WHERE u.id = ? AND NOT EXISTS"
+          + " (SELECT 1 FROM accounts a WHERE a.user_id = u.id AND a.account_currency = ?)"
+          + " ON CONFLICT (id) DO NOTHING";
+  private static final String VIRTUAL_ACCOUNT_SQL =
+      "SELECT EXISTS (SELECT 1 FROM users u WHERE u.id = ? AND NOT EXISTS"
+          + " (SELECT 1 FROM accounts a WHERE a.user_id = u.id AND a.account_currency = ?))";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BankingStatistics bankingStatistics;
+
+  public AccountMaterializer(JdbcTemplate jdbcTemplate, BankingStatistics bankingStatistics) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.bankingStatistics = bankingStatistics;
+  }
+
+  /** Inserts the row of a virtual account of the user; must run in the transaction that uses it. */
+  public void materialize(long userId, long accountId) {
+    AccountCurrency currency = virtualCurrencyOf(userId, accountId);
+    if (currency == null) {
+      return;
+    }
+    int inserted =
+        jdbcTemplate.update(
+            MATERIALIZE_SQL,
+            accountId,
+            currency.ordinal(),
+            AccountService.INITIAL_AMOUNT,
+            userId,
+            currency.ordinal());
+    if (inserted > 0) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              bankingStatistics.recordAccountCreated(currency, AccountService.INITIAL_AMOUNT);
+            }
+          });
+    }
+  }
+
+  /** Whether the id is a virtual account of the user that has no row yet. */
+  public boolean isVirtual(long userId, long accountId) {
+    AccountCurrency currency = virtualCurrencyOf(userId, accountId);
+    return currency != null
+        && Boolean.TRUE.equals(
+            jdbcTemplate.queryForObject(
+                VIRTUAL_ACCOUNT_SQL, Boolean.class, userId, currency.ordinal()));
+  }
+
+  private static AccountCurrency virtualCurrencyOf(long userId, long accountId) {
+    if (!Account.isVirtualId(accountId) || Account.virtualUserId(accountId) != userId) {
+      return null;
+    }
+    return Account.virtualCurrency(accountId);
+  }
+}
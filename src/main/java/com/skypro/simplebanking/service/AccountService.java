@@ -1,86 +1,489 @@
 package com.skypro.simplebanking.service;
 
 import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.HoldDTO;
 import com.skypro.simplebanking.entity.Account;
 import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.BalanceEvent;
+import com.skypro.simplebanking.entity.BalanceMovement;
+import com.skypro.simplebanking.entity.Hold;
+import com.skypro.simplebanking.entity.HoldStatus;
+import com.skypro.simplebanking.entity.MovementType;
 import com.skypro.simplebanking.entity.User;
 import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.HoldNotActiveException;
+import com.skypro.simplebanking.exception.HoldNotFoundException;
 import com.skypro.simplebanking.exception.InsufficientFundsException;
 import com.skypro.simplebanking.exception.InvalidAmountException;
-import com.skypro.simplebanking.exception.WrongCurrencyException;
 import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.BalanceEventRepository;
+import com.skypro.simplebanking.repository.BalanceMovementRepository;
+import com.skypro.simplebanking.repository.HoldRepository;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Account balances and card holds. An active hold reserves funds by adding its uncaptured amount
+ * to {@link Account#getHeld()}, so the available balance is {@code amount - held} without summing
+ * holds; withdrawals and new holds are checked against it. Hold expiries sit in an in-memory
+ * {@link TimingWheel} that is reloaded from the active holds on startup through the status index.
+ *
+ * <p>With {@code app.accounts.lazy} a new user gets no account rows. Each currency is reported as a
+ * virtual account with the initial balance until its first deposit, withdrawal, hold or incoming
+ * transfer inserts the row under the virtual id, in the same transaction as the change.
+ */
 @Service
 public class AccountService {
+  public static final long INITIAL_AMOUNT = 1L;
+  private static final Logger log = LoggerFactory.getLogger(AccountService.class);
+
   private final AccountRepository accountRepository;
+  private final BalanceMovementRepository balanceMovementRepository;
+  private final BalanceEventRepository balanceEventRepository;
+  private final HoldRepository holdRepository;
+  private final BankingStatistics bankingStatistics;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final ShardRouter shardRouter;
+  private final VelocityLimiter velocityLimiter;
+  private final AccountMaterializer accountMaterializer;
+  private final GroupCommitService groupCommitService;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TimingWheel<Long> holdExpiries;
+  private final Duration defaultHoldExpiry;
+  private final Duration maxHoldExpiry;
+  private final boolean lazyAccounts;
 
-  public AccountService(AccountRepository accountRepository) {
+  public AccountService(
+      AccountRepository accountRepository,
+      BalanceMovementRepository balanceMovementRepository,
+      BalanceEventRepository balanceEventRepository,
+      HoldRepository holdRepository,
+      BankingStatistics bankingStatistics,
+      ReadYourWritesTracker readYourWritesTracker,
+      ShardRouter shardRouter,
+      VelocityLimiter velocityLimiter,
+      AccountMaterializer accountMaterializer,
+      GroupCommitService groupCommitService,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.holds.tick-ms:1000}") long holdTickMillis,
+      @Value("${app.holds.default-expiry:7d}") Duration defaultHoldExpiry,
+      @Value("${app.holds.max-expiry:30d}") Duration maxHoldExpiry,
+      @Value("${app.accounts.lazy:false}") boolean lazyAccounts) {
     this.accountRepository = accountRepository;
+    this.balanceMovementRepository = balanceMovementRepository;
+    this.balanceEventRepository = balanceEventRepository;
+    this.holdRepository = holdRepository;
+    this.bankingStatistics = bankingStatistics;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.shardRouter = shardRouter;
+    this.velocityLimiter = velocityLimiter;
+    this.accountMaterializer = accountMaterializer;
+    this.groupCommitService = groupCommitService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.holdExpiries = new TimingWheel<>(holdTickMillis, System.currentTimeMillis());
+    this.defaultHoldExpiry = defaultHoldExpiry;
+    this.maxHoldExpiry = maxHoldExpiry;
+    this.lazyAccounts = lazyAccounts;
   }
 
   @Transactional(propagation = Propagation.MANDATORY)
   public void createDefaultAccounts(User user) {
     user.setAccounts(new ArrayList<>());
+    if (lazyAccounts) {
+      return;
+    }
     for (AccountCurrency currency : AccountCurrency.values()) {
       Account account = new Account();
       account.setUser(user);
       account.setAccountCurrency(currency);
-      account.setAmount(1L);
+      account.setAmount(INITIAL_AMOUNT);
       user.getAccounts().add(account);
       accountRepository.save(account);
+      bankingStatistics.recordAccountCreated(currency, INITIAL_AMOUNT);
     }
   }
 
   @Transactional(readOnly = true)
   public AccountDTO getAccount(long userId, Long accountId) {
-    return accountRepository
-        .getAccountByUser_IdAndId(userId, accountId)
-        .map(AccountDTO::from)
-        .orElseThrow(AccountNotFoundException::new);
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () ->
+            accountRepository
+                .getAccountByUser_IdAndId(userId, accountId)
+                .map(AccountDTO::from)
+                .or(
+                    () ->
+                        accountMaterializer.isVirtual(userId, accountId)
+                            ? Optional.of(
+                                new AccountDTO(
+                                    accountId,
+                                    INITIAL_AMOUNT,
+                                    Account.virtualCurrency(accountId)))
+                            : Optional.empty())
+                .orElseThrow(() -> AccountNotFoundException.INSTANCE));
+  }
+
+  /** Change version of the account, bumped by every balance update; used for ETags. */
+  @Transactional(readOnly = true)
+  public long getAccountVersion(long userId, Long accountId) {
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () ->
+            accountRepository
+                .findVersion(userId, accountId)
+                .or(
+                    () ->
+                        accountMaterializer.isVirtual(userId, accountId)
+                            ? Optional.of(0L)
+                            : Optional.empty())
+                .orElseThrow(() -> AccountNotFoundException.INSTANCE));
+  }
+
+  /**
+   * Combined version of all accounts of the user. Versions only grow and accounts are never
+   * removed, so the account count and the sum of versions change whenever any account does.
+   */
+  @Transactional(readOnly = true)
+  public String getAccountsVersion(long userId) {
+    List<Long> versions =
+        shardRouter.onShard(
+            shardRouter.shardForId(userId),
+            () -> accountRepository.findVersionsByUserId(userId));
+    return versions.size() + "." + versions.stream().mapToLong(Long::longValue).sum();
   }
 
   @Transactional
-  public void validateCurrency(long sourceAccount, long destinationAccount) {
-    Account acc1 =
-        accountRepository.findById(sourceAccount).orElseThrow(AccountNotFoundException::new);
-    Account acc2 =
-        accountRepository.findById(destinationAccount).orElseThrow(AccountNotFoundException::new);
-    if (!acc1.getAccountCurrency().equals(acc2.getAccountCurrency())){
-      throw new WrongCurrencyException();
+  public AccountCurrency getAccountCurrency(long accountId) {
+    return shardRouter.onShard(
+        shardRouter.shardForId(accountId),
+        () ->
+            accountRepository
+                .findById(accountId)
+                .map(Account::getAccountCurrency)
+                .or(
+                    () ->
+                        Account.isVirtualId(accountId)
+                            ? Optional.ofNullable(Account.virtualCurrency(accountId))
+                            : Optional.empty())
+                .orElseThrow(() -> AccountNotFoundException.INSTANCE));
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void lockAccount(long userId, long accountId) {
+    shardRouter.onShard(shardRouter.shardForId(userId), () -> lockForUpdate(userId, accountId));
+  }
+
+  /** Deposits in a group commit batch when enabled and not called inside a transaction. */
+  public AccountDTO depositToAccount(long userId, Long accountId, long amount) {
+    if (groupCommitService.isEnabled()
+        && !TransactionSynchronizationManager.isActualTransactionActive()) {
+      return groupCommitService.deposit(userId, accountId, amount);
     }
+    return transactionTemplate.execute(
+        status -> {
+          AccountDTO account = depositToAccount(userId, accountId, amount, MovementType.DEPOSIT);
+          bankingStatistics.recordDeposit(account.getCurrency(), amount);
+          return account;
+        });
   }
 
   @Transactional
-  public AccountDTO depositToAccount(long userId, Long accountId, long amount) {
+  public AccountDTO depositToAccount(long userId, Long accountId, long amount, MovementType type) {
     if (amount < 0) {
-      throw new InvalidAmountException();
+      throw InvalidAmountException.INSTANCE;
     }
-    Account account =
-        accountRepository
-            .getAccountByUser_IdAndId(userId, accountId)
-            .orElseThrow(AccountNotFoundException::new);
-    account.setAmount(account.getAmount() + amount);
-    return AccountDTO.from(account);
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () -> {
+          Account account = lockForUpdate(userId, accountId);
+          account.setAmount(account.getAmount() + amount);
+          account.setVersion(account.getVersion() + 1);
+          recordMovement(account, amount, type);
+          readYourWritesTracker.wrote(userId);
+          return AccountDTO.from(account);
+        });
   }
 
-  @Transactional
+  /** Withdraws in a group commit batch when enabled and not called inside a transaction. */
   public AccountDTO withdrawFromAccount(long id, Long accountId, long amount) {
+    if (groupCommitService.isEnabled()
+        && !TransactionSynchronizationManager.isActualTransactionActive()) {
+      return groupCommitService.withdraw(id, accountId, amount);
+    }
+    return transactionTemplate.execute(
+        status -> {
+          AccountDTO account = withdrawFromAccount(id, accountId, amount, MovementType.WITHDRAWAL);
+          bankingStatistics.recordWithdrawal(account.getCurrency(), amount);
+          return account;
+        });
+  }
+
+  @Transactional
+  public AccountDTO withdrawFromAccount(long id, Long accountId, long amount, MovementType type) {
     if (amount < 0) {
-      throw new InvalidAmountException();
+      throw InvalidAmountException.INSTANCE;
+    }
+    return shardRouter.onShard(
+        shardRouter.shardForId(id),
+        () -> {
+          Account account = lockForUpdate(id, accountId);
+          if (account.getAvailable() < amount) {
+            throw new InsufficientFundsException(amount, account.getAccountCurrency());
+          }
+          if (type == MovementType.WITHDRAWAL) {
+            VelocityLimiter.Reservation reservation =
+                velocityLimiter.reserve(id, account.getAccountCurrency(), amount);
+            afterRollback(reservation::cancel);
+          }
+          account.setAmount(account.getAmount() - amount);
+          account.setVersion(account.getVersion() + 1);
+          recordMovement(account, -amount, type);
+          readYourWritesTracker.wrote(id);
+          return AccountDTO.from(account);
+        });
+  }
+
+  /** Reserves {@code amount} of the available balance until captured, released or expired. */
+  @Transactional
+  public HoldDTO authorizeHold(long userId, long accountId, long amount, Duration expiresIn) {
+    if (amount <= 0) {
+      throw InvalidAmountException.INSTANCE;
+    }
+    Duration expiry =
+        expiresIn == null || expiresIn.isNegative() || expiresIn.isZero()
+            ? defaultHoldExpiry
+            : expiresIn;
+    Instant now = Instant.now();
+    Instant expiresAt = now.plus(expiry.compareTo(maxHoldExpiry) > 0 ? maxHoldExpiry : expiry);
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () -> {
+          Account account = lockForUpdate(userId, accountId);
+          if (account.getAvailable() < amount) {
+            throw new InsufficientFundsException(amount, account.getAccountCurrency());
+          }
+          account.setHeld(account.getHeld() + amount);
+          Hold hold = new Hold();
+          hold.setUserId(userId);
+          hold.setAccountId(accountId);
+          hold.setAmount(amount);
+          hold.setCaptured(0L);
+          hold.setStatus(HoldStatus.ACTIVE);
+          hold.setCreatedAt(now);
+          hold.setExpiresAt(expiresAt);
+          Hold saved = holdRepository.save(hold);
+          scheduleExpiry(saved.getId(), expiresAt);
+          return HoldDTO.from(saved, account);
+        });
+  }
+
+  /**
+   * Debits {@code amount} of an active hold from the account. Partial captures leave the rest of
+   * the hold active; the hold is complete once fully captured.
+   */
+  @Transactional
+  public HoldDTO captureHold(long userId, long holdId, long amount) {
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () -> {
+          Hold hold = lockActiveHold(userId, holdId);
+          if (amount <= 0 || amount > hold.getRemaining()) {
+            throw InvalidAmountException.INSTANCE;
+          }
+          Account account = lockHoldAccount(hold);
+          account.setAmount(account.getAmount() - amount);
+          account.setHeld(account.getHeld() - amount);
+          account.setVersion(account.getVersion() + 1);
+          recordMovement(account, -amount, MovementType.HOLD_CAPTURE);
+          hold.setCaptured(hold.getCaptured() + amount);
+          if (hold.getRemaining() == 0) {
+            hold.setStatus(HoldStatus.CAPTURED);
+          }
+          readYourWritesTracker.wrote(userId);
+          bankingStatistics.recordWithdrawal(account.getAccountCurrency(), amount);
+          return HoldDTO.from(hold, account);
+        });
+  }
+
+  /** Returns the uncaptured part of an active hold to the available balance. */
+  @Transactional
+  public HoldDTO releaseHold(long userId, long holdId) {
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () -> {
+          Hold hold = lockActiveHold(userId, holdId);
+          Account account = lockHoldAccount(hold);
+          closeHold(hold, account, HoldStatus.RELEASED);
+          return HoldDTO.from(hold, account);
+        });
+  }
+
+  @Transactional(readOnly = true)
+  public HoldDTO getHold(long userId, long holdId) {
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () -> {
+          Hold hold =
+              holdRepository
+                  .findByIdAndUserId(holdId, userId)
+                  .orElseThrow(() -> HoldNotFoundException.INSTANCE);
+          Account account =
+              accountRepository
+                  .getAccountByUser_IdAndId(userId, hold.getAccountId())
+                  .orElseThrow(() -> AccountNotFoundException.INSTANCE);
+          return HoldDTO.from(hold, account);
+        });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadHoldExpiries() {
+    List<Integer> loaded =
+        shardRouter.scatter(
+            shard -> {
+              int[] count = new int[1];
+              jdbcTemplate.query(
+                  "SELECT id, expires_at FROM holds WHERE status = ?",
+                  rs -> {
+                    holdExpiries.schedule(
+                        rs.getLong(1), rs.getTimestamp(2).toInstant().toEpochMilli());
+                    count[0]++;
+                  },
+                  HoldStatus.ACTIVE.ordinal());
+              return count[0];
+            });
+    log.info("Loaded {} active holds", loaded.stream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Scheduled(fixedDelayString = "${app.holds.tick-ms:1000}")
+  public void expireHolds() {
+    for (long holdId : holdExpiries.advanceTo(System.currentTimeMillis())) {
+      try {
+        shardRouter.onShard(
+            shardRouter.shardForId(holdId),
+            () -> transactionTemplate.executeWithoutResult(status -> expireHold(holdId)));
+      } catch (RuntimeException e) {
+        log.error("Expiring hold {} failed", holdId, e);
+      }
+    }
+  }
+
+  private void expireHold(long holdId) {
+    Hold hold = holdRepository.findForUpdateById(holdId).orElse(null);
+    if (hold == null || hold.getStatus() != HoldStatus.ACTIVE) {
+      return;
+    }
+    if (hold.getExpiresAt().isAfter(Instant.now())) {
+      holdExpiries.schedule(holdId, hold.getExpiresAt().toEpochMilli());
+      return;
+    }
+    closeHold(hold, lockHoldAccount(hold), HoldStatus.EXPIRED);
+  }
+
+  private Hold lockActiveHold(long userId, long holdId) {
+    Hold hold =
+        holdRepository
+            .findForUpdateByIdAndUserId(holdId, userId)
+            .orElseThrow(() -> HoldNotFoundException.INSTANCE);
+    if (hold.getStatus() != HoldStatus.ACTIVE) {
+      throw new HoldNotActiveException(hold.getStatus());
     }
-    Account account =
-        accountRepository
-            .getAccountByUser_IdAndId(id, accountId)
-            .orElseThrow(AccountNotFoundException::new);
-    if (account.getAmount() < amount) {
-      throw new InsufficientFundsException(
-          "Cannot withdraw " + amount + " " + account.getAccountCurrency().name());
+    if (!hold.getExpiresAt().isAfter(Instant.now())) {
+      throw new HoldNotActiveException(HoldStatus.EXPIRED);
     }
-    account.setAmount(account.getAmount() - amount);
-    return AccountDTO.from(account);
+    return hold;
+  }
+
+  private Account lockForUpdate(long userId, long accountId) {
+    FlightRecorderEvents.AccountLockEvent event = new FlightRecorderEvents.AccountLockEvent();
+    event.begin();
+    Optional<Account> account = accountRepository.findForUpdateByUser_IdAndId(userId, accountId);
+    if (account.isEmpty() && Account.isVirtualId(accountId)) {
+      accountMaterializer.materialize(userId, accountId);
+      account = accountRepository.findForUpdateByUser_IdAndId(userId, accountId);
+    }
+    event.accountId = accountId;
+    event.accounts = account.isPresent() ? 1 : 0;
+    event.commit();
+    return account.orElseThrow(() -> AccountNotFoundException.INSTANCE);
+  }
+
+  private Account lockHoldAccount(Hold hold) {
+    return lockForUpdate(hold.getUserId(), hold.getAccountId());
+  }
+
+  private static void closeHold(Hold hold, Account account, HoldStatus status) {
+    account.setHeld(account.getHeld() - hold.getRemaining());
+    hold.setStatus(status);
+  }
+
+  /** The hold row only becomes visible on commit, so it joins the wheel after it. */
+  private void scheduleExpiry(long holdId, Instant expiresAt) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      holdExpiries.schedule(holdId, expiresAt.toEpochMilli());
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            holdExpiries.schedule(holdId, expiresAt.toEpochMilli());
+          }
+        });
+  }
+
+  private static void afterRollback(Runnable undo) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+              undo.run();
+            }
+          }
+        });
+  }
+
+  private void recordMovement(Account account, long amount, MovementType type) {
+    Instant now = Instant.now();
+    BalanceMovement movement = new BalanceMovement();
+    movement.setAccountId(account.getId());
+    movement.setUserId(account.getUser().getId());
+    movement.setAccountCurrency(account.getAccountCurrency());
+    movement.setAmount(amount);
+    movement.setType(type);
+    movement.setCreatedAt(now);
+    balanceMovementRepository.save(movement);
+    BalanceEvent event = new BalanceEvent();
+    event.setAccountId(account.getId());
+    event.setUserId(account.getUser().getId());
+    event.setAccountCurrency(account.getAccountCurrency());
+    event.setBalance(account.getAmount());
+    event.setAmount(amount);
+    event.setType(type);
+    event.setCreatedAt(now);
+    balanceEventRepository.save(event);
   }
 }
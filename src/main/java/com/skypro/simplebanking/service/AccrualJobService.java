@@ -0,0 +1,189 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.AccrualRequest;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.AccrualCheckpoint;
+import com.skypro.simplebanking.entity.MovementType;
+import com.skypro.simplebanking.exception.JobAlreadyRunningException;
+import com.skypro.simplebanking.repository.AccrualCheckpointRepository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies a period's interest and monthly fee to every account row, one id range per transaction,
+ * with a checkpoint per range so a rerun of the same period skips what is done.
+ *
+ * <p>Virtual accounts of lazy signup have no row and are not charged. They have never been used
+ * and hold only the initial balance, and materializing them for the fee would write a row for
+ * every idle user. An account starts paying fees in the first period after its first use.
+ */
+@Service
+public class AccrualJobService {
+  private static final Logger log = LoggerFactory.getLogger(AccrualJobService.class);
+  /**
+   * Fees stop at the held amount, so they never make the available balance negative. Each change
+   * is journaled and published to the balance event outbox by the same statement.
+   */
+  private static final String ACCRUAL_SQL =
+      "WITH changed AS ("
+          + " UPDATE accounts a"
+          + "  SET amount = GREATEST(a.amount + a.amount * ? / 10000 - ?, LEAST(a.amount, a.held)),"
+          + "  version = a.version + 1"
+          + " FROM (SELECT id, amount FROM accounts"
+          + "  WHERE account_currency = ? AND id >= ? AND id < ? FOR UPDATE) previous"
+          + " WHERE a.id = previous.id"
+          + " RETURNING a.id, a.user_id, a.account_currency, a.amount AS balance,"
+          + "  a.amount - previous.amount AS delta),"
+          + " journal AS ("
+          + " INSERT INTO balance_movements"
+          + " (account_id, user_id, account_currency, amount, type, created_at)"
+          + " SELECT id, user_id, account_currency, delta, ?, now() FROM changed WHERE delta <> 0"
+          + " RETURNING amount),"
+          + " events AS ("
+          + " INSERT INTO balance_events"
+          + " (account_id, user_id, account_currency, balance, amount, type, created_at)"
+          + " SELECT id, user_id, account_currency, balance, delta, ?, now() FROM changed"
+          + " WHERE delta <> 0)"
+          + " SELECT COUNT(*), COALESCE(SUM(amount), 0) FROM journal";
+  private static final String CHECKPOINT_SQL =
+      "INSERT INTO accrual_checkpoints "
+          + "(id, period, range_start, range_end, accounts_updated, completed_at) "
+          + "VALUES (?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final AccrualCheckpointRepository checkpointRepository;
+  private final BankingStatistics bankingStatistics;
+  private final ShardRouter shardRouter;
+  private final long rangeSize;
+  private final ForkJoinPool pool;
+  private volatile JobProgress progress = JobProgress.idle();
+
+  public AccrualJobService(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      AccrualCheckpointRepository checkpointRepository,
+      BankingStatistics bankingStatistics,
+      ShardRouter shardRouter,
+      @Value("${app.accrual.range-size:10000}") long rangeSize,
+      @Value("${app.accrual.parallelism:4}") int parallelism) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.checkpointRepository = checkpointRepository;
+    this.bankingStatistics = bankingStatistics;
+    this.shardRouter = shardRouter;
+    this.rangeSize = rangeSize;
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  public JobProgress getProgress() {
+    return progress;
+  }
+
+  public synchronized JobProgress start(AccrualRequest request) {
+    if (progress.isRunning()) {
+      throw new JobAlreadyRunningException();
+    }
+    JobProgress run = JobProgress.start(request.getPeriod());
+    progress = run;
+    pool.execute(() -> execute(request, run));
+    return run;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private void execute(AccrualRequest request, JobProgress run) {
+    try {
+      List<List<Long>> rangeStartsByShard =
+          shardRouter.scatter(shard -> IdRanges.split(jdbcTemplate, "accounts", rangeSize));
+      run.setTotalUnits(rangeStartsByShard.stream().mapToLong(List::size).sum());
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (int shard = 0; shard < rangeStartsByShard.size(); shard++) {
+        int target = shard;
+        Set<Long> completedRanges =
+            shardRouter.onShard(
+                target,
+                () ->
+                    checkpointRepository.findByPeriod(request.getPeriod()).stream()
+                        .map(AccrualCheckpoint::getRangeStart)
+                        .collect(Collectors.toSet()));
+        for (Long rangeStart : rangeStartsByShard.get(target)) {
+          if (completedRanges.contains(rangeStart)) {
+            run.unitSkipped();
+          } else {
+            Runnable accrual = () -> accrueRange(request, rangeStart, run);
+            tasks.add(ForkJoinTask.adapt(() -> shardRouter.onShard(target, accrual)));
+          }
+        }
+      }
+      ForkJoinTask.invokeAll(tasks);
+      run.complete();
+    } catch (RuntimeException e) {
+      log.error("Accrual run {} failed", request.getPeriod(), e);
+      run.fail(e);
+    }
+  }
+
+  private void accrueRange(AccrualRequest request, long rangeStart, JobProgress run) {
+    long rangeEnd = rangeStart + rangeSize;
+    Long updated =
+        transactionTemplate.execute(
+            status -> {
+              long accounts = 0;
+              for (AccountCurrency currency : AccountCurrency.values()) {
+                long basisPoints = valueFor(request.getInterestBasisPoints(), currency);
+                long fee = valueFor(request.getMonthlyFee(), currency);
+                if (basisPoints == 0 && fee == 0) {
+                  continue;
+                }
+                long[] result =
+                    jdbcTemplate.queryForObject(
+                        ACCRUAL_SQL,
+                        (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+                        basisPoints,
+                        fee,
+                        currency.ordinal(),
+                        rangeStart,
+                        rangeEnd,
+                        MovementType.ACCRUAL.ordinal(),
+                        MovementType.ACCRUAL.ordinal());
+                accounts += result[0];
+                bankingStatistics.recordAccrual(currency, result[1]);
+              }
+              jdbcTemplate.update(
+                  CHECKPOINT_SQL,
+                  request.getPeriod() + ":" + rangeStart,
+                  request.getPeriod(),
+                  rangeStart,
+                  rangeEnd,
+                  accounts,
+                  Timestamp.from(Instant.now()));
+              return accounts;
+            });
+    run.unitCompleted(updated == null ? 0 : updated);
+  }
+
+  private static long valueFor(Map<AccountCurrency, Long> values, AccountCurrency currency) {
+    if (values == null) {
+      return 0;
+    }
+    return values.getOrDefault(currency, 0L);
+  }
+}
@@ -0,0 +1,412 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.BalanceEventDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.BalanceEvent;
+import com.skypro.simplebanking.entity.MovementType;
+import com.skypro.simplebanking.repository.BalanceEventRepository;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Tails the {@code balance_events} outbox of every shard and pushes new rows to the SSE streams of
+ * the affected accounts. Streams are async servlet responses, so an open stream holds no thread;
+ * sends run on a small fan-out pool, one drain at a time per stream. A stream that falls more than
+ * {@code app.events.max-queued} events behind is closed and resumes from {@code Last-Event-ID}.
+ *
+ * <p>Outbox ids come from an identity column, so a transaction that commits late leaves a
+ * temporary gap behind the tail. The tail holds at a gap until every transaction that was running
+ * when the gap was seen has ended; by then the missing row has either committed or rolled back. If
+ * that takes longer than {@code app.events.gap-timeout}, the tail moves on and keeps the missing
+ * ids aside. Once those transactions end the ids are looked up again, and any rows found are
+ * delivered late, out of id order.
+ */
+@Service
+public class BalanceEventRelay {
+  private static final Logger log = LoggerFactory.getLogger(BalanceEventRelay.class);
+  private static final String EVENT_SQL =
+      "SELECT id, account_id, user_id, account_currency, balance, amount, type, created_at"
+          + " FROM balance_events";
+  private static final String TAIL_SQL = EVENT_SQL + " WHERE id > ? ORDER BY id LIMIT ?";
+  /** Oldest transaction still running, and the first transaction id not yet assigned. */
+  private static final String SNAPSHOT_SQL =
+      "SELECT txid_snapshot_xmin(s), txid_snapshot_xmax(s) FROM txid_current_snapshot() s";
+  private static final int TAIL_BATCH = 1000;
+  private static final RowMapper<BalanceEvent> EVENT_MAPPER =
+      (rs, rowNum) -> {
+        BalanceEvent event = new BalanceEvent();
+        event.setId(rs.getLong("id"));
+        event.setAccountId(rs.getLong("account_id"));
+        event.setUserId(rs.getLong("user_id"));
+        event.setAccountCurrency(AccountCurrency.values()[rs.getInt("account_currency")]);
+        event.setBalance(rs.getLong("balance"));
+        event.setAmount(rs.getLong("amount"));
+        event.setType(MovementType.values()[rs.getInt("type")]);
+        event.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+        return event;
+      };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BalanceEventRepository balanceEventRepository;
+  private final AccountService accountService;
+  private final ShardRouter shardRouter;
+  private final TransactionTemplate snapshotTransaction;
+  private final TransactionTemplate transactionTemplate;
+  private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final ExecutorService fanOut;
+  private final ScheduledExecutorService tailers;
+  private final long pollMillis;
+  private final long gapTimeoutMillis;
+  private final Duration retention;
+  private final long streamTimeoutMillis;
+  private final int maxQueued;
+
+  public BalanceEventRelay(
+      JdbcTemplate jdbcTemplate,
+      BalanceEventRepository balanceEventRepository,
+      AccountService accountService,
+      ShardRouter shardRouter,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.events.poll-interval:100ms}") Duration pollInterval,
+      @Value("${app.events.gap-timeout:1s}") Duration gapTimeout,
+      @Value("${app.events.retention:1h}") Duration retention,
+      @Value("${app.events.stream-timeout:30m}") Duration streamTimeout,
+      @Value("${app.events.fan-out-threads:8}") int fanOutThreads,
+      @Value("${app.events.max-queued:256}") int maxQueued) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.balanceEventRepository = balanceEventRepository;
+    this.accountService = accountService;
+    this.shardRouter = shardRouter;
+    this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction.setReadOnly(true);
+    this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.pollMillis = pollInterval.toMillis();
+    this.gapTimeoutMillis = gapTimeout.toMillis();
+    this.retention = retention;
+    this.streamTimeoutMillis = streamTimeout.toMillis();
+    this.maxQueued = maxQueued;
+    AtomicInteger fanOutCount = new AtomicInteger();
+    this.fanOut =
+        Executors.newFixedThreadPool(
+            fanOutThreads,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "balance-event-fan-out-" + fanOutCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.tailers =
+        Executors.newScheduledThreadPool(
+            shardRouter.getShardCount(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "balance-event-relay");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Opens a stream for one account. Without {@code lastEventId} it starts with a {@code snapshot}
+   * event holding the current balance; otherwise it replays the outbox after that id.
+   */
+  public SseEmitter subscribe(long userId, long accountId, Long lastEventId) {
+    accountService.getAccount(userId, accountId);
+    Subscriber subscriber = new Subscriber(new SseEmitter(streamTimeoutMillis), accountId);
+    subscribers.computeIfAbsent(accountId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+    subscriber.emitter.onTimeout(subscriber.emitter::complete);
+    subscriber.emitter.onError(error -> unsubscribe(subscriber));
+    try {
+      shardRouter.onShard(
+          shardRouter.shardForId(userId),
+          () -> {
+            if (lastEventId == null) {
+              sendSnapshot(subscriber, userId);
+            } else {
+              replay(subscriber, lastEventId);
+            }
+          });
+      subscriber.ready = true;
+      subscriber.scheduleDrain();
+    } catch (RuntimeException e) {
+      subscriber.close();
+    }
+    return subscriber.emitter;
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.values().stream().mapToInt(Set::size).sum();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+      int target = shard;
+      Long lastId =
+          shardRouter.onShard(
+              target,
+              () ->
+                  jdbcTemplate.queryForObject(
+                      "SELECT COALESCE(MAX(id), 0) FROM balance_events", Long.class));
+      TailCursor cursor = new TailCursor(lastId == null ? 0 : lastId);
+      tailers.scheduleWithFixedDelay(
+          () -> tail(target, cursor), pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.events.prune-delay-ms:60000}")
+  public void prune() {
+    Instant cutoff = Instant.now().minus(retention);
+    shardRouter.scatter(
+        shard ->
+            transactionTemplate.execute(
+                status -> balanceEventRepository.deleteOlderThan(cutoff)));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    tailers.shutdownNow();
+    fanOut.shutdownNow();
+    subscribers.values().forEach(streams -> streams.forEach(Subscriber::close));
+  }
+
+  private void tail(int shard, TailCursor cursor) {
+    try {
+      shardRouter.onShard(shard, () -> tail(cursor));
+    } catch (RuntimeException e) {
+      log.warn("Balance event relay for shard {} failed", shard, e);
+    }
+  }
+
+  private void tail(TailCursor cursor) {
+    // Taken before the tail query, so every transaction that ended before it is visible there.
+    long[] snapshot =
+        jdbcTemplate.queryForObject(
+            SNAPSHOT_SQL, (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)});
+    long oldestRunning = snapshot[0];
+    recheckSkipped(cursor, oldestRunning);
+    List<BalanceEvent> events =
+        jdbcTemplate.query(TAIL_SQL, EVENT_MAPPER, cursor.lastId, TAIL_BATCH);
+    long now = System.currentTimeMillis();
+    for (BalanceEvent event : events) {
+      if (event.getId() != cursor.lastId + 1) {
+        if (cursor.gapSince == 0) {
+          cursor.gapSince = now;
+          return;
+        }
+        // Recorded one poll after the gap was seen, so the transactions holding the missing ids
+        // have their transaction ids by now.
+        if (cursor.gapHorizon == 0) {
+          cursor.gapHorizon = snapshot[1];
+        }
+        if (cursor.gapHorizon > oldestRunning) {
+          if (now - cursor.gapSince < gapTimeoutMillis) {
+            return;
+          }
+          for (long id = cursor.lastId + 1; id < event.getId(); id++) {
+            cursor.skipped.put(id, cursor.gapHorizon);
+          }
+        }
+      }
+      cursor.gapSince = 0;
+      cursor.gapHorizon = 0;
+      cursor.lastId = event.getId();
+      publish(event, false);
+    }
+  }
+
+  /** Looks up skipped ids whose transactions have all ended, and delivers the ones that exist. */
+  private void recheckSkipped(TailCursor cursor, long oldestRunning) {
+    List<Long> settled = new ArrayList<>();
+    for (Map.Entry<Long, Long> skipped : cursor.skipped.entrySet()) {
+      if (skipped.getValue() <= oldestRunning) {
+        settled.add(skipped.getKey());
+        if (settled.size() == TAIL_BATCH) {
+          break;
+        }
+      }
+    }
+    if (settled.isEmpty()) {
+      return;
+    }
+    String sql =
+        EVENT_SQL
+            + " WHERE id IN ("
+            + String.join(", ", Collections.nCopies(settled.size(), "?"))
+            + ") ORDER BY id";
+    for (BalanceEvent event : jdbcTemplate.query(sql, EVENT_MAPPER, settled.toArray())) {
+      log.debug("Balance event {} committed after the relay passed it", event.getId());
+      publish(event, true);
+    }
+    settled.forEach(cursor.skipped::remove);
+  }
+
+  private void publish(BalanceEvent event, boolean late) {
+    Set<Subscriber> streams = subscribers.get(event.getAccountId());
+    if (streams != null) {
+      streams.forEach(subscriber -> subscriber.offer(event, late));
+    }
+  }
+
+  private void sendSnapshot(Subscriber subscriber, long userId) {
+    Object[] snapshot =
+        snapshotTransaction.execute(
+            status ->
+                new Object[] {
+                  accountService.getAccount(userId, subscriber.accountId),
+                  balanceEventRepository.findLastIdByAccountId(subscriber.accountId)
+                });
+    Long lastId = (Long) snapshot[1];
+    subscriber.lastSentId = lastId == null ? 0 : lastId;
+    SseEmitter.SseEventBuilder event =
+        SseEmitter.event().name("snapshot").data(snapshot[0], MediaType.APPLICATION_JSON);
+    if (lastId != null) {
+      event.id(String.valueOf(lastId));
+    }
+    subscriber.send(event);
+  }
+
+  private void replay(Subscriber subscriber, long lastEventId) {
+    subscriber.lastSentId = lastEventId;
+    List<BalanceEvent> page;
+    do {
+      page =
+          balanceEventRepository.findTop500ByAccountIdAndIdGreaterThanOrderById(
+              subscriber.accountId, subscriber.lastSentId);
+      for (BalanceEvent event : page) {
+        subscriber.sendEvent(event);
+      }
+    } while (page.size() == 500);
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    subscriber.closed = true;
+    subscribers.computeIfPresent(
+        subscriber.accountId,
+        (accountId, streams) -> {
+          streams.remove(subscriber);
+          return streams.isEmpty() ? null : streams;
+        });
+  }
+
+  private static final class TailCursor {
+    /** Ids the tail moved past, mapped to the transaction id that must end before a recheck. */
+    private final NavigableMap<Long, Long> skipped = new TreeMap<>();
+    private long lastId;
+    private long gapSince;
+    private long gapHorizon;
+
+    private TailCursor(long lastId) {
+      this.lastId = lastId;
+    }
+  }
+
+  private final class Subscriber {
+    private final SseEmitter emitter;
+    private final long accountId;
+    private final ConcurrentLinkedQueue<BalanceEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Set<Long> lateIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private volatile boolean closed;
+    private volatile long lastSentId;
+
+    private Subscriber(SseEmitter emitter, long accountId) {
+      this.emitter = emitter;
+      this.accountId = accountId;
+    }
+
+    private void offer(BalanceEvent event, boolean late) {
+      if (closed) {
+        return;
+      }
+      if (queued.incrementAndGet() > maxQueued) {
+        close();
+        return;
+      }
+      if (late) {
+        lateIds.add(event.getId());
+      }
+      queue.add(event);
+      scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+      if (ready && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+        fanOut.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        for (BalanceEvent event = queue.poll(); event != null; event = queue.poll()) {
+          queued.decrementAndGet();
+          boolean late = lateIds.remove(event.getId());
+          if ((late || event.getId() > lastSentId) && !closed) {
+            sendEvent(event);
+          }
+        }
+      } finally {
+        draining.set(false);
+      }
+      scheduleDrain();
+    }
+
+    private void sendEvent(BalanceEvent event) {
+      send(
+          SseEmitter.event()
+              .id(String.valueOf(event.getId()))
+              .name("balance")
+              .data(BalanceEventDTO.from(event), MediaType.APPLICATION_JSON));
+      lastSentId = Math.max(lastSentId, event.getId());
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) {
+      try {
+        emitter.send(event);
+      } catch (IOException | IllegalStateException e) {
+        close();
+      }
+    }
+
+    private void close() {
+      if (!closed) {
+        unsubscribe(this);
+        emitter.complete();
+      }
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.BalanceAsOfDTO;
+import com.skypro.simplebanking.repository.BalanceSnapshotRunRepository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * End-of-day (UTC) balance snapshots. Every day that had balance movements gets a row per changed
+ * account in {@code balance_snapshots}, a table range-partitioned by month; the first run
+ * backfills every day since the oldest movement. With every changed day covered, the balance at
+ * the end of a past day is the latest snapshot on or before it, or else the next snapshot minus
+ * the movements of that snapshot's day. Days after the last run are answered from the current
+ * balance minus the later movements, which is at most one day's worth when the job is current.
+ *
+ * <p>The snapshot table is created with plain DDL because Hibernate cannot declare partitions.
+ */
+@Service
+public class BalanceSnapshotService {
+  private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotService.class);
+  private static final String CREATE_TABLE_SQL =
+      "CREATE TABLE IF NOT EXISTS balance_snapshots ("
+          + " account_id bigint NOT NULL, snapshot_date date NOT NULL, balance bigint NOT NULL,"
+          + " PRIMARY KEY (account_id, snapshot_date)) PARTITION BY RANGE (snapshot_date)";
+  private static final String CREATE_PARTITION_SQL =
+      "CREATE TABLE IF NOT EXISTS balance_snapshots_%d_%02d PARTITION OF balance_snapshots"
+          + " FOR VALUES FROM ('%s') TO ('%s')";
+  private static final String CLAIM_SQL =
+      "INSERT INTO balance_snapshot_runs (snapshot_date, accounts_snapshotted, completed_at)"
+          + " VALUES (?, 0, ?) ON CONFLICT DO NOTHING";
+  private static final String SNAPSHOT_SQL =
+      "INSERT INTO balance_snapshots (account_id, snapshot_date, balance)"
+          + " SELECT a.id, ?, a.amount - COALESCE(later.total, 0) FROM accounts a"
+          + " JOIN (SELECT DISTINCT account_id FROM balance_movements"
+          + "  WHERE created_at >= ? AND created_at < ?) changed ON changed.account_id = a.id"
+          + " LEFT JOIN LATERAL (SELECT SUM(m.amount) AS total FROM balance_movements m"
+          + "  WHERE m.account_id = a.id AND m.created_at >= ?) later ON true"
+          + " ON CONFLICT DO NOTHING";
+  private static final String COMPLETE_SQL =
+      "UPDATE balance_snapshot_runs SET accounts_snapshotted = ? WHERE snapshot_date = ?";
+  private static final String PREVIOUS_SNAPSHOT_SQL =
+      "SELECT balance FROM balance_snapshots WHERE account_id = ? AND snapshot_date <= ?"
+          + " ORDER BY snapshot_date DESC LIMIT 1";
+  private static final String NEXT_SNAPSHOT_SQL =
+      "SELECT snapshot_date, balance FROM balance_snapshots"
+          + " WHERE account_id = ? AND snapshot_date > ? AND snapshot_date <= ?"
+          + " ORDER BY snapshot_date LIMIT 1";
+  private static final String MOVEMENTS_SQL =
+      "SELECT COALESCE(SUM(amount), 0) FROM balance_movements"
+          + " WHERE account_id = ? AND created_at >= ? AND created_at < ?";
+  private static final String LATER_MOVEMENTS_SQL =
+      "SELECT COALESCE(SUM(amount), 0) FROM balance_movements"
+          + " WHERE account_id = ? AND created_at >= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate snapshotTransaction;
+  private final BalanceSnapshotRunRepository runRepository;
+  private final AccountService accountService;
+  private final ShardRouter shardRouter;
+
+  public BalanceSnapshotService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      BalanceSnapshotRunRepository runRepository,
+      AccountService accountService,
+      ShardRouter shardRouter) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction.setReadOnly(true);
+    this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.runRepository = runRepository;
+    this.accountService = accountService;
+    this.shardRouter = shardRouter;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void createSnapshotTable() {
+    shardRouter.scatter(shard -> jdbcTemplate.update(CREATE_TABLE_SQL));
+  }
+
+  @Scheduled(cron = "${app.snapshots.cron:0 5 0 * * *}", zone = "UTC")
+  public void scheduledRun() {
+    snapshotThrough(LocalDate.now(ZoneOffset.UTC).minusDays(1));
+  }
+
+  /** Writes the snapshots of every day after the last completed one, up to {@code lastDay}. */
+  public void snapshotThrough(LocalDate lastDay) {
+    shardRouter.scatter(
+        shard -> {
+          LocalDate first = firstPendingDay();
+          for (LocalDate day = first;
+              day != null && !day.isAfter(lastDay);
+              day = day.plusDays(1)) {
+            if (day.equals(first) || day.getDayOfMonth() == 1) {
+              createPartition(day.withDayOfMonth(1));
+            }
+            LocalDate snapshotDate = day;
+            Integer accounts = transactionTemplate.execute(status -> snapshot(snapshotDate));
+            log.info("Balance snapshot {} on shard {}: {} accounts", day, shard, accounts);
+          }
+          return null;
+        });
+  }
+
+  public BalanceAsOfDTO getBalanceAsOf(long userId, long accountId, LocalDate asOf) {
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () ->
+            snapshotTransaction.execute(
+                status -> {
+                  AccountDTO account = accountService.getAccount(userId, accountId);
+                  return new BalanceAsOfDTO(
+                      accountId, account.getCurrency(), asOf, balanceAsOf(account, asOf));
+                }));
+  }
+
+  private long balanceAsOf(AccountDTO account, LocalDate asOf) {
+    if (!asOf.isBefore(LocalDate.now(ZoneOffset.UTC))) {
+      return account.getAmount();
+    }
+    LocalDate lastRun = runRepository.findLastSnapshotDate();
+    if (lastRun != null && !asOf.isAfter(lastRun)) {
+      List<Long> previous =
+          jdbcTemplate.queryForList(PREVIOUS_SNAPSHOT_SQL, Long.class, account.getId(), asOf);
+      if (!previous.isEmpty()) {
+        return previous.get(0);
+      }
+      List<long[]> next =
+          jdbcTemplate.query(
+              NEXT_SNAPSHOT_SQL,
+              (rs, rowNum) ->
+                  new long[] {rs.getObject(1, LocalDate.class).toEpochDay(), rs.getLong(2)},
+              account.getId(),
+              asOf,
+              lastRun);
+      if (!next.isEmpty()) {
+        LocalDate day = LocalDate.ofEpochDay(next.get(0)[0]);
+        Long movements =
+            jdbcTemplate.queryForObject(
+                MOVEMENTS_SQL, Long.class, account.getId(), startOf(day), endOf(day));
+        return next.get(0)[1] - (movements == null ? 0 : movements);
+      }
+    }
+    LocalDate replayFrom = lastRun == null || asOf.isAfter(lastRun) ? asOf : lastRun;
+    Long later =
+        jdbcTemplate.queryForObject(
+            LATER_MOVEMENTS_SQL, Long.class, account.getId(), endOf(replayFrom));
+    return account.getAmount() - (later == null ? 0 : later);
+  }
+
+  private LocalDate firstPendingDay() {
+    LocalDate lastRun = runRepository.findLastSnapshotDate();
+    if (lastRun != null) {
+      return lastRun.plusDays(1);
+    }
+    Timestamp oldest =
+        jdbcTemplate.queryForObject(
+            "SELECT MIN(created_at) FROM balance_movements", Timestamp.class);
+    return oldest == null ? null : LocalDate.ofInstant(oldest.toInstant(), ZoneOffset.UTC);
+  }
+
+  private int snapshot(LocalDate day) {
+    if (jdbcTemplate.update(CLAIM_SQL, day, Timestamp.from(Instant.now())) == 0) {
+      return 0;
+    }
+    int accounts = jdbcTemplate.update(SNAPSHOT_SQL, day, startOf(day), endOf(day), endOf(day));
+    jdbcTemplate.update(COMPLETE_SQL, accounts, day);
+    return accounts;
+  }
+
+  /** Partitions are created outside the snapshot transaction, DDL locks the parent table. */
+  private void createPartition(LocalDate month) {
+    jdbcTemplate.execute(
+        String.format(
+            CREATE_PARTITION_SQL,
+            month.getYear(),
+            month.getMonthValue(),
+            month,
+            month.plusMonths(1)));
+  }
+
+  private static Timestamp startOf(LocalDate day) {
+    return Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+  }
+
+  private static Timestamp endOf(LocalDate day) {
+    return startOf(day.plusDays(1));
+  }
+}
@@ -0,0 +1,192 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.CurrencyStatsDTO;
+import com.skypro.simplebanking.dto.NodeStatsDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process per-currency counters. Balances are seeded from one aggregate scan at startup and then
+ * follow committed mutations; activity counters count what happened on this node since startup.
+ *
+ * <p>The seed is kept apart from this node's own changes so that {@link NodeStatsDTO#merge} can add
+ * up the changes of every node on top of a single seed. Seeding is a lifecycle phase ahead of the
+ * web server, so no request can commit between the scan and the first recorded change.
+ */
+@Service
+public class BankingStatistics implements SmartLifecycle {
+  private static final int CURRENCIES = AccountCurrency.values().length;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ShardRouter shardRouter;
+  private final String nodeId;
+  private final CurrencyCounters[] counters = new CurrencyCounters[CURRENCIES];
+  private volatile Instant seededAt;
+  private volatile boolean running;
+
+  public BankingStatistics(
+      JdbcTemplate jdbcTemplate,
+      ShardRouter shardRouter,
+      @Value("${app.node-id:${HOSTNAME:local}}") String nodeId) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.shardRouter = shardRouter;
+    this.nodeId = nodeId;
+    for (int i = 0; i < CURRENCIES; i++) {
+      counters[i] = new CurrencyCounters();
+    }
+  }
+
+  @Override
+  public void start() {
+    seed();
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Before the web server, which starts in the phase just below {@code Integer.MAX_VALUE}. */
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  synchronized void seed() {
+    long[] accounts = new long[CURRENCIES];
+    long[] balances = new long[CURRENCIES];
+    shardRouter.scatter(
+        shard -> {
+          jdbcTemplate.query(
+              "SELECT account_currency, COUNT(*), COALESCE(SUM(amount), 0) FROM accounts"
+                  + " GROUP BY account_currency",
+              rs -> {
+                synchronized (accounts) {
+                  accounts[rs.getInt(1)] += rs.getLong(2);
+                  balances[rs.getInt(1)] += rs.getLong(3);
+                }
+              });
+          return null;
+        });
+    for (int i = 0; i < CURRENCIES; i++) {
+      counters[i].seedAccounts = accounts[i];
+      counters[i].seedBalance = balances[i];
+    }
+    seededAt = Instant.now();
+  }
+
+  public void recordAccountCreated(AccountCurrency currency, long initialAmount) {
+    afterCommit(
+        () -> {
+          counters[currency.ordinal()].accounts.increment();
+          counters[currency.ordinal()].balance.add(initialAmount);
+        });
+  }
+
+  public void recordDeposit(AccountCurrency currency, long amount) {
+    afterCommit(
+        () -> {
+          CurrencyCounters counter = counters[currency.ordinal()];
+          counter.balance.add(amount);
+          counter.depositCount.increment();
+          counter.depositVolume.add(amount);
+        });
+  }
+
+  public void recordWithdrawal(AccountCurrency currency, long amount) {
+    afterCommit(
+        () -> {
+          CurrencyCounters counter = counters[currency.ordinal()];
+          counter.balance.add(-amount);
+          counter.withdrawalCount.increment();
+          counter.withdrawalVolume.add(amount);
+        });
+  }
+
+  public void recordTransfer(
+      AccountCurrency sourceCurrency,
+      long amount,
+      AccountCurrency destinationCurrency,
+      long creditedAmount) {
+    afterCommit(
+        () -> {
+          CurrencyCounters source = counters[sourceCurrency.ordinal()];
+          source.balance.add(-amount);
+          source.transferCount.increment();
+          source.transferVolume.add(amount);
+          counters[destinationCurrency.ordinal()].balance.add(creditedAmount);
+        });
+  }
+
+  public void recordAccrual(AccountCurrency currency, long delta) {
+    afterCommit(() -> counters[currency.ordinal()].balance.add(delta));
+  }
+
+  public NodeStatsDTO snapshot() {
+    List<CurrencyStatsDTO> currencies = new ArrayList<>();
+    for (AccountCurrency currency : AccountCurrency.values()) {
+      CurrencyCounters counter = counters[currency.ordinal()];
+      CurrencyStatsDTO stats = new CurrencyStatsDTO();
+      stats.setCurrency(currency);
+      stats.setSeedAccounts(counter.seedAccounts);
+      stats.setSeedBalance(counter.seedBalance);
+      stats.setAccounts(counter.seedAccounts + counter.accounts.sum());
+      stats.setBalance(counter.seedBalance + counter.balance.sum());
+      stats.setDepositCount(counter.depositCount.sum());
+      stats.setDepositVolume(counter.depositVolume.sum());
+      stats.setWithdrawalCount(counter.withdrawalCount.sum());
+      stats.setWithdrawalVolume(counter.withdrawalVolume.sum());
+      stats.setTransferCount(counter.transferCount.sum());
+      stats.setTransferVolume(counter.transferVolume.sum());
+      currencies.add(stats);
+    }
+    NodeStatsDTO node = new NodeStatsDTO();
+    node.setNodeId(nodeId);
+    node.setSeededAt(seededAt);
+    node.setCapturedAt(Instant.now());
+    node.setCurrencies(currencies);
+    return node;
+  }
+
+  private static void afterCommit(Runnable update) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      update.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            update.run();
+          }
+        });
+  }
+
+  private static class CurrencyCounters {
+    private volatile long seedAccounts;
+    private volatile long seedBalance;
+    private final LongAdder accounts = new LongAdder();
+    private final LongAdder balance = new LongAdder();
+    private final LongAdder depositCount = new LongAdder();
+    private final LongAdder depositVolume = new LongAdder();
+    private final LongAdder withdrawalCount = new LongAdder();
+    private final LongAdder withdrawalVolume = new LongAdder();
+    private final LongAdder transferCount = new LongAdder();
+    private final LongAdder transferVolume = new LongAdder();
+  }
+}
@@ -0,0 +1,103 @@
+package com.skypro.simplebanking.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom Java Flight Recorder events that tie recordings to banking operations. They carry no
+ * stack traces and cost next to nothing while no recording is running, so they are always emitted.
+ */
+public final class FlightRecorderEvents {
+  private static final String CATEGORY = "Simple Banking";
+
+  private FlightRecorderEvents() {}
+
+  /** Order of magnitude of an amount, e.g. {@code 100-999}, so amounts are not recorded as is. */
+  public static String amountBucket(long amount) {
+    if (amount < 10) {
+      return amount < 0 ? "negative" : "0-9";
+    }
+    long low = 10;
+    while (low <= amount / 10) {
+      low *= 10;
+    }
+    return low > Long.MAX_VALUE / 10 ? low + "+" : low + "-" + (low * 10 - 1);
+  }
+
+  @Name("simplebanking.Transfer")
+  @Label("Transfer")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class TransferEvent extends Event {
+    @Label("Sender")
+    public long userId;
+
+    @Label("From Account")
+    public long fromAccountId;
+
+    @Label("To Account")
+    public long toAccountId;
+
+    @Label("Currency")
+    public String currency;
+
+    @Label("Amount Bucket")
+    public String amountBucket;
+
+    @Label("Outcome")
+    @Description("ACCEPTED, the rejection or ERROR")
+    public String outcome;
+  }
+
+  @Name("simplebanking.UserLookup")
+  @Label("User Lookup")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class UserLookupEvent extends Event {
+    @Label("Username")
+    public String username;
+
+    @Label("Found")
+    public boolean found;
+  }
+
+  @Name("simplebanking.PasswordCheck")
+  @Label("Password Check")
+  @Description("BCrypt verification of a presented password")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class PasswordCheckEvent extends Event {
+    @Label("Matched")
+    public boolean matched;
+  }
+
+  @Name("simplebanking.AccountLock")
+  @Label("Account Lock")
+  @Description("SELECT ... FOR UPDATE on account rows, including the wait for other holders")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class AccountLockEvent extends Event {
+    @Label("Account")
+    @Description("The locked account, or 0 for a batch")
+    public long accountId;
+
+    @Label("Accounts")
+    public int accounts;
+  }
+
+  @Name("simplebanking.Commit")
+  @Label("Transaction Commit")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  public static class CommitEvent extends Event {
+    @Label("Read Only")
+    public boolean readOnly;
+
+    @Label("Shard")
+    public int shard;
+  }
+}
@@ -0,0 +1,167 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.FlightRecordingDTO;
+import com.skypro.simplebanking.exception.JobAlreadyRunningException;
+import com.skypro.simplebanking.exception.RecordingNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import javax.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * One on-demand flight recording at a time, with the JDK's {@code default} or {@code profile}
+ * settings plus the {@link FlightRecorderEvents}. The recording keeps at most {@code
+ * app.jfr.max-age} and {@code app.jfr.max-size} of data. Stopping writes it to {@code
+ * app.jfr.directory}, replacing the previous file; a download while it runs dumps a snapshot.
+ */
+@Service
+public class FlightRecordingService {
+  public enum Settings {
+    DEFAULT,
+    PROFILE
+  }
+
+  private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+  private final Path directory;
+  private final Duration maxAge;
+  private final long maxSizeBytes;
+  private Recording recording;
+  private Settings settings;
+  private Path lastFile;
+  private Path lastSnapshot;
+
+  public FlightRecordingService(
+      @Value("${app.jfr.directory:${java.io.tmpdir}/jfr}") String directory,
+      @Value("${app.jfr.max-age:30m}") Duration maxAge,
+      @Value("${app.jfr.max-size-bytes:268435456}") long maxSizeBytes) {
+    this.directory = Paths.get(directory);
+    this.maxAge = maxAge;
+    this.maxSizeBytes = maxSizeBytes;
+  }
+
+  public synchronized FlightRecordingDTO start(Settings settings) {
+    if (isRunning()) {
+      throw new JobAlreadyRunningException();
+    }
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settings.name().toLowerCase(Locale.ROOT));
+    } catch (IOException | ParseException e) {
+      throw new IllegalStateException("JFR settings " + settings + " are not available", e);
+    }
+    if (recording != null) {
+      recording.close();
+    }
+    recording = new Recording(configuration);
+    recording.setName("simplebanking");
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge);
+    recording.setMaxSize(maxSizeBytes);
+    recording.start();
+    this.settings = settings;
+    log.info("Flight recording started with {} settings", settings);
+    return getStatus();
+  }
+
+  public synchronized FlightRecordingDTO stop() {
+    if (!isRunning()) {
+      throw RecordingNotFoundException.INSTANCE;
+    }
+    Path file = directory.resolve("recording-" + FILE_TIMESTAMP.format(Instant.now()) + ".jfr");
+    try {
+      Files.createDirectories(directory);
+      recording.stop();
+      recording.dump(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    deleteQuietly(lastFile);
+    lastFile = file;
+    log.info("Flight recording stopped and written to {}", file);
+    return getStatus();
+  }
+
+  public synchronized FlightRecordingDTO getStatus() {
+    if (recording == null) {
+      return new FlightRecordingDTO(false, null, null, null, 0);
+    }
+    return new FlightRecordingDTO(
+        isRunning(),
+        settings.name(),
+        recording.getStartTime(),
+        recording.getStopTime(),
+        lastFile != null && !isRunning() ? size(lastFile) : recording.getSize());
+  }
+
+  /** The stopped recording, or a snapshot of the running one up to now. */
+  public synchronized Path getRecordingFile() {
+    if (isRunning()) {
+      Path snapshot =
+          directory.resolve("snapshot-" + FILE_TIMESTAMP.format(Instant.now()) + ".jfr");
+      try {
+        Files.createDirectories(directory);
+        recording.dump(snapshot);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (!snapshot.equals(lastSnapshot)) {
+        deleteQuietly(lastSnapshot);
+      }
+      lastSnapshot = snapshot;
+      return snapshot;
+    }
+    if (lastFile == null || !Files.exists(lastFile)) {
+      throw RecordingNotFoundException.INSTANCE;
+    }
+    return lastFile;
+  }
+
+  @PreDestroy
+  public synchronized void close() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+  }
+
+  private boolean isRunning() {
+    return recording != null && recording.getState() == RecordingState.RUNNING;
+  }
+
+  private static long size(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete {}", file, e);
+    }
+  }
+}
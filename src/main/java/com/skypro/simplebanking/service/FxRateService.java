@@ -0,0 +1,108 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.InvalidFxRateException;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+@Service
+public class FxRateService {
+  private static final int RATE_DECIMALS = 6;
+
+  private final String ratesFile;
+  private final AtomicReference<FxRateSnapshot> snapshot;
+
+  public FxRateService(@Value("${app.fx.rates-file:}") String ratesFile) {
+    this.ratesFile = ratesFile;
+    this.snapshot =
+        new AtomicReference<>(new FxRateSnapshot(0, Instant.now(), FxRateSnapshot.emptyRates()));
+    if (StringUtils.hasText(ratesFile)) {
+      reloadFromFile();
+    }
+  }
+
+  public FxRateSnapshot getSnapshot() {
+    return snapshot.get();
+  }
+
+  public FxRateSnapshot reloadFromFile() {
+    if (!StringUtils.hasText(ratesFile)) {
+      throw new InvalidFxRateException("Rates file is not configured");
+    }
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(Path.of(ratesFile), StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new InvalidFxRateException("Cannot read rates file " + ratesFile);
+    }
+    Map<String, String> rates = new LinkedHashMap<>();
+    properties.stringPropertyNames().forEach(key -> rates.put(key, properties.getProperty(key)));
+    return publish(rates);
+  }
+
+  public FxRateSnapshot publish(Map<String, String> rates) {
+    long[] table = FxRateSnapshot.emptyRates();
+    rates.forEach((pair, rate) -> table[parsePair(pair)] = parseRate(pair, rate));
+    return snapshot.updateAndGet(
+        current -> new FxRateSnapshot(current.getVersion() + 1, Instant.now(), table));
+  }
+
+  public static Map<String, String> describe(FxRateSnapshot snapshot) {
+    Map<String, String> rates = new LinkedHashMap<>();
+    for (AccountCurrency from : AccountCurrency.values()) {
+      for (AccountCurrency to : AccountCurrency.values()) {
+        if (from != to && snapshot.isQuoted(from, to)) {
+          rates.put(
+              from.name() + "/" + to.name(),
+              BigDecimal.valueOf(snapshot.getRate(from, to), RATE_DECIMALS)
+                  .stripTrailingZeros()
+                  .toPlainString());
+        }
+      }
+    }
+    return rates;
+  }
+
+  private static int parsePair(String pair) {
+    String[] currencies = pair.trim().split("/");
+    if (currencies.length != 2) {
+      throw new InvalidFxRateException("Currency pair should look like USD/EUR: " + pair);
+    }
+    try {
+      return FxRateSnapshot.index(
+          AccountCurrency.valueOf(currencies[0].trim()),
+          AccountCurrency.valueOf(currencies[1].trim()));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidFxRateException("Unknown currency in pair " + pair);
+    }
+  }
+
+  private static long parseRate(String pair, String rate) {
+    try {
+      long scaled =
+          new BigDecimal(rate.trim())
+              .setScale(RATE_DECIMALS, RoundingMode.HALF_EVEN)
+              .unscaledValue()
+              .longValueExact();
+      if (scaled <= 0 || scaled > FxRateSnapshot.MAX_RATE) {
+        throw new InvalidFxRateException("Rate out of range for " + pair);
+      }
+      return scaled;
+    } catch (NumberFormatException | ArithmeticException e) {
+      throw new InvalidFxRateException("Invalid rate for " + pair + ": " + rate);
+    }
+  }
+}
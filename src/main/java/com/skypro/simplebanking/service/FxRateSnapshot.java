@@ -0,0 +1,73 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.exception.WrongCurrencyException;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Immutable table of fixed-point exchange rates. A rate of {@link #RATE_SCALE} means 1:1, missing
+ * pairs are stored as 0 and cannot be converted.
+ */
+public final class FxRateSnapshot {
+  public static final long RATE_SCALE = 1_000_000L;
+  public static final long MAX_RATE = 1_000_000L * RATE_SCALE;
+
+  private static final int CURRENCIES = AccountCurrency.values().length;
+
+  private final long version;
+  private final Instant publishedAt;
+  private final long[] rates;
+
+  FxRateSnapshot(long version, Instant publishedAt, long[] rates) {
+    this.version = version;
+    this.publishedAt = publishedAt;
+    this.rates = Arrays.copyOf(rates, CURRENCIES * CURRENCIES);
+    for (AccountCurrency currency : AccountCurrency.values()) {
+      this.rates[index(currency, currency)] = RATE_SCALE;
+    }
+  }
+
+  static long[] emptyRates() {
+    return new long[CURRENCIES * CURRENCIES];
+  }
+
+  static int index(AccountCurrency from, AccountCurrency to) {
+    return from.ordinal() * CURRENCIES + to.ordinal();
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Instant getPublishedAt() {
+    return publishedAt;
+  }
+
+  public boolean isQuoted(AccountCurrency from, AccountCurrency to) {
+    return rates[index(from, to)] != 0;
+  }
+
+  public long getRate(AccountCurrency from, AccountCurrency to) {
+    long rate = rates[index(from, to)];
+    if (rate == 0) {
+      throw WrongCurrencyException.INSTANCE;
+    }
+    return rate;
+  }
+
+  public long convert(long amount, AccountCurrency from, AccountCurrency to) {
+    long rate = getRate(from, to);
+    if (rate == RATE_SCALE) {
+      return amount;
+    }
+    try {
+      long whole = Math.multiplyExact(amount / RATE_SCALE, rate);
+      long fraction = (amount % RATE_SCALE) * rate / RATE_SCALE;
+      return Math.addExact(whole, fraction);
+    } catch (ArithmeticException e) {
+      throw InvalidAmountException.INSTANCE;
+    }
+  }
+}
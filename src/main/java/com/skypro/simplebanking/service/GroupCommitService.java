@@ -0,0 +1,472 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.GroupCommitStatsDTO;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.MovementType;
+import com.skypro.simplebanking.entity.Transfer;
+import com.skypro.simplebanking.entity.TransferStatus;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.BankingRejection;
+import com.skypro.simplebanking.exception.GroupCommitUnavailableException;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.repository.TransferRepository;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Group commit for deposits, withdrawals and same-shard transfers. Callers queue their operation
+ * and wait; a flusher per shard collects operations for up to {@code window} or {@code
+ * max-batch-size} of them and applies the batch in one transaction, so the whole batch shares one
+ * commit. The batch locks its accounts with one ordered {@code SELECT ... FOR UPDATE}, validates
+ * each operation in order against the locked balances, and writes one UPDATE per account however
+ * many operations touched it. Rejected operations fail alone; if the transaction itself fails,
+ * every operation of the batch is retried in a transaction of its own.
+ *
+ * <p>A caller waits at most {@code timeout} for a flusher to take its operation. An operation
+ * nobody took by then is withdrawn and fails with {@link GroupCommitUnavailableException} without
+ * having run. Once taken, the caller waits up to {@code timeout} more, which also bounds each
+ * batch transaction; if even that runs out the caller gets the same exception, although the
+ * operation may still commit. Operations still queued at shutdown fail the same way.
+ */
+@Service
+public class GroupCommitService {
+  private static final Logger log = LoggerFactory.getLogger(GroupCommitService.class);
+  private static final String LOCK_SQL =
+      "SELECT id, user_id, account_currency, amount, held FROM accounts"
+          + " WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+  private static final String UPDATE_SQL =
+      "UPDATE accounts SET amount = ?, version = version + ? WHERE id = ?";
+  private static final String MOVEMENT_SQL =
+      "INSERT INTO balance_movements"
+          + " (account_id, user_id, account_currency, amount, type, created_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?)";
+  private static final String EVENT_SQL =
+      "INSERT INTO balance_events"
+          + " (account_id, user_id, account_currency, balance, amount, type, created_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private enum Kind {
+    DEPOSIT,
+    WITHDRAWAL,
+    TRANSFER
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TransferRepository transferRepository;
+  private final BankingStatistics bankingStatistics;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final VelocityLimiter velocityLimiter;
+  private final AccountMaterializer accountMaterializer;
+  private final ShardRouter shardRouter;
+  private final boolean enabled;
+  private final Duration window;
+  private final int maxBatchSize;
+  private final long timeoutNanos;
+  private final List<BlockingQueue<Operation>> queues = new ArrayList<>();
+  private final ExecutorService flushers;
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder operations = new LongAdder();
+  private final LongAdder retriedAlone = new LongAdder();
+  private volatile boolean closed;
+
+  public GroupCommitService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      TransferRepository transferRepository,
+      BankingStatistics bankingStatistics,
+      ReadYourWritesTracker readYourWritesTracker,
+      VelocityLimiter velocityLimiter,
+      AccountMaterializer accountMaterializer,
+      ShardRouter shardRouter,
+      @Value("${app.group-commit.enabled:false}") boolean enabled,
+      @Value("${app.group-commit.window:2ms}") Duration window,
+      @Value("${app.group-commit.max-batch-size:64}") int maxBatchSize,
+      @Value("${app.group-commit.flushers-per-shard:2}") int flushersPerShard,
+      @Value("${app.group-commit.timeout:5s}") Duration timeout) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setTimeout((int) Math.max(1, timeout.toSeconds()));
+    this.transferRepository = transferRepository;
+    this.bankingStatistics = bankingStatistics;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.velocityLimiter = velocityLimiter;
+    this.accountMaterializer = accountMaterializer;
+    this.shardRouter = shardRouter;
+    this.enabled = enabled;
+    this.window = window;
+    this.maxBatchSize = maxBatchSize;
+    this.timeoutNanos = timeout.toNanos();
+    if (!enabled) {
+      this.flushers = null;
+      return;
+    }
+    AtomicInteger flusherCount = new AtomicInteger();
+    this.flushers =
+        Executors.newFixedThreadPool(
+            shardRouter.getShardCount() * flushersPerShard,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "group-commit-" + flusherCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+      BlockingQueue<Operation> queue = new LinkedBlockingQueue<>();
+      queues.add(queue);
+      int target = shard;
+      for (int i = 0; i < flushersPerShard; i++) {
+        flushers.execute(() -> drain(target, queue));
+      }
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public AccountDTO deposit(long userId, long accountId, long amount) {
+    Operation operation = new Operation(Kind.DEPOSIT, userId, accountId, amount);
+    return submit(shardRouter.shardForId(userId), operation);
+  }
+
+  public AccountDTO withdraw(long userId, long accountId, long amount) {
+    Operation operation = new Operation(Kind.WITHDRAWAL, userId, accountId, amount);
+    return submit(shardRouter.shardForId(userId), operation);
+  }
+
+  /** Debits and credits a transfer whose two users are on the same shard, and saves it. */
+  public void transfer(Transfer transfer) {
+    Operation operation =
+        new Operation(
+            Kind.TRANSFER,
+            transfer.getFromUserId(),
+            transfer.getFromAccountId(),
+            transfer.getAmount());
+    operation.transfer = transfer;
+    submit(shardRouter.shardForId(transfer.getFromUserId()), operation);
+  }
+
+  public GroupCommitStatsDTO getStats() {
+    long batchCount = batches.sum();
+    long operationCount = operations.sum();
+    return new GroupCommitStatsDTO(
+        enabled,
+        window.toNanos() / 1000,
+        maxBatchSize,
+        batchCount,
+        operationCount,
+        retriedAlone.sum(),
+        batchCount == 0 ? 0 : (double) operationCount / batchCount);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    closed = true;
+    if (flushers != null) {
+      flushers.shutdownNow();
+    }
+    List<Operation> queued = new ArrayList<>();
+    queues.forEach(queue -> queue.drainTo(queued));
+    queued.forEach(
+        operation ->
+            operation.future.completeExceptionally(GroupCommitUnavailableException.INSTANCE));
+  }
+
+  private AccountDTO submit(int shard, Operation operation) {
+    if (closed) {
+      throw GroupCommitUnavailableException.INSTANCE;
+    }
+    BlockingQueue<Operation> queue = queues.get(shard);
+    queue.add(operation);
+    try {
+      try {
+        return operation.future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        if (operation.claim()) {
+          queue.remove(operation);
+          throw GroupCommitUnavailableException.INSTANCE;
+        }
+      }
+      return operation.future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      throw GroupCommitUnavailableException.INSTANCE;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw GroupCommitUnavailableException.INSTANCE;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  private void drain(int shard, BlockingQueue<Operation> queue) {
+    long windowNanos = window.toNanos();
+    List<Operation> batch = new ArrayList<>(maxBatchSize);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+          Operation next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+        batch.removeIf(operation -> !operation.claim());
+        if (!batch.isEmpty()) {
+          commit(shard, batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        batch.forEach(
+            operation ->
+                operation.future.completeExceptionally(GroupCommitUnavailableException.INSTANCE));
+      } catch (RuntimeException e) {
+        log.error("Group commit flusher failed", e);
+        batch.forEach(operation -> operation.future.completeExceptionally(e));
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void commit(int shard, List<Operation> batch) {
+    try {
+      shardRouter.onShard(
+          shard, () -> transactionTemplate.executeWithoutResult(status -> apply(batch)));
+    } catch (RuntimeException e) {
+      batch.forEach(Operation::undo);
+      if (batch.size() == 1) {
+        batch.get(0).future.completeExceptionally(e);
+        return;
+      }
+      log.warn("Group commit of {} operations failed, retrying one by one", batch.size(), e);
+      retriedAlone.add(batch.size());
+      for (Operation operation : batch) {
+        commit(shard, Collections.singletonList(operation));
+      }
+      return;
+    }
+    batches.increment();
+    operations.add(batch.size());
+    batch.forEach(Operation::complete);
+  }
+
+  private void apply(List<Operation> batch) {
+    Map<Long, LockedAccount> accounts = lockAccounts(batch);
+    Timestamp now = Timestamp.from(Instant.now());
+    List<Object[]> movements = new ArrayList<>();
+    List<Object[]> events = new ArrayList<>();
+    List<Transfer> transfers = new ArrayList<>();
+    for (Operation operation : batch) {
+      try {
+        LockedAccount source = accounts.get(operation.accountId);
+        if (source == null || source.userId != operation.userId) {
+          throw AccountNotFoundException.INSTANCE;
+        }
+        if (operation.amount < 0) {
+          throw InvalidAmountException.INSTANCE;
+        }
+        if (operation.kind == Kind.DEPOSIT) {
+          source.change(operation.amount, MovementType.DEPOSIT, now, movements, events);
+          operation.result = source.toDTO();
+          bankingStatistics.recordDeposit(source.currency, operation.amount);
+          continue;
+        }
+        LockedAccount destination = null;
+        if (operation.kind == Kind.TRANSFER) {
+          Transfer transfer = operation.transfer;
+          destination = accounts.get(transfer.getToAccountId());
+          if (destination == null || destination.userId != transfer.getToUserId()) {
+            throw AccountNotFoundException.INSTANCE;
+          }
+        }
+        if (source.amount - source.held < operation.amount) {
+          throw new InsufficientFundsException(operation.amount, source.currency);
+        }
+        if (operation.kind == Kind.WITHDRAWAL) {
+          operation.reservation =
+              velocityLimiter.reserve(operation.userId, source.currency, operation.amount);
+          source.change(-operation.amount, MovementType.WITHDRAWAL, now, movements, events);
+          operation.result = source.toDTO();
+          bankingStatistics.recordWithdrawal(source.currency, operation.amount);
+          continue;
+        }
+        Transfer transfer = operation.transfer;
+        source.change(-operation.amount, MovementType.TRANSFER_OUT, now, movements, events);
+        destination.change(
+            transfer.getCreditedAmount(), MovementType.TRANSFER_IN, now, movements, events);
+        transfer.setStatus(TransferStatus.COMPLETED);
+        transfers.add(transfer);
+        bankingStatistics.recordTransfer(
+            source.currency,
+            transfer.getAmount(),
+            destination.currency,
+            transfer.getCreditedAmount());
+      } catch (BankingRejection e) {
+        operation.rejection = e;
+      }
+    }
+    List<Object[]> updates = new ArrayList<>();
+    for (LockedAccount account : accounts.values()) {
+      if (account.changes > 0) {
+        updates.add(new Object[] {account.amount, account.changes, account.id});
+        readYourWritesTracker.wrote(account.userId);
+      }
+    }
+    jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+    jdbcTemplate.batchUpdate(MOVEMENT_SQL, movements);
+    jdbcTemplate.batchUpdate(EVENT_SQL, events);
+    transferRepository.saveAll(transfers);
+  }
+
+  private Map<Long, LockedAccount> lockAccounts(List<Operation> batch) {
+    for (Operation operation : batch) {
+      if (Account.isVirtualId(operation.accountId)) {
+        accountMaterializer.materialize(operation.userId, operation.accountId);
+      }
+      if (operation.transfer != null && Account.isVirtualId(operation.transfer.getToAccountId())) {
+        accountMaterializer.materialize(
+            operation.transfer.getToUserId(), operation.transfer.getToAccountId());
+      }
+    }
+    Object[] ids =
+        batch.stream()
+            .flatMap(
+                operation ->
+                    operation.transfer == null
+                        ? Stream.of(operation.accountId)
+                        : Stream.of(
+                            operation.accountId, operation.transfer.getToAccountId()))
+            .distinct()
+            .toArray();
+    Map<Long, LockedAccount> accounts = new LinkedHashMap<>();
+    FlightRecorderEvents.AccountLockEvent event = new FlightRecorderEvents.AccountLockEvent();
+    event.begin();
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(LOCK_SQL);
+          statement.setArray(1, connection.createArrayOf("bigint", ids));
+          return statement;
+        },
+        rs -> {
+          LockedAccount account = new LockedAccount();
+          account.id = rs.getLong(1);
+          account.userId = rs.getLong(2);
+          account.currency = AccountCurrency.values()[rs.getInt(3)];
+          account.amount = rs.getLong(4);
+          account.held = rs.getLong(5);
+          accounts.put(account.id, account);
+        });
+    event.accounts = accounts.size();
+    event.commit();
+    return accounts;
+  }
+
+  private static final class Operation {
+    private final Kind kind;
+    private final long userId;
+    private final long accountId;
+    private final long amount;
+    private final CompletableFuture<AccountDTO> future = new CompletableFuture<>();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private Transfer transfer;
+    private AccountDTO result;
+    private BankingRejection rejection;
+    private VelocityLimiter.Reservation reservation;
+
+    private Operation(Kind kind, long userId, long accountId, long amount) {
+      this.kind = kind;
+      this.userId = userId;
+      this.accountId = accountId;
+      this.amount = amount;
+    }
+
+    /** Taken by either a flusher or the caller giving up; only the first one gets it. */
+    private boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    private void complete() {
+      if (rejection != null) {
+        future.completeExceptionally(rejection);
+      } else {
+        future.complete(result);
+      }
+    }
+
+    /** Forgets what a rolled back batch did, so the operation can run again. */
+    private void undo() {
+      if (reservation != null) {
+        reservation.cancel();
+        reservation = null;
+      }
+      if (transfer != null) {
+        transfer.setId(null);
+      }
+      result = null;
+      rejection = null;
+    }
+  }
+
+  private static final class LockedAccount {
+    private long id;
+    private long userId;
+    private AccountCurrency currency;
+    private long amount;
+    private long held;
+    private int changes;
+
+    private void change(
+        long delta,
+        MovementType type,
+        Timestamp now,
+        List<Object[]> movements,
+        List<Object[]> events) {
+      amount += delta;
+      changes++;
+      movements.add(new Object[] {id, userId, currency.ordinal(), delta, type.ordinal(), now});
+      events.add(
+          new Object[] {id, userId, currency.ordinal(), amount, delta, type.ordinal(), now});
+    }
+
+    private AccountDTO toDTO() {
+      return new AccountDTO(id, amount, currency);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.skypro.simplebanking.service;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+final class IdRanges {
+  private IdRanges() {}
+
+  /**
+   * Returns the starts of the fixed-size id ranges that hold at least one row. Ranges are aligned
+   * to multiples of {@code rangeSize} so the same id always falls into the same range across runs.
+   * Empty ranges are left out, because materialized lazy accounts sit far above the sequence ids
+   * and a plain walk from the lowest id to the highest would visit billions of empty ranges.
+   */
+  static List<Long> split(JdbcTemplate jdbcTemplate, String table, long rangeSize) {
+    return jdbcTemplate.queryForList(
+        "SELECT DISTINCT id / ? * ? FROM " + table + " ORDER BY 1",
+        Long.class,
+        rangeSize,
+        rangeSize);
+  }
+}
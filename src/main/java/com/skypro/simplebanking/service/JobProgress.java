@@ -0,0 +1,111 @@
+package com.skypro.simplebanking.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JobProgress {
+  public enum Status {
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  private final String name;
+  private final Instant startedAt;
+  private final AtomicLong totalUnits = new AtomicLong();
+  private final AtomicLong completedUnits = new AtomicLong();
+  private final AtomicLong skippedUnits = new AtomicLong();
+  private final AtomicLong processedItems = new AtomicLong();
+  private volatile Status status;
+  private volatile Instant finishedAt;
+  private volatile String error;
+
+  private JobProgress(String name, Status status, Instant startedAt) {
+    this.name = name;
+    this.status = status;
+    this.startedAt = startedAt;
+  }
+
+  public static JobProgress idle() {
+    return new JobProgress(null, Status.IDLE, null);
+  }
+
+  public static JobProgress start(String name) {
+    return new JobProgress(name, Status.RUNNING, Instant.now());
+  }
+
+  public void setTotalUnits(long units) {
+    totalUnits.set(units);
+  }
+
+  public void unitCompleted(long items) {
+    completedUnits.incrementAndGet();
+    processedItems.addAndGet(items);
+  }
+
+  public void unitSkipped() {
+    skippedUnits.incrementAndGet();
+  }
+
+  public void complete() {
+    finishedAt = Instant.now();
+    status = Status.COMPLETED;
+  }
+
+  public void fail(Throwable cause) {
+    error = String.valueOf(cause.getMessage());
+    finishedAt = Instant.now();
+    status = Status.FAILED;
+  }
+
+  public boolean isRunning() {
+    return status == Status.RUNNING;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public long getTotalUnits() {
+    return totalUnits.get();
+  }
+
+  public long getCompletedUnits() {
+    return completedUnits.get();
+  }
+
+  public long getSkippedUnits() {
+    return skippedUnits.get();
+  }
+
+  public long getProcessedItems() {
+    return processedItems.get();
+  }
+
+  public long getItemsPerSecond() {
+    if (startedAt == null) {
+      return 0;
+    }
+    Instant end = finishedAt == null ? Instant.now() : finishedAt;
+    long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+    return processedItems.get() * 1000 / millis;
+  }
+}
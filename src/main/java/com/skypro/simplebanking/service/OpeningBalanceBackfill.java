@@ -0,0 +1,87 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.entity.MovementType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gives every account that predates the balance journal one {@link MovementType#OPENING} movement
+ * for the difference between its balance and {@link AccountService#INITIAL_AMOUNT}, so that
+ * reconciliation does not flag balances that were changed before any movement was recorded.
+ *
+ * <p>Runs once per shard, the first time a node starts with the journal, and is recorded in
+ * {@code journal_migrations} in the same transaction. A node that starts concurrently waits on the
+ * marker row and then skips. Later differences are left for reconciliation to report.
+ */
+@Service
+public class OpeningBalanceBackfill implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(OpeningBalanceBackfill.class);
+  static final String MIGRATION_ID = "opening-balances";
+  private static final String MARK_SQL =
+      "INSERT INTO journal_migrations (id, applied_at) VALUES (?, now()) ON CONFLICT DO NOTHING";
+  private static final String BACKFILL_SQL =
+      "INSERT INTO balance_movements"
+          + " (account_id, user_id, account_currency, amount, type, created_at)"
+          + " SELECT a.id, a.user_id, a.account_currency, a.amount - ?, ?, now() FROM accounts a"
+          + " WHERE a.amount <> ?"
+          + " AND NOT EXISTS (SELECT 1 FROM balance_movements m WHERE m.account_id = a.id)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ShardRouter shardRouter;
+  private volatile boolean running;
+
+  public OpeningBalanceBackfill(
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      ShardRouter shardRouter) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.shardRouter = shardRouter;
+  }
+
+  @Override
+  public void start() {
+    backfill();
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Before the web server, so no journaled change can land ahead of the opening movements. */
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  void backfill() {
+    shardRouter.scatter(
+        shard ->
+            transactionTemplate.execute(
+                status -> {
+                  if (jdbcTemplate.update(MARK_SQL, MIGRATION_ID) == 0) {
+                    return 0;
+                  }
+                  int backfilled =
+                      jdbcTemplate.update(
+                          BACKFILL_SQL,
+                          AccountService.INITIAL_AMOUNT,
+                          MovementType.OPENING.ordinal(),
+                          AccountService.INITIAL_AMOUNT);
+                  log.info("Recorded {} opening balances on shard {}", backfilled, shard);
+                  return backfilled;
+                }));
+  }
+}
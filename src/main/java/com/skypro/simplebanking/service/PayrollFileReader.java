@@ -0,0 +1,248 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads payroll lines straight from a memory-mapped file into the primitive columns of a {@link
+ * Chunk}, without creating a String per line or field. The file is mapped in windows that always
+ * start at a line boundary, so files larger than one mapping are fine.
+ *
+ * <p>CSV lines are {@code userId,accountId,currency,amount}; a first line that does not start with
+ * a digit is taken as a header. Fixed-width lines hold the same fields right-aligned in columns
+ * 1-20, 21-40, 41-43 and 44-63. Blank lines are skipped but still counted for line numbers.
+ */
+final class PayrollFileReader implements Closeable {
+  private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+  private static final int FIXED_USER = 0;
+  private static final int FIXED_ACCOUNT = 20;
+  private static final int FIXED_CURRENCY = 40;
+  private static final int FIXED_AMOUNT = 43;
+  private static final int FIXED_LENGTH = 63;
+  private static final byte[][] CURRENCY_NAMES = new byte[AccountCurrency.values().length][];
+
+  static {
+    for (AccountCurrency currency : AccountCurrency.values()) {
+      CURRENCY_NAMES[currency.ordinal()] = currency.name().getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  private final FileChannel channel;
+  private final PayrollImportService.Format format;
+  private final long size;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long lineNumber;
+  private boolean malformed;
+
+  PayrollFileReader(Path file, PayrollImportService.Format format) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.format = format;
+    this.size = channel.size();
+    map(0);
+  }
+
+  /** Counts the non-blank lines of the file, for progress reporting. */
+  static long countLines(Path file) throws IOException {
+    try (PayrollFileReader reader = new PayrollFileReader(file, PayrollImportService.Format.CSV)) {
+      long lines = 0;
+      boolean content = false;
+      while (reader.window != null) {
+        while (reader.window.hasRemaining()) {
+          byte next = reader.window.get();
+          if (next == '\n') {
+            lines += content ? 1 : 0;
+            content = false;
+          } else if (next != '\r' && next != ' ') {
+            content = true;
+          }
+        }
+        reader.map(reader.windowStart + reader.window.limit());
+      }
+      return content ? lines + 1 : lines;
+    }
+  }
+
+  /** Fills {@code chunk} with up to its capacity of lines; returns false at the end of the file. */
+  boolean next(Chunk chunk) throws IOException {
+    chunk.size = 0;
+    while (chunk.size < chunk.capacity && window != null) {
+      int start = window.position();
+      int end = findLineEnd(start);
+      if (end < 0) {
+        if (windowStart + window.limit() < size) {
+          if (start == 0) {
+            throw new IOException("Payroll line longer than " + WINDOW_SIZE + " bytes");
+          }
+          map(windowStart + start);
+        } else {
+          window.position(window.limit());
+          readLine(chunk, start, window.limit());
+          map(size);
+        }
+        continue;
+      }
+      window.position(end + 1);
+      readLine(chunk, start, end);
+    }
+    return chunk.size > 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void map(long start) throws IOException {
+    windowStart = start;
+    long length = Math.min(WINDOW_SIZE, size - start);
+    window = start >= size ? null : channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+  }
+
+  private int findLineEnd(int from) {
+    for (int i = from; i < window.limit(); i++) {
+      if (window.get(i) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void readLine(Chunk chunk, int start, int end) {
+    lineNumber++;
+    if (end > start && window.get(end - 1) == '\r') {
+      end--;
+    }
+    int first = skipSpaces(start, end);
+    if (first == end) {
+      return;
+    }
+    if (lineNumber == 1
+        && format == PayrollImportService.Format.CSV
+        && !isDigit(window.get(first))) {
+      return;
+    }
+    int row = chunk.size++;
+    chunk.lineNumbers[row] = lineNumber;
+    malformed = false;
+    if (format == PayrollImportService.Format.CSV) {
+      int userEnd = indexOf(',', start, end);
+      int accountEnd = indexOf(',', userEnd + 1, end);
+      int currencyEnd = indexOf(',', accountEnd + 1, end);
+      if (currencyEnd >= end || indexOf(',', currencyEnd + 1, end) != end) {
+        malformed = true;
+      } else {
+        chunk.userIds[row] = parseLong(start, userEnd);
+        chunk.accountIds[row] = parseLong(userEnd + 1, accountEnd);
+        chunk.currencies[row] = parseCurrency(accountEnd + 1, currencyEnd);
+        chunk.amounts[row] = parseLong(currencyEnd + 1, end);
+      }
+    } else if (end - start < FIXED_LENGTH) {
+      malformed = true;
+    } else {
+      chunk.userIds[row] = parseLong(start + FIXED_USER, start + FIXED_ACCOUNT);
+      chunk.accountIds[row] = parseLong(start + FIXED_ACCOUNT, start + FIXED_CURRENCY);
+      chunk.currencies[row] = parseCurrency(start + FIXED_CURRENCY, start + FIXED_AMOUNT);
+      chunk.amounts[row] = parseLong(start + FIXED_AMOUNT, start + FIXED_LENGTH);
+      malformed |= skipSpaces(start + FIXED_LENGTH, end) != end;
+    }
+    chunk.malformed[row] = malformed;
+  }
+
+  private long parseLong(int from, int to) {
+    from = skipSpaces(from, to);
+    while (to > from && window.get(to - 1) == ' ') {
+      to--;
+    }
+    boolean negative = from < to && window.get(from) == '-';
+    if (negative || (from < to && window.get(from) == '+')) {
+      from++;
+    }
+    if (from == to || to - from > 18) {
+      malformed = true;
+      return 0;
+    }
+    long value = 0;
+    for (int i = from; i < to; i++) {
+      byte digit = window.get(i);
+      if (!isDigit(digit)) {
+        malformed = true;
+        return 0;
+      }
+      value = value * 10 + (digit - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  private int parseCurrency(int from, int to) {
+    from = skipSpaces(from, to);
+    while (to > from && window.get(to - 1) == ' ') {
+      to--;
+    }
+    for (int currency = 0; currency < CURRENCY_NAMES.length; currency++) {
+      byte[] name = CURRENCY_NAMES[currency];
+      if (name.length == to - from && matches(name, from)) {
+        return currency;
+      }
+    }
+    malformed = true;
+    return -1;
+  }
+
+  private boolean matches(byte[] name, int from) {
+    for (int i = 0; i < name.length; i++) {
+      if (window.get(from + i) != name[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int indexOf(char separator, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (window.get(i) == separator) {
+        return i;
+      }
+    }
+    return to;
+  }
+
+  private int skipSpaces(int from, int to) {
+    while (from < to && window.get(from) == ' ') {
+      from++;
+    }
+    return from;
+  }
+
+  private static boolean isDigit(byte value) {
+    return value >= '0' && value <= '9';
+  }
+
+  /** A reusable block of parsed lines, one array per field. */
+  static final class Chunk {
+    final int capacity;
+    final long[] lineNumbers;
+    final long[] userIds;
+    final long[] accountIds;
+    final int[] currencies;
+    final long[] amounts;
+    final boolean[] malformed;
+    int size;
+
+    Chunk(int capacity) {
+      this.capacity = capacity;
+      this.lineNumbers = new long[capacity];
+      this.userIds = new long[capacity];
+      this.accountIds = new long[capacity];
+      this.currencies = new int[capacity];
+      this.amounts = new long[capacity];
+      this.malformed = new boolean[capacity];
+    }
+  }
+}
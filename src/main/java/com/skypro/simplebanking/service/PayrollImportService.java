@@ -0,0 +1,465 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.MovementType;
+import com.skypro.simplebanking.entity.PayrollCheckpoint;
+import com.skypro.simplebanking.exception.InvalidPayrollImportException;
+import com.skypro.simplebanking.exception.JobAlreadyRunningException;
+import com.skypro.simplebanking.exception.PayrollImportNotFoundException;
+import com.skypro.simplebanking.repository.PayrollCheckpointRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk payroll credits from an uploaded file. The upload is stored in {@code app.payroll.directory}
+ * and read in chunks by {@link PayrollFileReader}. Each chunk is split by shard, and each part is
+ * validated with one locking query for all of its accounts and applied with JDBC batches in one
+ * transaction, together with a checkpoint row holding the part's result lines.
+ *
+ * <p>After a crash, every stored upload without a result file is resumed on startup and the parts
+ * that already have a checkpoint are skipped, so no line is applied twice. Checkpoint ids are only
+ * stable for the same file cut into the same chunks, so every checkpoint also records the chunk
+ * size and the SHA-256 of the file, and an import whose checkpoints disagree with either is
+ * refused instead of resumed. The result file is assembled from the checkpoints once the whole
+ * upload has been applied.
+ */
+@Service
+public class PayrollImportService {
+  public enum Format {
+    CSV,
+    FIXED_WIDTH
+  }
+
+  public enum LineStatus {
+    APPLIED,
+    MALFORMED,
+    INVALID_AMOUNT,
+    ACCOUNT_NOT_FOUND,
+    WRONG_CURRENCY
+  }
+
+  private static final Logger log = LoggerFactory.getLogger(PayrollImportService.class);
+  private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+  private static final String RESULT_SUFFIX = ".result.csv";
+  private static final String LOCK_SQL =
+      "SELECT id, user_id, account_currency, amount FROM accounts"
+          + " WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+  private static final String UPDATE_SQL =
+      "UPDATE accounts SET amount = ?, version = version + 1 WHERE id = ?";
+  private static final String MOVEMENT_SQL =
+      "INSERT INTO balance_movements"
+          + " (account_id, user_id, account_currency, amount, type, created_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?)";
+  private static final String EVENT_SQL =
+      "INSERT INTO balance_events"
+          + " (account_id, user_id, account_currency, balance, amount, type, created_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+  private static final String CHECKPOINT_SQL =
+      "INSERT INTO payroll_checkpoints (id, import_id, chunk_index, lines_applied,"
+          + " lines_rejected, chunk_size, file_hash, results, completed_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final PayrollCheckpointRepository checkpointRepository;
+  private final BankingStatistics bankingStatistics;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final AccountMaterializer accountMaterializer;
+  private final ShardRouter shardRouter;
+  private final Path directory;
+  private final int chunkSize;
+  private final ExecutorService executor;
+  private final Map<String, JobProgress> imports = new ConcurrentHashMap<>();
+
+  public PayrollImportService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      PayrollCheckpointRepository checkpointRepository,
+      BankingStatistics bankingStatistics,
+      ReadYourWritesTracker readYourWritesTracker,
+      AccountMaterializer accountMaterializer,
+      ShardRouter shardRouter,
+      @Value("${app.payroll.directory:${java.io.tmpdir}/payroll}") String directory,
+      @Value("${app.payroll.chunk-size:1000}") int chunkSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.checkpointRepository = checkpointRepository;
+    this.bankingStatistics = bankingStatistics;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.accountMaterializer = accountMaterializer;
+    this.shardRouter = shardRouter;
+    this.directory = Paths.get(directory);
+    this.chunkSize = chunkSize;
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "payroll-import");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  public synchronized JobProgress start(String importId, Format format, InputStream content)
+      throws IOException {
+    validateImportId(importId);
+    JobProgress previous = imports.get(importId);
+    if ((previous != null && previous.isRunning()) || Files.exists(resultFile(importId))) {
+      throw new JobAlreadyRunningException();
+    }
+    Files.createDirectories(directory);
+    Path upload = directory.resolve(importId + ".upload");
+    MessageDigest digest = sha256();
+    Files.copy(
+        new DigestInputStream(content, digest), upload, StandardCopyOption.REPLACE_EXISTING);
+    try {
+      checkResumable(importId, HexFormat.of().formatHex(digest.digest()));
+    } catch (InvalidPayrollImportException e) {
+      Files.delete(upload);
+      throw e;
+    }
+    Files.move(upload, dataFile(importId, format), StandardCopyOption.ATOMIC_MOVE);
+    return submit(importId, format);
+  }
+
+  public JobProgress getProgress(String importId) {
+    JobProgress progress = imports.get(importId);
+    if (progress == null) {
+      throw PayrollImportNotFoundException.INSTANCE;
+    }
+    return progress;
+  }
+
+  public Path getResultFile(String importId) {
+    validateImportId(importId);
+    Path result = resultFile(importId);
+    if (!Files.exists(result)) {
+      throw PayrollImportNotFoundException.INSTANCE;
+    }
+    return result;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void resumeImports() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    for (Format format : Format.values()) {
+      String suffix = suffix(format);
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + suffix)) {
+        for (Path file : files) {
+          String name = file.getFileName().toString();
+          String importId = name.substring(0, name.length() - suffix.length());
+          if (!imports.containsKey(importId) && !Files.exists(resultFile(importId))) {
+            log.info("Resuming payroll import {}", importId);
+            submit(importId, format);
+          }
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private JobProgress submit(String importId, Format format) {
+    JobProgress run = JobProgress.start(importId);
+    imports.put(importId, run);
+    executor.execute(() -> execute(importId, format, run));
+    return run;
+  }
+
+  private void execute(String importId, Format format, JobProgress run) {
+    Path file = dataFile(importId, format);
+    try {
+      String fileHash = hash(file);
+      checkResumable(importId, fileHash);
+      long lines = PayrollFileReader.countLines(file);
+      run.setTotalUnits((lines + chunkSize - 1) / chunkSize);
+      Set<String> applied = new HashSet<>();
+      shardRouter
+          .scatter(shard -> checkpointRepository.findIdsByImportId(importId))
+          .forEach(applied::addAll);
+      long chunks = 0;
+      try (PayrollFileReader reader = new PayrollFileReader(file, format)) {
+        PayrollFileReader.Chunk chunk = new PayrollFileReader.Chunk(chunkSize);
+        while (reader.next(chunk)) {
+          applyChunk(importId, fileHash, chunks++, chunk, applied, run);
+        }
+      }
+      writeResults(importId, chunks);
+      Files.delete(file);
+      run.complete();
+    } catch (IOException | RuntimeException e) {
+      log.error("Payroll import {} failed", importId, e);
+      run.fail(e);
+    }
+  }
+
+  /**
+   * Refuses to continue an import whose existing checkpoints were cut from another file or with
+   * another chunk size, since their ids would name different lines.
+   */
+  private void checkResumable(String importId, String fileHash) {
+    for (Optional<PayrollCheckpoint> checkpoint :
+        shardRouter.scatter(shard -> checkpointRepository.findFirstByImportId(importId))) {
+      if (checkpoint.isEmpty()) {
+        continue;
+      }
+      int previousChunkSize = checkpoint.get().getChunkSize();
+      if (!checkpoint.get().getFileHash().equals(fileHash)) {
+        throw new InvalidPayrollImportException(
+            "Import " + importId + " was started with a different file");
+      }
+      if (previousChunkSize != chunkSize) {
+        throw new InvalidPayrollImportException(
+            "Import "
+                + importId
+                + " was started with chunk size "
+                + previousChunkSize
+                + ", not "
+                + chunkSize);
+      }
+    }
+  }
+
+  private void applyChunk(
+      String importId,
+      String fileHash,
+      long index,
+      PayrollFileReader.Chunk chunk,
+      Set<String> applied,
+      JobProgress run) {
+    Map<Integer, List<Integer>> rowsByShard = new TreeMap<>();
+    for (int row = 0; row < chunk.size; row++) {
+      int shard =
+          chunk.malformed[row] || !shardRouter.hasShardFor(chunk.accountIds[row])
+              ? 0
+              : shardRouter.shardForId(chunk.accountIds[row]);
+      rowsByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(row);
+    }
+    boolean skipped = true;
+    for (Map.Entry<Integer, List<Integer>> part : rowsByShard.entrySet()) {
+      String checkpointId = importId + ":" + index + ":" + part.getKey();
+      if (!applied.contains(checkpointId)) {
+        skipped = false;
+        shardRouter.onShard(
+            part.getKey(),
+            () ->
+                transactionTemplate.executeWithoutResult(
+                    status ->
+                        applyPart(
+                            importId, fileHash, index, checkpointId, chunk, part.getValue())));
+      }
+    }
+    if (skipped) {
+      run.unitSkipped();
+    } else {
+      run.unitCompleted(chunk.size);
+    }
+  }
+
+  private void applyPart(
+      String importId,
+      String fileHash,
+      long index,
+      String checkpointId,
+      PayrollFileReader.Chunk chunk,
+      List<Integer> rows) {
+    Map<Long, long[]> accounts = lockAccounts(chunk, rows);
+    Timestamp now = Timestamp.from(Instant.now());
+    Map<Long, long[]> changed = new LinkedHashMap<>();
+    List<Object[]> movements = new ArrayList<>();
+    List<Object[]> events = new ArrayList<>();
+    StringBuilder results = new StringBuilder();
+    long linesApplied = 0;
+    for (int row : rows) {
+      long accountId = chunk.accountIds[row];
+      long amount = chunk.amounts[row];
+      long[] account = accounts.get(accountId);
+      LineStatus status;
+      if (chunk.malformed[row]) {
+        status = LineStatus.MALFORMED;
+      } else if (amount <= 0) {
+        status = LineStatus.INVALID_AMOUNT;
+      } else if (account == null || account[0] != chunk.userIds[row]) {
+        status = LineStatus.ACCOUNT_NOT_FOUND;
+      } else if (account[1] != chunk.currencies[row]) {
+        status = LineStatus.WRONG_CURRENCY;
+      } else {
+        status = LineStatus.APPLIED;
+        account[2] += amount;
+        changed.put(accountId, account);
+        movements.add(
+            new Object[] {
+              accountId, account[0], (int) account[1], amount, MovementType.PAYROLL.ordinal(), now
+            });
+        events.add(
+            new Object[] {
+              accountId, account[0], (int) account[1], account[2], amount,
+              MovementType.PAYROLL.ordinal(), now
+            });
+        bankingStatistics.recordDeposit(AccountCurrency.values()[(int) account[1]], amount);
+        linesApplied++;
+      }
+      results.append(chunk.lineNumbers[row]).append(',');
+      if (!chunk.malformed[row]) {
+        results.append(accountId);
+      }
+      results.append(',').append(status).append('\n');
+    }
+    jdbcTemplate.batchUpdate(
+        UPDATE_SQL,
+        changed.entrySet().stream()
+            .map(entry -> new Object[] {entry.getValue()[2], entry.getKey()})
+            .collect(Collectors.toList()));
+    jdbcTemplate.batchUpdate(MOVEMENT_SQL, movements);
+    jdbcTemplate.batchUpdate(EVENT_SQL, events);
+    jdbcTemplate.update(
+        CHECKPOINT_SQL,
+        checkpointId,
+        importId,
+        index,
+        linesApplied,
+        rows.size() - linesApplied,
+        chunkSize,
+        fileHash,
+        results.toString(),
+        now);
+    changed.values().forEach(account -> readYourWritesTracker.wrote(account[0]));
+  }
+
+  /** Locks every account the rows refer to, returning {@code id -> {userId, currency, amount}}. */
+  private Map<Long, long[]> lockAccounts(PayrollFileReader.Chunk chunk, List<Integer> rows) {
+    for (int row : rows) {
+      if (!chunk.malformed[row]
+          && chunk.amounts[row] > 0
+          && Account.isVirtualId(chunk.accountIds[row])) {
+        accountMaterializer.materialize(chunk.userIds[row], chunk.accountIds[row]);
+      }
+    }
+    Object[] ids =
+        rows.stream()
+            .filter(row -> !chunk.malformed[row])
+            .map(row -> chunk.accountIds[row])
+            .distinct()
+            .toArray();
+    Map<Long, long[]> accounts = new HashMap<>();
+    if (ids.length == 0) {
+      return accounts;
+    }
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(LOCK_SQL);
+          statement.setArray(1, connection.createArrayOf("bigint", ids));
+          return statement;
+        },
+        rs -> {
+          accounts.put(
+              rs.getLong(1), new long[] {rs.getLong(2), rs.getInt(3), rs.getLong(4)});
+        });
+    return accounts;
+  }
+
+  private void writeResults(String importId, long chunks) throws IOException {
+    Path temporary = directory.resolve(importId + ".result.tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+      writer.write("line,accountId,status\n");
+      for (long index = 0; index < chunks; index++) {
+        long chunkIndex = index;
+        List<String> lines = new ArrayList<>();
+        shardRouter
+            .scatter(
+                shard -> checkpointRepository.findByImportIdAndChunkIndex(importId, chunkIndex))
+            .forEach(
+                parts ->
+                    parts.stream()
+                        .map(PayrollCheckpoint::getResults)
+                        .forEach(results -> lines.addAll(List.of(results.split("\n")))));
+        lines.sort(Comparator.comparingLong(line -> Long.parseLong(line.split(",", 2)[0])));
+        for (String line : lines) {
+          writer.write(line);
+          writer.write('\n');
+        }
+      }
+    }
+    Files.move(temporary, resultFile(importId), StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static String hash(Path file) throws IOException {
+    MessageDigest digest = sha256();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Path dataFile(String importId, Format format) {
+    return directory.resolve(importId + suffix(format));
+  }
+
+  private Path resultFile(String importId) {
+    return directory.resolve(importId + RESULT_SUFFIX);
+  }
+
+  private static String suffix(Format format) {
+    return format == Format.CSV ? ".payroll.csv" : ".payroll.fixed";
+  }
+
+  private static void validateImportId(String importId) {
+    if (!IMPORT_ID.matcher(importId).matches()) {
+      throw new InvalidPayrollImportException(
+          "Import id must be 1-64 letters, digits, '-' or '_'");
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.BankingUserDetails;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Remembers users who changed a balance recently so that their reads keep going to the primary
+ * until replicas have had time to catch up. Does nothing when no replicas are configured.
+ */
+@Component
+public class ReadYourWritesTracker {
+  private final boolean enabled;
+  private final long windowNanos;
+  private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+  public ReadYourWritesTracker(
+      @Value("${app.datasource.replica.urls:}") String replicaUrls,
+      @Value("${app.datasource.read-your-writes-window:5s}") Duration window) {
+    this.enabled = StringUtils.hasText(replicaUrls);
+    this.windowNanos = window.toNanos();
+  }
+
+  public void wrote(long userId) {
+    if (enabled) {
+      stickyUntil.put(userId, System.nanoTime() + windowNanos);
+    }
+  }
+
+  public boolean currentUserNeedsPrimary() {
+    if (!enabled) {
+      return false;
+    }
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null
+        || !(authentication.getPrincipal() instanceof BankingUserDetails)) {
+      return false;
+    }
+    long userId = ((BankingUserDetails) authentication.getPrincipal()).getId();
+    Long until = stickyUntil.get(userId);
+    if (until == null) {
+      return false;
+    }
+    if (until - System.nanoTime() > 0) {
+      return true;
+    }
+    stickyUntil.remove(userId, until);
+    return false;
+  }
+
+  public void evictExpired() {
+    long now = System.nanoTime();
+    stickyUntil.values().removeIf(until -> until - now <= 0);
+  }
+}
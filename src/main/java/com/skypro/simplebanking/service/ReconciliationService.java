@@ -0,0 +1,219 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.AccountDiscrepancyDTO;
+import com.skypro.simplebanking.dto.CurrencyTotalsDTO;
+import com.skypro.simplebanking.dto.JobProgressDTO;
+import com.skypro.simplebanking.dto.ReconciliationReportDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.JobAlreadyRunningException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ReconciliationService {
+  private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+  private static final String RANGE_SQL =
+      "SELECT a.id, a.user_id, a.account_currency, a.amount, COALESCE(m.total, 0) AS movements"
+          + " FROM accounts a LEFT JOIN ("
+          + "  SELECT account_id, SUM(amount) AS total FROM balance_movements"
+          + "  WHERE account_id >= ? AND account_id < ? GROUP BY account_id) m"
+          + " ON m.account_id = a.id"
+          + " WHERE a.id >= ? AND a.id < ?";
+  private static final int CURRENCIES = AccountCurrency.values().length;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate streamingJdbcTemplate;
+  private final TransactionTemplate snapshotTransaction;
+  private final ShardRouter shardRouter;
+  private final long rangeSize;
+  private final int maxReportedDiscrepancies;
+  private final ForkJoinPool pool;
+  private volatile ReconciliationRun lastRun = new ReconciliationRun(JobProgress.idle());
+
+  public ReconciliationService(
+      JdbcTemplate jdbcTemplate,
+      DataSource dataSource,
+      PlatformTransactionManager transactionManager,
+      ShardRouter shardRouter,
+      @Value("${app.reconciliation.range-size:50000}") long rangeSize,
+      @Value("${app.reconciliation.parallelism:4}") int parallelism,
+      @Value("${app.reconciliation.fetch-size:5000}") int fetchSize,
+      @Value("${app.reconciliation.max-reported-discrepancies:1000}")
+          int maxReportedDiscrepancies) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+    this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction.setReadOnly(true);
+    this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.shardRouter = shardRouter;
+    this.rangeSize = rangeSize;
+    this.maxReportedDiscrepancies = maxReportedDiscrepancies;
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  @Scheduled(cron = "${app.reconciliation.cron:0 30 0 * * *}")
+  public void scheduledRun() {
+    try {
+      start();
+    } catch (JobAlreadyRunningException e) {
+      log.warn("Skipping scheduled reconciliation, previous run is still in progress");
+    }
+  }
+
+  public synchronized ReconciliationReportDTO start() {
+    if (lastRun.progress.isRunning()) {
+      throw new JobAlreadyRunningException();
+    }
+    ReconciliationRun run = new ReconciliationRun(JobProgress.start("reconciliation"));
+    lastRun = run;
+    pool.execute(() -> execute(run));
+    return report(run);
+  }
+
+  public ReconciliationReportDTO getReport() {
+    return report(lastRun);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private void execute(ReconciliationRun run) {
+    try {
+      List<List<Long>> rangeStartsByShard =
+          shardRouter.scatter(shard -> IdRanges.split(jdbcTemplate, "accounts", rangeSize));
+      run.progress.setTotalUnits(rangeStartsByShard.stream().mapToLong(List::size).sum());
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (int shard = 0; shard < rangeStartsByShard.size(); shard++) {
+        int target = shard;
+        for (Long rangeStart : rangeStartsByShard.get(target)) {
+          tasks.add(
+              ForkJoinTask.adapt(
+                  () -> shardRouter.onShard(target, () -> reconcileRange(run, rangeStart))));
+        }
+      }
+      ForkJoinTask.invokeAll(tasks);
+      run.progress.complete();
+      if (run.discrepancyCount.get() > 0) {
+        log.error("Reconciliation found {} discrepancies", run.discrepancyCount.get());
+      }
+    } catch (RuntimeException e) {
+      log.error("Reconciliation failed", e);
+      run.progress.fail(e);
+    }
+  }
+
+  private void reconcileRange(ReconciliationRun run, long rangeStart) {
+    long rangeEnd = rangeStart + rangeSize;
+    long[] accounts = new long[CURRENCIES];
+    long[] actual = new long[CURRENCIES];
+    long[] expected = new long[CURRENCIES];
+    long[] scanned = new long[1];
+    snapshotTransaction.executeWithoutResult(
+        status ->
+            streamingJdbcTemplate.query(
+                RANGE_SQL,
+                rs -> {
+                  int currency = rs.getInt("account_currency");
+                  long amount = rs.getLong("amount");
+                  long expectedAmount = AccountService.INITIAL_AMOUNT + rs.getLong("movements");
+                  accounts[currency]++;
+                  actual[currency] += amount;
+                  expected[currency] += expectedAmount;
+                  scanned[0]++;
+                  if (amount != expectedAmount || amount < 0) {
+                    run.flag(
+                        new AccountDiscrepancyDTO(
+                            rs.getLong("id"),
+                            rs.getLong("user_id"),
+                            AccountCurrency.values()[currency],
+                            amount,
+                            expectedAmount),
+                        maxReportedDiscrepancies);
+                  }
+                },
+                rangeStart,
+                rangeEnd,
+                rangeStart,
+                rangeEnd));
+    for (int i = 0; i < CURRENCIES; i++) {
+      run.accounts[i].add(accounts[i]);
+      run.actual[i].add(actual[i]);
+      run.expected[i].add(expected[i]);
+    }
+    run.progress.unitCompleted(scanned[0]);
+  }
+
+  private static ReconciliationReportDTO report(ReconciliationRun run) {
+    List<CurrencyTotalsDTO> totals = new ArrayList<>();
+    for (AccountCurrency currency : AccountCurrency.values()) {
+      int i = currency.ordinal();
+      totals.add(
+          new CurrencyTotalsDTO(
+              currency, run.accounts[i].sum(), run.actual[i].sum(), run.expected[i].sum()));
+    }
+    Map<Long, Long> userDifferences = new TreeMap<>();
+    run.userDifferences.forEach(
+        (userId, difference) -> userDifferences.put(userId, difference.sum()));
+    return new ReconciliationReportDTO(
+        JobProgressDTO.from(run.progress),
+        totals,
+        userDifferences,
+        new ArrayList<>(run.discrepancies),
+        run.discrepancyCount.get());
+  }
+
+  private static class ReconciliationRun {
+    private final JobProgress progress;
+    private final LongAdder[] accounts = adders();
+    private final LongAdder[] actual = adders();
+    private final LongAdder[] expected = adders();
+    private final Map<Long, LongAdder> userDifferences = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<AccountDiscrepancyDTO> discrepancies =
+        new ConcurrentLinkedQueue<>();
+    private final AtomicLong discrepancyCount = new AtomicLong();
+
+    private ReconciliationRun(JobProgress progress) {
+      this.progress = progress;
+    }
+
+    /** Every discrepancy counts towards its user's total; only the first are listed in full. */
+    private void flag(AccountDiscrepancyDTO discrepancy, int maxReported) {
+      userDifferences
+          .computeIfAbsent(discrepancy.getUserId(), userId -> new LongAdder())
+          .add(discrepancy.getActualBalance() - discrepancy.getExpectedBalance());
+      if (discrepancyCount.incrementAndGet() <= maxReported) {
+        discrepancies.add(discrepancy);
+      }
+    }
+
+    private static LongAdder[] adders() {
+      LongAdder[] adders = new LongAdder[CURRENCIES];
+      for (int i = 0; i < CURRENCIES; i++) {
+        adders[i] = new LongAdder();
+      }
+      return adders;
+    }
+  }
+}
@@ -0,0 +1,346 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.ScheduledTransferDTO;
+import com.skypro.simplebanking.dto.ScheduledTransferRequest;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.ScheduledTransfer;
+import com.skypro.simplebanking.entity.ScheduledTransferExecution;
+import com.skypro.simplebanking.entity.TransferStatus;
+import com.skypro.simplebanking.exception.BankingRejection;
+import com.skypro.simplebanking.exception.InvalidAmountException;
+import com.skypro.simplebanking.exception.ScheduledTransferNotFoundException;
+import com.skypro.simplebanking.repository.ScheduledTransferExecutionRepository;
+import com.skypro.simplebanking.repository.ScheduledTransferRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Standing orders. Schedules are stored in {@code scheduled_transfers}; the ids of active ones sit
+ * in an in-memory {@link TimingWheel} so nothing polls the database. Due executions are run in
+ * batches on a bounded pool. Each execution is claimed with a conditional update that also writes
+ * a pending {@link ScheduledTransferExecution}, and the debit only commits together with marking
+ * that execution completed, so it happens exactly once even with several nodes loading the same
+ * schedules. After a restart every active schedule is reloaded and those already due run
+ * immediately; executions left pending by a crash are run again, on startup and periodically.
+ */
+@Service
+public class ScheduledTransferService {
+  private static final Logger log = LoggerFactory.getLogger(ScheduledTransferService.class);
+
+  private final ScheduledTransferRepository scheduledTransferRepository;
+  private final ScheduledTransferExecutionRepository executionRepository;
+  private final TransferService transferService;
+  private final AccountService accountService;
+  private final ShardRouter shardRouter;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TimingWheel<Long> wheel;
+  private final int batchSize;
+  private final Duration pendingTimeout;
+  private final Semaphore batchPermits;
+  private final ExecutorService workers;
+  private final ScheduledExecutorService ticker;
+
+  public ScheduledTransferService(
+      ScheduledTransferRepository scheduledTransferRepository,
+      ScheduledTransferExecutionRepository executionRepository,
+      TransferService transferService,
+      AccountService accountService,
+      ShardRouter shardRouter,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.scheduled-transfers.tick:1s}") Duration tick,
+      @Value("${app.scheduled-transfers.parallelism:4}") int parallelism,
+      @Value("${app.scheduled-transfers.batch-size:100}") int batchSize,
+      @Value("${app.scheduled-transfers.pending-timeout:1m}") Duration pendingTimeout) {
+    this.scheduledTransferRepository = scheduledTransferRepository;
+    this.executionRepository = executionRepository;
+    this.transferService = transferService;
+    this.accountService = accountService;
+    this.shardRouter = shardRouter;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.wheel = new TimingWheel<>(tick.toMillis(), System.currentTimeMillis());
+    this.batchSize = batchSize;
+    this.pendingTimeout = pendingTimeout;
+    this.batchPermits = new Semaphore(parallelism);
+    AtomicInteger workerCount = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            parallelism,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "scheduled-transfer-" + workerCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.ticker =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "scheduled-transfer-wheel");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.ticker.scheduleAtFixedRate(
+        this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public ScheduledTransferDTO create(long userId, ScheduledTransferRequest request) {
+    if (request.getAmount() <= 0) {
+      throw InvalidAmountException.INSTANCE;
+    }
+    accountService.getAccount(userId, request.getFromAccountId());
+    accountService.getAccount(request.getToUserId(), request.getToAccountId());
+    ScheduledTransfer scheduledTransfer = new ScheduledTransfer();
+    scheduledTransfer.setUserId(userId);
+    scheduledTransfer.setFromAccountId(request.getFromAccountId());
+    scheduledTransfer.setToUserId(request.getToUserId());
+    scheduledTransfer.setToAccountId(request.getToAccountId());
+    scheduledTransfer.setAmount(request.getAmount());
+    scheduledTransfer.setRecurrence(request.getRecurrence());
+    scheduledTransfer.setAnchorAt(request.getExecuteAt());
+    scheduledTransfer.setNextExecutionAt(request.getExecuteAt());
+    scheduledTransfer.setActive(true);
+    scheduledTransfer.setExecutions(0L);
+    ScheduledTransfer saved =
+        shardRouter.onShard(
+            shardRouter.shardForId(userId),
+            () ->
+                transactionTemplate.execute(
+                    status -> scheduledTransferRepository.save(scheduledTransfer)));
+    wheel.schedule(saved.getId(), saved.getNextExecutionAt().toEpochMilli());
+    return ScheduledTransferDTO.from(saved);
+  }
+
+  public List<ScheduledTransferDTO> list(long userId) {
+    return shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () ->
+            scheduledTransferRepository.findByUserIdOrderById(userId).stream()
+                .map(ScheduledTransferDTO::from)
+                .collect(Collectors.toList()));
+  }
+
+  public void cancel(long userId, long id) {
+    shardRouter.onShard(
+        shardRouter.shardForId(userId),
+        () ->
+            transactionTemplate.executeWithoutResult(
+                status -> {
+                  ScheduledTransfer scheduledTransfer =
+                      scheduledTransferRepository
+                          .findByIdAndUserId(id, userId)
+                          .orElseThrow(() -> ScheduledTransferNotFoundException.INSTANCE);
+                  scheduledTransfer.setActive(false);
+                }));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadSchedules() {
+    List<Integer> loaded =
+        shardRouter.scatter(
+            shard -> {
+              int[] count = new int[1];
+              jdbcTemplate.query(
+                  "SELECT id, next_execution_at FROM scheduled_transfers WHERE active",
+                  rs -> {
+                    wheel.schedule(
+                        rs.getLong(1), rs.getTimestamp(2).toInstant().toEpochMilli());
+                    count[0]++;
+                  });
+              return count[0];
+            });
+    log.info(
+        "Loaded {} active scheduled transfers",
+        loaded.stream().mapToInt(Integer::intValue).sum());
+    resumePendingExecutions(Instant.now());
+  }
+
+  /** Runs executions that were claimed but never finished, e.g. because a node crashed. */
+  @Scheduled(fixedDelayString = "${app.scheduled-transfers.recovery-delay-ms:60000}")
+  public void recoverPendingExecutions() {
+    resumePendingExecutions(Instant.now().minus(pendingTimeout));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    ticker.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  private void tick() {
+    try {
+      List<Long> due = wheel.advanceTo(System.currentTimeMillis());
+      for (int from = 0; from < due.size(); from += batchSize) {
+        List<Long> batch =
+            new ArrayList<>(due.subList(from, Math.min(from + batchSize, due.size())));
+        batchPermits.acquire();
+        workers.execute(
+            () -> {
+              try {
+                batch.forEach(this::execute);
+              } finally {
+                batchPermits.release();
+              }
+            });
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      log.error("Scheduled transfer tick failed", e);
+    }
+  }
+
+  private void execute(long id) {
+    int shard = shardRouter.shardForId(id);
+    Instant now = Instant.now();
+    ScheduledTransfer claimed =
+        shardRouter.onShard(
+            shard,
+            () ->
+                transactionTemplate.execute(
+                    status -> {
+                      ScheduledTransfer scheduledTransfer =
+                          scheduledTransferRepository.findById(id).orElse(null);
+                      if (scheduledTransfer == null || !scheduledTransfer.isActive()) {
+                        return null;
+                      }
+                      Instant due = scheduledTransfer.getNextExecutionAt();
+                      if (due.isAfter(now)) {
+                        wheel.schedule(id, due.toEpochMilli());
+                        return null;
+                      }
+                      Instant next =
+                          scheduledTransfer
+                              .getRecurrence()
+                              .next(scheduledTransfer.getRecurrenceAnchor(), due);
+                      int updated =
+                          scheduledTransferRepository.claim(
+                              id, due, next == null ? due : next, next != null, now);
+                      if (updated != 1) {
+                        return null;
+                      }
+                      ScheduledTransferExecution execution = new ScheduledTransferExecution();
+                      execution.setId(ScheduledTransferExecution.idFor(id, due));
+                      execution.setScheduledTransferId(id);
+                      execution.setDueAt(due);
+                      execution.setStatus(TransferStatus.PENDING);
+                      execution.setClaimedAt(now);
+                      executionRepository.save(execution);
+                      return scheduledTransfer;
+                    }));
+    if (claimed == null) {
+      return;
+    }
+    Instant due = claimed.getNextExecutionAt();
+    Instant next = claimed.getRecurrence().next(claimed.getRecurrenceAnchor(), due);
+    if (next != null) {
+      wheel.schedule(id, next.toEpochMilli());
+    }
+    run(claimed, ScheduledTransferExecution.idFor(id, due));
+  }
+
+  /**
+   * Makes the transfer of a pending execution. A rejection such as insufficient funds fails the
+   * execution; any other error leaves it pending for {@link #recoverPendingExecutions}.
+   */
+  private void run(ScheduledTransfer scheduledTransfer, String executionId) {
+    long id = scheduledTransfer.getId();
+    String error = null;
+    boolean rejected = false;
+    try {
+      transferService.transfer(
+          scheduledTransfer.getUserId(),
+          toTransferRequest(scheduledTransfer),
+          () -> {
+            if (executionRepository.finish(
+                    executionId, TransferStatus.COMPLETED, null, Instant.now())
+                != 1) {
+              throw ExecutionAlreadyFinishedException.INSTANCE;
+            }
+          });
+    } catch (ExecutionAlreadyFinishedException e) {
+      return;
+    } catch (BankingRejection e) {
+      error = e.getClass().getSimpleName();
+      rejected = true;
+    } catch (RuntimeException e) {
+      log.error("Scheduled transfer {} failed", id, e);
+      error = e.getClass().getSimpleName();
+    }
+    String lastError = error;
+    boolean failed = rejected;
+    shardRouter.onShard(
+        shardRouter.shardForId(id),
+        () ->
+            transactionTemplate.executeWithoutResult(
+                status -> {
+                  if (failed) {
+                    executionRepository.finish(
+                        executionId, TransferStatus.FAILED, lastError, Instant.now());
+                  }
+                  scheduledTransferRepository.recordError(id, lastError);
+                }));
+  }
+
+  private void resumePendingExecutions(Instant claimedBefore) {
+    for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+      int target = shard;
+      List<ScheduledTransferExecution> pending =
+          shardRouter.onShard(
+              target,
+              () ->
+                  executionRepository.findTop100ByStatusAndClaimedAtBeforeOrderByClaimedAt(
+                      TransferStatus.PENDING, claimedBefore));
+      for (ScheduledTransferExecution execution : pending) {
+        ScheduledTransfer scheduledTransfer =
+            shardRouter.onShard(
+                target,
+                () ->
+                    scheduledTransferRepository
+                        .findById(execution.getScheduledTransferId())
+                        .orElse(null));
+        if (scheduledTransfer == null) {
+          continue;
+        }
+        log.warn("Resuming scheduled transfer execution {}", execution.getId());
+        workers.execute(() -> run(scheduledTransfer, execution.getId()));
+      }
+    }
+  }
+
+  private static TransferRequest toTransferRequest(ScheduledTransfer scheduledTransfer) {
+    TransferRequest request = new TransferRequest();
+    request.setFromAccountId(scheduledTransfer.getFromAccountId());
+    request.setToUserId(scheduledTransfer.getToUserId());
+    request.setToAccountId(scheduledTransfer.getToAccountId());
+    request.setAmount(scheduledTransfer.getAmount());
+    return request;
+  }
+
+  /** Another node finished the execution first; the debit it was attached to rolls back. */
+  private static class ExecutionAlreadyFinishedException extends BankingRejection {
+    private static final ExecutionAlreadyFinishedException INSTANCE =
+        new ExecutionAlreadyFinishedException();
+  }
+}
@@ -0,0 +1,115 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Places users on shards and tells the routing data source which shard the current thread works
+ * on. A user goes to the shard picked by the hash of the username; ids are drawn from per-shard
+ * sequences that start at {@code shard << SHARD_ID_SHIFT}, so any user, account or transfer id
+ * names its shard. Because the data source hands out connections lazily, the shard may be chosen
+ * inside a transaction, as long as it happens before the first statement.
+ */
+@Component
+public class ShardRouter {
+  public static final int SHARD_ID_SHIFT = 48;
+
+  private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+  private final int shardCount;
+  private final ExecutorService scatterPool;
+
+  public ShardRouter(@Value("${app.sharding.urls:}") List<String> additionalShards) {
+    this.shardCount = 1 + (int) additionalShards.stream().filter(url -> !url.isBlank()).count();
+    this.scatterPool = shardCount > 1 ? Executors.newFixedThreadPool(shardCount) : null;
+  }
+
+  public static int currentShard() {
+    Integer shard = CURRENT_SHARD.get();
+    return shard == null ? 0 : shard;
+  }
+
+  public static long firstId(int shard) {
+    return (long) shard << SHARD_ID_SHIFT;
+  }
+
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  /**
+   * The shard an id was drawn on. Ids from clients may be made up, so one that no shard hands out
+   * is rejected as {@link AccountNotFoundException} instead of reaching the routing data source.
+   */
+  public int shardForId(long id) {
+    if (!hasShardFor(id)) {
+      throw AccountNotFoundException.INSTANCE;
+    }
+    return (int) (id >>> SHARD_ID_SHIFT);
+  }
+
+  public boolean hasShardFor(long id) {
+    return id >= 0 && (id >>> SHARD_ID_SHIFT) < shardCount;
+  }
+
+  public int shardForUsername(String username) {
+    return shardCount == 1 ? 0 : Math.floorMod(username.hashCode(), shardCount);
+  }
+
+  public <T> T onShard(int shard, Supplier<T> action) {
+    Integer previous = CURRENT_SHARD.get();
+    CURRENT_SHARD.set(shard);
+    try {
+      return action.get();
+    } finally {
+      if (previous == null) {
+        CURRENT_SHARD.remove();
+      } else {
+        CURRENT_SHARD.set(previous);
+      }
+    }
+  }
+
+  public void onShard(int shard, Runnable action) {
+    onShard(
+        shard,
+        () -> {
+          action.run();
+          return null;
+        });
+  }
+
+  /** Runs the action on every shard, in parallel when there is more than one. */
+  public <T> List<T> scatter(IntFunction<T> action) {
+    List<T> results = new ArrayList<>(shardCount);
+    if (shardCount == 1) {
+      results.add(onShard(0, () -> action.apply(0)));
+      return results;
+    }
+    List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+    for (int shard = 0; shard < shardCount; shard++) {
+      int target = shard;
+      futures.add(
+          CompletableFuture.supplyAsync(
+              () -> onShard(target, () -> action.apply(target)), scatterPool));
+    }
+    futures.forEach(future -> results.add(future.join()));
+    return results;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (scatterPool != null) {
+      scatterPool.shutdownNow();
+    }
+  }
+}
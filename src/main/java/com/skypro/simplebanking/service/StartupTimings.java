@@ -0,0 +1,54 @@
+package com.skypro.simplebanking.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StartupTimings {
+  private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+  private volatile long readyMillis = -1;
+  private volatile long warmupMillis = -1;
+  private volatile long firstAccountRequestMillis = -1;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void applicationReady() {
+    readyMillis = sinceJvmStart();
+  }
+
+  public void warmupFinished() {
+    warmupMillis = sinceJvmStart();
+  }
+
+  public boolean isFirstAccountRequestRecorded() {
+    return firstAccountRequestMillis >= 0;
+  }
+
+  public synchronized void firstAccountRequestSucceeded() {
+    if (firstAccountRequestMillis < 0) {
+      firstAccountRequestMillis = sinceJvmStart();
+    }
+  }
+
+  public Instant getJvmStartedAt() {
+    return Instant.ofEpochMilli(jvmStartMillis);
+  }
+
+  public long getReadyMillis() {
+    return readyMillis;
+  }
+
+  public long getWarmupMillis() {
+    return warmupMillis;
+  }
+
+  public long getFirstAccountRequestMillis() {
+    return firstAccountRequestMillis;
+  }
+
+  private long sinceJvmStart() {
+    return System.currentTimeMillis() - jvmStartMillis;
+  }
+}
@@ -0,0 +1,109 @@
+package com.skypro.simplebanking.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level {@code n} has 64 slots of {@code 64^n} ticks each; an item sits
+ * in the lowest level whose span covers its deadline and is moved one level down each time the
+ * level above wraps into its slot. Scheduling and each tick are O(1) apart from the items that
+ * actually fall due or cascade. Items are never cancelled, callers re-check them when they fire.
+ */
+final class TimingWheel<T> {
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 6;
+
+  private final long tickMillis;
+  private final ArrayDeque<Entry<T>>[][] wheels;
+  private final List<T> overdue = new ArrayList<>();
+  private long currentTick;
+  private int size;
+
+  TimingWheel(long tickMillis, long startMillis) {
+    this.tickMillis = tickMillis;
+    this.currentTick = startMillis / tickMillis;
+    this.wheels = newWheels();
+    for (int level = 0; level < LEVELS; level++) {
+      for (int slot = 0; slot < SLOTS; slot++) {
+        wheels[level][slot] = new ArrayDeque<>();
+      }
+    }
+  }
+
+  // Java cannot create a generic array directly. The cast is safe because the array never leaves
+  // this class and the constructor fills every slot with an ArrayDeque<Entry<T>>.
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static <T> ArrayDeque<Entry<T>>[][] newWheels() {
+    return new ArrayDeque[LEVELS][SLOTS];
+  }
+
+  synchronized void schedule(T item, long deadlineMillis) {
+    size++;
+    place(new Entry<>(item, Math.floorDiv(deadlineMillis, tickMillis)));
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  /** Advances the wheel tick by tick up to {@code nowMillis} and returns everything now due. */
+  synchronized List<T> advanceTo(long nowMillis) {
+    List<T> due = new ArrayList<>();
+    long targetTick = nowMillis / tickMillis;
+    while (currentTick < targetTick) {
+      currentTick++;
+      cascade();
+      ArrayDeque<Entry<T>> slot = wheels[0][(int) (currentTick & SLOT_MASK)];
+      for (Entry<T> entry = slot.poll(); entry != null; entry = slot.poll()) {
+        due.add(entry.item);
+      }
+    }
+    due.addAll(overdue);
+    overdue.clear();
+    size -= due.size();
+    return due;
+  }
+
+  private void cascade() {
+    for (int level = 1; level < LEVELS; level++) {
+      if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+        return;
+      }
+      ArrayDeque<Entry<T>> slot =
+          wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+      for (Entry<T> entry = slot.poll(); entry != null; entry = slot.poll()) {
+        place(entry);
+      }
+    }
+  }
+
+  private void place(Entry<T> entry) {
+    long delta = entry.deadlineTick - currentTick;
+    if (delta <= 0) {
+      overdue.add(entry.item);
+      return;
+    }
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    long tick = entry.deadlineTick;
+    if (level == LEVELS - 1 && delta >= 1L << (SLOT_BITS * LEVELS)) {
+      tick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+    }
+    wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(entry);
+  }
+
+  private static final class Entry<T> {
+    private final T item;
+    private final long deadlineTick;
+
+    private Entry(T item, long deadlineTick) {
+      this.item = item;
+      this.deadlineTick = deadlineTick;
+    }
+  }
+}
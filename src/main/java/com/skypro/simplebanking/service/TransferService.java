@@ -1,27 +1,335 @@
 package com.skypro.simplebanking.service;
 
 import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.MovementType;
+import com.skypro.simplebanking.entity.Transfer;
+import com.skypro.simplebanking.entity.TransferReceipt;
+import com.skypro.simplebanking.entity.TransferStatus;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.BankingRejection;
+import com.skypro.simplebanking.repository.TransferReceiptRepository;
+import com.skypro.simplebanking.repository.TransferRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.RequestBody;
 
+/**
+ * Transfers between users on the same shard run in one local transaction. A transfer between
+ * shards first debits the source and records the transfer as {@code PENDING} on the source shard,
+ * then credits the destination together with a {@link TransferReceipt} on the destination shard,
+ * and finally marks the transfer {@code COMPLETED}. Transfers left pending by a crash are finished
+ * or refunded by {@link #recoverPendingTransfers()}.
+ */
 @Service
 public class TransferService {
+  private static final Logger log = LoggerFactory.getLogger(TransferService.class);
+
+  /**
+   * How a same-shard transfer takes its row locks. {@code ACCOUNT_ID} locks both accounts up front
+   * in ascending id order, so opposite transfers cannot deadlock. {@code ACCESS} locks each account
+   * when it is first touched and relies on deadlock detection and retry.
+   */
+  public enum LockOrder {
+    ACCOUNT_ID,
+    ACCESS
+  }
+
   private final AccountService accountService;
+  private final FxRateService fxRateService;
+  private final TransferRepository transferRepository;
+  private final TransferReceiptRepository transferReceiptRepository;
+  private final BankingStatistics bankingStatistics;
+  private final VelocityLimiter velocityLimiter;
+  private final GroupCommitService groupCommitService;
+  private final ShardRouter shardRouter;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration pendingTimeout;
+  private final LockOrder lockOrder;
+  private final int maxAttempts;
+  private final LongAdder retries = new LongAdder();
 
-  public TransferService(AccountService accountService) {
+  public TransferService(
+      AccountService accountService,
+      FxRateService fxRateService,
+      TransferRepository transferRepository,
+      TransferReceiptRepository transferReceiptRepository,
+      BankingStatistics bankingStatistics,
+      VelocityLimiter velocityLimiter,
+      GroupCommitService groupCommitService,
+      ShardRouter shardRouter,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.sharding.pending-timeout:1m}") Duration pendingTimeout,
+      @Value("${app.transfer.lock-order:ACCOUNT_ID}") LockOrder lockOrder,
+      @Value("${app.transfer.max-attempts:3}") int maxAttempts) {
     this.accountService = accountService;
+    this.fxRateService = fxRateService;
+    this.transferRepository = transferRepository;
+    this.transferReceiptRepository = transferReceiptRepository;
+    this.bankingStatistics = bankingStatistics;
+    this.velocityLimiter = velocityLimiter;
+    this.groupCommitService = groupCommitService;
+    this.shardRouter = shardRouter;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.pendingTimeout = pendingTimeout;
+    this.lockOrder = lockOrder;
+    this.maxAttempts = maxAttempts;
+  }
+
+  public long getRetryCount() {
+    return retries.sum();
   }
 
-  @Transactional
   public void transfer(long id, @RequestBody TransferRequest transferRequest) {
-    accountService.validateCurrency(
-        transferRequest.getFromAccountId(), transferRequest.getToAccountId());
+    transfer(id, transferRequest, null);
+  }
+
+  /**
+   * Runs {@code inDebitTransaction}, when given, in the transaction that debits the source account,
+   * so that work commits or rolls back together with the debit. Such transfers bypass group commit.
+   */
+  void transfer(long id, TransferRequest transferRequest, Runnable inDebitTransaction) {
+    FlightRecorderEvents.TransferEvent event = new FlightRecorderEvents.TransferEvent();
+    event.begin();
+    event.outcome = "ERROR";
+    try {
+      AccountCurrency sourceCurrency =
+          accountService.getAccountCurrency(transferRequest.getFromAccountId());
+      event.currency = sourceCurrency.name();
+      AccountCurrency destinationCurrency =
+          accountService.getAccountCurrency(transferRequest.getToAccountId());
+      FxRateSnapshot rates = fxRateService.getSnapshot();
+      long creditedAmount =
+          rates.convert(transferRequest.getAmount(), sourceCurrency, destinationCurrency);
+      VelocityLimiter.Reservation reservation =
+          velocityLimiter.reserve(id, sourceCurrency, transferRequest.getAmount());
+      try {
+        transfer(
+            id,
+            transferRequest,
+            sourceCurrency,
+            destinationCurrency,
+            rates,
+            creditedAmount,
+            inDebitTransaction);
+      } catch (RuntimeException e) {
+        reservation.cancel();
+        throw e;
+      }
+      event.outcome = "ACCEPTED";
+    } catch (BankingRejection e) {
+      event.outcome = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      if (event.shouldCommit()) {
+        event.userId = id;
+        event.fromAccountId = transferRequest.getFromAccountId();
+        event.toAccountId = transferRequest.getToAccountId();
+        event.amountBucket = FlightRecorderEvents.amountBucket(transferRequest.getAmount());
+        event.commit();
+      }
+    }
+  }
+
+  private void transfer(
+      long id,
+      TransferRequest transferRequest,
+      AccountCurrency sourceCurrency,
+      AccountCurrency destinationCurrency,
+      FxRateSnapshot rates,
+      long creditedAmount,
+      Runnable inDebitTransaction) {
+    Transfer transfer = new Transfer();
+    transfer.setFromUserId(id);
+    transfer.setFromAccountId(transferRequest.getFromAccountId());
+    transfer.setToUserId(transferRequest.getToUserId());
+    transfer.setToAccountId(transferRequest.getToAccountId());
+    transfer.setAmount(transferRequest.getAmount());
+    transfer.setCreditedAmount(creditedAmount);
+    transfer.setFxRate(rates.getRate(sourceCurrency, destinationCurrency));
+    transfer.setFxRateVersion(rates.getVersion());
+    transfer.setCreatedAt(Instant.now());
+
+    int sourceShard = shardRouter.shardForId(id);
+    if (sourceShard == shardRouter.shardForId(transferRequest.getToUserId())
+        && groupCommitService.isEnabled()
+        && inDebitTransaction == null) {
+      groupCommitService.transfer(transfer);
+      return;
+    }
+    if (sourceShard == shardRouter.shardForId(transferRequest.getToUserId())) {
+      withRetry(
+          sourceShard,
+          () -> {
+            transfer.setId(null);
+            lockAccounts(transfer);
+            debit(transfer, inDebitTransaction);
+            accountService.depositToAccount(
+                transfer.getToUserId(),
+                transfer.getToAccountId(),
+                creditedAmount,
+                MovementType.TRANSFER_IN);
+            transfer.setStatus(TransferStatus.COMPLETED);
+            transferRepository.save(transfer);
+            bankingStatistics.recordTransfer(
+                sourceCurrency, transfer.getAmount(), destinationCurrency, creditedAmount);
+          });
+      return;
+    }
+
+    accountService.getAccount(transfer.getToUserId(), transfer.getToAccountId());
+    withRetry(
+        sourceShard,
+        () -> {
+          transfer.setId(null);
+          debit(transfer, inDebitTransaction);
+          transfer.setStatus(TransferStatus.PENDING);
+          transferRepository.save(transfer);
+        });
+    try {
+      credit(transfer);
+    } catch (AccountNotFoundException e) {
+      refund(transfer);
+      throw e;
+    }
+    complete(transfer, sourceCurrency, destinationCurrency);
+  }
+
+  /** Finishes cross-shard transfers whose credit step did not complete within the timeout. */
+  @Scheduled(fixedDelayString = "${app.sharding.recovery-delay-ms:30000}")
+  public void recoverPendingTransfers() {
+    if (shardRouter.getShardCount() == 1) {
+      return;
+    }
+    Instant cutoff = Instant.now().minus(pendingTimeout);
+    for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+      List<Transfer> pending =
+          shardRouter.onShard(
+              shard,
+              () ->
+                  transferRepository.findTop100ByStatusAndCreatedAtBefore(
+                      TransferStatus.PENDING, cutoff));
+      for (Transfer transfer : pending) {
+        try {
+          credit(transfer);
+          complete(
+              transfer,
+              accountService.getAccountCurrency(transfer.getFromAccountId()),
+              accountService.getAccountCurrency(transfer.getToAccountId()));
+        } catch (AccountNotFoundException e) {
+          refund(transfer);
+        } catch (RuntimeException e) {
+          log.warn("Pending transfer {} is still unresolved", transfer.getId(), e);
+        }
+      }
+    }
+  }
+
+  private void withRetry(int shard, Runnable work) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        shardRouter.onShard(
+            shard, () -> transactionTemplate.executeWithoutResult(status -> work.run()));
+        return;
+      } catch (ConcurrencyFailureException e) {
+        if (attempt >= maxAttempts) {
+          throw e;
+        }
+        retries.increment();
+      }
+    }
+  }
+
+  private void lockAccounts(Transfer transfer) {
+    if (lockOrder != LockOrder.ACCOUNT_ID) {
+      return;
+    }
+    if (transfer.getFromAccountId() <= transfer.getToAccountId()) {
+      accountService.lockAccount(transfer.getFromUserId(), transfer.getFromAccountId());
+      accountService.lockAccount(transfer.getToUserId(), transfer.getToAccountId());
+    } else {
+      accountService.lockAccount(transfer.getToUserId(), transfer.getToAccountId());
+      accountService.lockAccount(transfer.getFromUserId(), transfer.getFromAccountId());
+    }
+  }
+
+  private void debit(Transfer transfer, Runnable inDebitTransaction) {
     accountService.withdrawFromAccount(
-        id, transferRequest.getFromAccountId(), transferRequest.getAmount());
-    accountService.depositToAccount(
-        transferRequest.getToUserId(),
-        transferRequest.getToAccountId(),
-        transferRequest.getAmount());
+        transfer.getFromUserId(),
+        transfer.getFromAccountId(),
+        transfer.getAmount(),
+        MovementType.TRANSFER_OUT);
+    if (inDebitTransaction != null) {
+      inDebitTransaction.run();
+    }
+  }
+
+  private void credit(Transfer transfer) {
+    shardRouter.onShard(
+        shardRouter.shardForId(transfer.getToUserId()),
+        () ->
+            transactionTemplate.executeWithoutResult(
+                status -> {
+                  if (transferReceiptRepository.existsById(transfer.getId())) {
+                    return;
+                  }
+                  accountService.depositToAccount(
+                      transfer.getToUserId(),
+                      transfer.getToAccountId(),
+                      transfer.getCreditedAmount(),
+                      MovementType.TRANSFER_IN);
+                  TransferReceipt receipt = new TransferReceipt();
+                  receipt.setTransferId(transfer.getId());
+                  receipt.setCreatedAt(Instant.now());
+                  transferReceiptRepository.save(receipt);
+                }));
+  }
+
+  private void complete(
+      Transfer transfer, AccountCurrency sourceCurrency, AccountCurrency destinationCurrency) {
+    shardRouter.onShard(
+        shardRouter.shardForId(transfer.getFromUserId()),
+        () ->
+            transactionTemplate.executeWithoutResult(
+                status -> {
+                  if (transferRepository.updateStatus(
+                          transfer.getId(), TransferStatus.PENDING, TransferStatus.COMPLETED)
+                      == 1) {
+                    bankingStatistics.recordTransfer(
+                        sourceCurrency,
+                        transfer.getAmount(),
+                        destinationCurrency,
+                        transfer.getCreditedAmount());
+                  }
+                }));
+  }
+
+  private void refund(Transfer transfer) {
+    shardRouter.onShard(
+        shardRouter.shardForId(transfer.getFromUserId()),
+        () ->
+            transactionTemplate.executeWithoutResult(
+                status -> {
+                  if (transferRepository.updateStatus(
+                          transfer.getId(), TransferStatus.PENDING, TransferStatus.FAILED)
+                      == 1) {
+                    accountService.depositToAccount(
+                        transfer.getFromUserId(),
+                        transfer.getFromAccountId(),
+                        transfer.getAmount(),
+                        MovementType.TRANSFER_REFUND);
+                    log.warn("Transfer {} refunded, destination account is gone", transfer.getId());
+                  }
+                }));
   }
 }
@@ -6,59 +6,187 @@ import com.skypro.simplebanking.dto.UserDTO;
 import com.skypro.simplebanking.entity.User;
 import com.skypro.simplebanking.exception.UserAlreadyExistsException;
 import com.skypro.simplebanking.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Users and their lookup. The admin search matches username prefixes through a btree index in the
+ * "C" collation, which serves {@code LIKE 'q%'} as an ordered range scan, and substrings of three
+ * or more characters through a pg_trgm GIN index. Both indexes are built concurrently on startup;
+ * without the pg_trgm extension substring search still works, by scanning.
+ */
 @Service
 public class UserService implements UserDetailsService {
+  private static final Logger log = LoggerFactory.getLogger(UserService.class);
+  private static final String PREFIX_INDEX_SQL =
+      "CREATE INDEX CONCURRENTLY IF NOT EXISTS users_username_prefix_idx"
+          + " ON users (username COLLATE \"C\")";
+  private static final String TRIGRAM_INDEX_SQL =
+      "CREATE INDEX CONCURRENTLY IF NOT EXISTS users_username_trgm_idx"
+          + " ON users USING gin (username gin_trgm_ops)";
+  private static final int MIN_SUBSTRING_LENGTH = 3;
+  private static final Comparator<ListUserDTO> BY_USERNAME =
+      Comparator.comparing(ListUserDTO::getUsername);
+
   private final UserRepository userRepository;
   private final AccountService accountService;
   private final PasswordEncoder passwordEncoder;
+  private final ShardRouter shardRouter;
+  private final TransactionTemplate readOnlyTransaction;
+  private final JdbcTemplate jdbcTemplate;
+  private final int searchMaxPageSize;
 
   public UserService(
       UserRepository userRepository,
       AccountService accountService,
-      PasswordEncoder passwordEncoder) {
+      PasswordEncoder passwordEncoder,
+      ShardRouter shardRouter,
+      PlatformTransactionManager transactionManager,
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.user-search.max-page-size:100}") int searchMaxPageSize) {
     this.userRepository = userRepository;
     this.accountService = accountService;
     this.passwordEncoder = passwordEncoder;
+    this.shardRouter = shardRouter;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.jdbcTemplate = jdbcTemplate;
+    this.searchMaxPageSize = searchMaxPageSize;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void createSearchIndexes() {
+    shardRouter.scatter(
+        shard -> {
+          jdbcTemplate.execute(PREFIX_INDEX_SQL);
+          try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute(TRIGRAM_INDEX_SQL);
+          } catch (DataAccessException e) {
+            log.warn("No trigram index on shard {}, substring search will scan", shard, e);
+          }
+          return null;
+        });
   }
 
   @Override
   @Transactional(readOnly = true)
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    return userRepository
-        .findByUsername(username)
-        .map(BankingUserDetails::from)
+    FlightRecorderEvents.UserLookupEvent event = new FlightRecorderEvents.UserLookupEvent();
+    event.begin();
+    Optional<User> user =
+        shardRouter.onShard(
+            shardRouter.shardForUsername(username), () -> userRepository.findByUsername(username));
+    event.username = username;
+    event.found = user.isPresent();
+    event.commit();
+    return user.map(BankingUserDetails::from)
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
   }
 
   @Transactional
   public UserDTO createUser(String username, String password) {
-    Optional<User> existingUser = userRepository.findByUsername(username);
-    if (existingUser.isPresent()) {
-      throw new UserAlreadyExistsException();
-    }
-    User user = new User();
-    user.setUsername(username);
-    user.setPassword(passwordEncoder.encode(password));
-    userRepository.save(user);
-    accountService.createDefaultAccounts(user);
-    return UserDTO.from(user);
+    return shardRouter.onShard(
+        shardRouter.shardForUsername(username),
+        () -> {
+          Optional<User> existingUser = userRepository.findByUsername(username);
+          if (existingUser.isPresent()) {
+            throw new UserAlreadyExistsException();
+          }
+          User user = new User();
+          user.setUsername(username);
+          user.setPassword(passwordEncoder.encode(password));
+          userRepository.save(user);
+          accountService.createDefaultAccounts(user);
+          return UserDTO.from(user);
+        });
   }
   @Transactional(readOnly = true)
   public UserDTO getUser(long id) {
-    return userRepository.findById(id).map(UserDTO::from).orElseThrow();
+    return shardRouter.onShard(
+        shardRouter.shardForId(id),
+        () -> userRepository.findById(id).map(UserDTO::from).orElseThrow());
   }
-  @Transactional(readOnly = true)
+
   public List<ListUserDTO> listUsers() {
-    return userRepository.findAll().stream().map(ListUserDTO::from).collect(Collectors.toList());
+    return shardRouter
+        .scatter(
+            shard ->
+                readOnlyTransaction.execute(
+                    status ->
+                        userRepository.findAll().stream()
+                            .map(ListUserDTO::from)
+                            .collect(Collectors.toList())))
+        .stream()
+        .flatMap(List::stream)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Users whose username starts with {@code query}, by username, followed by those that only
+   * contain it, also by username. Pages are keyed by the last username of the previous page, passed
+   * as {@code after}; a cursor that starts with the query is still in the prefix matches, any other
+   * is in the substring matches. Each shard returns at most one page past the cursor.
+   */
+  public List<ListUserDTO> searchUsers(String query, String after, int size) {
+    int pageSize = Math.max(1, Math.min(size, searchMaxPageSize));
+    if (query == null || query.isEmpty()) {
+      return List.of();
+    }
+    String escaped = query.replaceAll("[\\\\%_]", "\\\\$0");
+    boolean inPrefixMatches = after == null || after.startsWith(query);
+    List<ListUserDTO> matches = new ArrayList<>();
+    if (inPrefixMatches) {
+      String cursor = after == null ? "" : after;
+      matches.addAll(
+          search(
+              shard -> userRepository.searchByPrefix(escaped + "%", cursor, pageSize), pageSize));
+    }
+    if (matches.size() < pageSize && query.length() >= MIN_SUBSTRING_LENGTH) {
+      String cursor = inPrefixMatches ? "" : after;
+      int remaining = pageSize - matches.size();
+      matches.addAll(
+          search(
+              shard ->
+                  userRepository.searchBySubstring(
+                      "%" + escaped + "%", escaped + "%", cursor, remaining),
+              remaining));
+    }
+    return matches;
+  }
+
+  private List<ListUserDTO> search(IntFunction<List<User>> query, int limit) {
+    return shardRouter
+        .scatter(
+            shard ->
+                readOnlyTransaction.execute(
+                    status ->
+                        query.apply(shard).stream()
+                            .map(ListUserDTO::from)
+                            .collect(Collectors.toList())))
+        .stream()
+        .flatMap(List::stream)
+        .sorted(BY_USERNAME)
+        .limit(limit)
+        .collect(Collectors.toCollection(ArrayList::new));
   }
 }
@@ -0,0 +1,283 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.MovementType;
+import com.skypro.simplebanking.exception.VelocityLimitExceededException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user limits on the count and amount of debits in the last minute, hour and day, kept in
+ * memory so checking them costs no queries. Each user has, per currency, one ring of buckets per
+ * window (60 one-second, 60 one-minute and 96 fifteen-minute buckets) with running totals, so a
+ * check is O(1) apart from clearing the buckets that slid out since the user's last debit.
+ *
+ * <p>Users live in a {@link ConcurrentHashMap}, whose bins are locked independently, and each
+ * user's rings are guarded by the user's own monitor. Users without debits for a day are evicted
+ * under that monitor; a debit that finds its user already evicted starts over with a fresh entry.
+ * After a restart the rings are refilled from the last day of balance movements.
+ *
+ * <p>Limits are read per currency from {@code app.velocity.limits.<CURRENCY>.<window>-count} and
+ * {@code -amount}, falling back to {@code app.velocity.limits.default}; missing ones are unlimited.
+ */
+@Component
+public class VelocityLimiter {
+  private static final Logger log = LoggerFactory.getLogger(VelocityLimiter.class);
+  private static final String[] WINDOW_NAMES = {"minute", "hour", "day"};
+  private static final long[] BUCKET_MILLIS = {1_000L, 60_000L, 900_000L};
+  private static final int[] BUCKETS = {60, 60, 96};
+  private static final long IDLE_MILLIS = Duration.ofDays(1).toMillis();
+  private static final String HISTORY_SQL =
+      "SELECT user_id, account_currency, amount, created_at FROM balance_movements"
+          + " WHERE created_at >= ? AND type IN (?, ?)";
+
+  private final boolean enabled;
+  private final long[][] countLimits = new long[AccountCurrency.values().length][];
+  private final long[][] amountLimits = new long[AccountCurrency.values().length][];
+  private final ConcurrentHashMap<Long, UserWindows> users = new ConcurrentHashMap<>();
+  private final JdbcTemplate jdbcTemplate;
+  private final ShardRouter shardRouter;
+
+  public VelocityLimiter(
+      Environment environment,
+      JdbcTemplate jdbcTemplate,
+      ShardRouter shardRouter,
+      @Value("${app.velocity.enabled:true}") boolean enabled) {
+    this.enabled = enabled;
+    this.jdbcTemplate = jdbcTemplate;
+    this.shardRouter = shardRouter;
+    for (AccountCurrency currency : AccountCurrency.values()) {
+      countLimits[currency.ordinal()] = readLimits(environment, currency, "count");
+      amountLimits[currency.ordinal()] = readLimits(environment, currency, "amount");
+    }
+  }
+
+  /**
+   * Counts a debit of {@code amount} against the limits of the user, or throws {@link
+   * VelocityLimitExceededException} without counting it. A debit that does not happen after all
+   * must be handed back with {@link Reservation#cancel()}.
+   */
+  public Reservation reserve(long userId, AccountCurrency currency, long amount) {
+    if (!enabled) {
+      return Reservation.NONE;
+    }
+    long now = System.currentTimeMillis();
+    while (true) {
+      UserWindows windows = users.computeIfAbsent(userId, id -> new UserWindows());
+      synchronized (windows) {
+        if (windows.evicted) {
+          continue;
+        }
+        Ring[] rings = windows.rings(currency);
+        int c = currency.ordinal();
+        for (int w = 0; w < rings.length; w++) {
+          Ring ring = rings[w];
+          ring.advance(now / BUCKET_MILLIS[w]);
+          if (ring.count + 1 > countLimits[c][w] || ring.amount + amount > amountLimits[c][w]) {
+            throw new VelocityLimitExceededException(WINDOW_NAMES[w], currency);
+          }
+        }
+        for (int w = 0; w < rings.length; w++) {
+          rings[w].add(now / BUCKET_MILLIS[w], 1, amount);
+        }
+        windows.lastDebit = now;
+      }
+      return new Reservation(this, userId, currency, amount, now);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadHistory() {
+    if (!enabled) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    Timestamp since = new Timestamp(now - IDLE_MILLIS);
+    List<Integer> loaded =
+        shardRouter.scatter(
+            shard -> {
+              int[] count = new int[1];
+              jdbcTemplate.query(
+                  HISTORY_SQL,
+                  rs -> {
+                    long at = rs.getTimestamp(4).getTime();
+                    record(
+                        rs.getLong(1), AccountCurrency.values()[rs.getInt(2)], -rs.getLong(3), at);
+                    count[0]++;
+                  },
+                  since,
+                  MovementType.WITHDRAWAL.ordinal(),
+                  MovementType.TRANSFER_OUT.ordinal());
+              return count[0];
+            });
+    log.info(
+        "Loaded {} debits into velocity windows",
+        loaded.stream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Scheduled(fixedDelayString = "${app.velocity.eviction-interval-ms:600000}")
+  public void evictIdleUsers() {
+    long cutoff = System.currentTimeMillis() - IDLE_MILLIS;
+    for (Map.Entry<Long, UserWindows> user : users.entrySet()) {
+      UserWindows windows = user.getValue();
+      synchronized (windows) {
+        if (windows.lastDebit < cutoff) {
+          windows.evicted = true;
+          users.remove(user.getKey(), windows);
+        }
+      }
+    }
+  }
+
+  private void record(long userId, AccountCurrency currency, long amount, long at) {
+    long now = System.currentTimeMillis();
+    while (true) {
+      UserWindows windows = users.computeIfAbsent(userId, id -> new UserWindows());
+      synchronized (windows) {
+        if (windows.evicted) {
+          continue;
+        }
+        Ring[] rings = windows.rings(currency);
+        for (int w = 0; w < rings.length; w++) {
+          rings[w].advance(now / BUCKET_MILLIS[w]);
+          rings[w].add(at / BUCKET_MILLIS[w], 1, amount);
+        }
+        windows.lastDebit = Math.max(windows.lastDebit, at);
+        return;
+      }
+    }
+  }
+
+  private void cancel(Reservation reservation) {
+    UserWindows windows = users.get(reservation.userId);
+    if (windows == null) {
+      return;
+    }
+    synchronized (windows) {
+      Ring[] rings = windows.rings(reservation.currency);
+      for (int w = 0; w < rings.length; w++) {
+        rings[w].add(reservation.at / BUCKET_MILLIS[w], -1, -reservation.amount);
+      }
+    }
+  }
+
+  private static long[] readLimits(Environment environment, AccountCurrency currency, String kind) {
+    long[] limits = new long[WINDOW_NAMES.length];
+    for (int w = 0; w < limits.length; w++) {
+      String key = WINDOW_NAMES[w] + "-" + kind;
+      Long fallback =
+          environment.getProperty("app.velocity.limits.default." + key, Long.class, Long.MAX_VALUE);
+      limits[w] =
+          environment.getProperty(
+              "app.velocity.limits." + currency.name() + "." + key,
+              Long.class,
+              fallback);
+    }
+    return limits;
+  }
+
+  /** A counted debit that can be handed back if it does not happen. */
+  public static final class Reservation {
+    static final Reservation NONE = new Reservation(null, 0, null, 0, 0);
+
+    private final VelocityLimiter limiter;
+    private final long userId;
+    private final AccountCurrency currency;
+    private final long amount;
+    private final long at;
+
+    private Reservation(
+        VelocityLimiter limiter, long userId, AccountCurrency currency, long amount, long at) {
+      this.limiter = limiter;
+      this.userId = userId;
+      this.currency = currency;
+      this.amount = amount;
+      this.at = at;
+    }
+
+    public void cancel() {
+      if (limiter != null) {
+        limiter.cancel(this);
+      }
+    }
+  }
+
+  private static final class UserWindows {
+    private final Ring[][] rings = new Ring[AccountCurrency.values().length][];
+    private long lastDebit;
+    /** Set under the monitor when the entry leaves the map; such an entry is never used again. */
+    private boolean evicted;
+
+    private Ring[] rings(AccountCurrency currency) {
+      Ring[] currencyRings = rings[currency.ordinal()];
+      if (currencyRings == null) {
+        currencyRings = new Ring[BUCKETS.length];
+        for (int w = 0; w < currencyRings.length; w++) {
+          currencyRings[w] = new Ring(BUCKETS[w]);
+        }
+        rings[currency.ordinal()] = currencyRings;
+      }
+      return currencyRings;
+    }
+  }
+
+  /** Buckets of the window ending at {@code head}; slot {@code b % size} holds bucket {@code b}. */
+  private static final class Ring {
+    private final long[] counts;
+    private final long[] amounts;
+    private long head = Long.MIN_VALUE;
+    private long count;
+    private long amount;
+
+    private Ring(int size) {
+      this.counts = new long[size];
+      this.amounts = new long[size];
+    }
+
+    private void advance(long bucket) {
+      if (bucket <= head) {
+        return;
+      }
+      if (head == Long.MIN_VALUE || bucket - head >= counts.length) {
+        Arrays.fill(counts, 0);
+        Arrays.fill(amounts, 0);
+        count = 0;
+        amount = 0;
+      } else {
+        for (long b = head + 1; b <= bucket; b++) {
+          int slot = (int) (b % counts.length);
+          count -= counts[slot];
+          amount -= amounts[slot];
+          counts[slot] = 0;
+          amounts[slot] = 0;
+        }
+      }
+      head = bucket;
+    }
+
+    /** Adds to {@code bucket} if it is still inside the window. */
+    private void add(long bucket, long countDelta, long amountDelta) {
+      if (bucket > head || bucket <= head - counts.length) {
+        return;
+      }
+      int slot = (int) (bucket % counts.length);
+      counts[slot] += countDelta;
+      amounts[slot] += amountDelta;
+      count += countDelta;
+      amount += amountDelta;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.skypro.simplebanking.benchmark;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.AccountNotFoundException;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of rejecting a withdrawal or an unknown account, thrown {@code depth} frames below the
+ * handler to stand in for the controller, security and transaction proxies. The {@code legacy}
+ * variants reproduce the previous exceptions that captured a stack trace and built their message
+ * eagerly. Run {@link #main} from the test classpath, ideally with {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionPathBenchmark {
+    @Param({"30", "120"})
+    private int depth;
+
+    private long amount = 2000L;
+    private AccountCurrency currency = AccountCurrency.USD;
+
+    @Benchmark
+    public String insufficientFundsLegacy() {
+        return reject(() -> new LegacyRejection("Cannot withdraw " + amount + " " + currency.name()));
+    }
+
+    @Benchmark
+    public String insufficientFunds() {
+        return reject(() -> new InsufficientFundsException(amount, currency));
+    }
+
+    @Benchmark
+    public String accountNotFoundLegacy() {
+        return reject(() -> new LegacyRejection(null));
+    }
+
+    @Benchmark
+    public String accountNotFound() {
+        return reject(() -> AccountNotFoundException.INSTANCE);
+    }
+
+    private String reject(Supplier<RuntimeException> rejection) {
+        try {
+            descend(depth, rejection);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static int descend(int remaining, Supplier<RuntimeException> rejection) {
+        if (remaining == 0) {
+            throw rejection.get();
+        }
+        return descend(remaining - 1, rejection) + 1;
+    }
+
+    private static class LegacyRejection extends RuntimeException {
+        LegacyRejection(String message) {
+            super(message);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RejectionPathBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
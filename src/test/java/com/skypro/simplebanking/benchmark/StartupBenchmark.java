@@ -0,0 +1,118 @@
+package com.skypro.simplebanking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures time from process start to the first successful {@code GET /account/{id}} and appends
+ * the median to a CSV keyed by commit, so the number can be tracked across commits. Needs a
+ * database with the configured user and account. Settings are system properties:
+ * {@code startup.command}, {@code startup.url}, {@code startup.user}, {@code startup.password},
+ * {@code startup.runs}, {@code startup.output}.
+ */
+public class StartupBenchmark {
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        String command = System.getProperty("startup.command", "scripts/fast-start.sh");
+        String url = System.getProperty("startup.url", "http://localhost:8080/account/1");
+        String user = System.getProperty("startup.user", "user1");
+        String password = System.getProperty("startup.password", "user1");
+        String adminToken = System.getProperty("startup.admin-token", "SUPER_SECRET_KEY_FROM_ADMIN");
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path output = Path.of(System.getProperty("startup.output", "target/startup-history.csv"));
+
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        URI accountUri = URI.create(url);
+        URI startupUri = accountUri.resolve("/admin/startup");
+
+        List<Long> wallMillis = new ArrayList<>();
+        List<Long> serverMillis = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            long started = System.nanoTime();
+            Process process = new ProcessBuilder(command.split(" "))
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File("target/startup-run-" + run + ".log"))
+                    .start();
+            try {
+                waitForSuccess(accountUri, authorization, process);
+                wallMillis.add((System.nanoTime() - started) / 1_000_000);
+                HttpResponse<String> timings = client.send(HttpRequest.newBuilder(startupUri)
+                                .header("X-SECURITY-ADMIN-KEY", adminToken)
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                JsonNode json = new ObjectMapper().readTree(timings.body());
+                serverMillis.add(json.get("firstAccountRequestMillis").asLong());
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+            System.out.printf("run %d: wall=%d ms, server=%d ms%n",
+                    run, wallMillis.get(run), serverMillis.get(run));
+        }
+
+        long wallMedian = median(wallMillis);
+        long serverMedian = median(serverMillis);
+        System.out.printf("median time to first /account: wall=%d ms, server=%d ms%n",
+                wallMedian, serverMedian);
+        if (!Files.exists(output)) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            Files.writeString(output, "commit,timestamp,runs,wall_ms,server_ms\n");
+        }
+        Files.writeString(output,
+                String.format("%s,%s,%d,%d,%d%n", commit(), Instant.now(), runs, wallMedian, serverMedian),
+                StandardOpenOption.APPEND);
+    }
+
+    private static void waitForSuccess(URI uri, String authorization, Process process) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", authorization).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No successful response from " + uri);
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static String commit() throws Exception {
+        Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+        String commit = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        git.waitFor();
+        return commit.isEmpty() ? "unknown" : commit;
+    }
+}
@@ -0,0 +1,271 @@
+package com.skypro.simplebanking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.skypro.simplebanking.configuration.TrafficLog;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a traffic capture ({@code app.capture.enabled}) against a running instance and reports
+ * latency per endpoint. Every captured user is seeded as {@code replay-<id>}, with each account
+ * funded by {@code replay.seed-amount}; captured account ids map to the seeded accounts in order
+ * of first appearance, so a log always replays as the same requests. Requests are sent open-loop
+ * at their captured offsets divided by {@code replay.speed}. The report is a CSV; with {@code
+ * replay.baseline} pointing at the report of another build, the differences are printed too.
+ * Settings are system properties: {@code replay.log}, {@code replay.url}, {@code replay.speed},
+ * {@code replay.admin-token}, {@code replay.seed-amount}, {@code replay.output},
+ * {@code replay.baseline}.
+ */
+public class TrafficReplay {
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String ADMIN_HEADER = "X-SECURITY-ADMIN-KEY";
+
+    private final URI baseUri;
+    private final String adminToken;
+    private final Map<Long, Long> localUserIds = new HashMap<>();
+    private final Map<Long, List<Long>> localAccounts = new HashMap<>();
+    private final Map<Long, Map<Long, Long>> accountMapping = new HashMap<>();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private int createdUsers;
+
+    private TrafficReplay(URI baseUri, String adminToken) {
+        this.baseUri = baseUri;
+        this.adminToken = adminToken;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path log = Path.of(System.getProperty("replay.log", "target/traffic.sbtc"));
+        URI url = URI.create(System.getProperty("replay.url", "http://localhost:8080"));
+        double speed = Double.parseDouble(System.getProperty("replay.speed", "1"));
+        String adminToken = System.getProperty("replay.admin-token", "SUPER_SECRET_KEY_FROM_ADMIN");
+        long seedAmount = Long.getLong("replay.seed-amount", 1_000_000_000L);
+        Path output = Path.of(System.getProperty("replay.output", "target/replay-report.csv"));
+        String baseline = System.getProperty("replay.baseline");
+
+        List<TrafficLog.CapturedRequest> requests = TrafficLog.read(log);
+        TrafficReplay replay = new TrafficReplay(url, adminToken);
+        replay.seed(requests, seedAmount);
+        System.out.printf("replaying %d requests at %.2fx%n", requests.size(), speed);
+
+        Map<String, Endpoint> endpoints = new TreeMap<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        for (TrafficLog.CapturedRequest captured : requests) {
+            Endpoint endpoint = endpoints.computeIfAbsent(
+                    captured.getMethod() + " " + captured.getPattern(), name -> new Endpoint());
+            endpoint.captured.add(captured.getLatencyMicros() * 1000);
+            HttpRequest request = replay.rewrite(captured);
+            long due = start + (long) (captured.getArrivalMicros() * 1000 / speed);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long sent = System.nanoTime();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        endpoint.record(System.nanoTime() - sent,
+                                error == null && response.statusCode() < 400);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).join();
+
+        StringBuilder report = new StringBuilder("endpoint,count,errors,mean_ms,p50_ms,p99_ms,captured_p50_ms\n");
+        endpoints.forEach((name, endpoint) -> report.append(endpoint.toCsv(name)));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, report);
+        System.out.print(report);
+        if (baseline != null) {
+            printDifferences(Files.readAllLines(Path.of(baseline)), endpoints);
+        }
+    }
+
+    /** Creates and funds a user for every captured user, before the clock starts. */
+    private void seed(List<TrafficLog.CapturedRequest> requests, long seedAmount) throws Exception {
+        Set<Long> users = new LinkedHashSet<>();
+        for (TrafficLog.CapturedRequest request : requests) {
+            if (request.getUserId() > 0) {
+                users.add(request.getUserId());
+            }
+            JsonNode body = body(request);
+            if (body != null && body.hasNonNull("toUserId")) {
+                users.add(body.get("toUserId").asLong());
+            }
+        }
+        for (long user : users) {
+            String name = "replay-" + user;
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(baseUri.resolve("/user/"))
+                            .header(ADMIN_HEADER, adminToken)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"username\":\"" + name + "\",\"password\":\"" + name + "\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode profile = created.statusCode() == 200
+                    ? mapper.readTree(created.body())
+                    : mapper.readTree(client.send(HttpRequest.newBuilder(baseUri.resolve("/user/me"))
+                                    .header("Authorization", basic(name))
+                                    .build(),
+                            HttpResponse.BodyHandlers.ofString()).body());
+            localUserIds.put(user, profile.get("id").asLong());
+            List<Long> accounts = new ArrayList<>();
+            profile.get("accounts").forEach(account -> accounts.add(account.get("id").asLong()));
+            Collections.sort(accounts);
+            localAccounts.put(user, accounts);
+            for (long account : accounts) {
+                client.send(HttpRequest.newBuilder(baseUri.resolve("/account/deposit/" + account))
+                                .header("Authorization", basic(name))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":" + seedAmount + "}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+            }
+        }
+        System.out.printf("seeded %d users%n", users.size());
+    }
+
+    private HttpRequest rewrite(TrafficLog.CapturedRequest captured) throws Exception {
+        long user = captured.getUserId();
+        String[] pattern = captured.getPattern().split("/");
+        String[] path = captured.getPath().split("/", -1);
+        if (captured.getPattern().startsWith("/account") && pattern.length == path.length) {
+            for (int i = 0; i < pattern.length; i++) {
+                if (pattern[i].equals("{id}")) {
+                    path[i] = Long.toString(account(user, Long.parseLong(path[i])));
+                }
+            }
+        }
+        byte[] body = captured.getBody();
+        JsonNode json = body(captured);
+        if (json instanceof ObjectNode) {
+            ObjectNode object = (ObjectNode) json;
+            long toUser = object.path("toUserId").asLong();
+            if (object.has("fromAccountId")) {
+                object.put("fromAccountId", account(user, object.get("fromAccountId").asLong()));
+            }
+            if (object.has("toAccountId")) {
+                object.put("toAccountId", account(toUser, object.get("toAccountId").asLong()));
+            }
+            if (object.has("toUserId")) {
+                object.put("toUserId", localUserIds.getOrDefault(toUser, toUser));
+            }
+            body = mapper.writeValueAsBytes(object);
+        } else if (captured.getMethod().equals("POST") && captured.getPattern().startsWith("/user")) {
+            String name = "replay-new-" + runId + "-" + createdUsers++;
+            body = ("{\"username\":\"" + name + "\",\"password\":\"" + name + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(String.join("/", path)))
+                .method(captured.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (body.length > 0) {
+            request.header("Content-Type", "application/json");
+        }
+        if (user < 0) {
+            request.header(ADMIN_HEADER, adminToken);
+        } else if (user > 0) {
+            request.header("Authorization", basic("replay-" + user));
+        }
+        return request.build();
+    }
+
+    /** The seeded account standing in for a captured one, assigned in order of first use. */
+    private long account(long user, long capturedAccount) {
+        List<Long> accounts = localAccounts.get(user);
+        if (accounts == null || accounts.isEmpty()) {
+            return capturedAccount;
+        }
+        Map<Long, Long> mapping = accountMapping.computeIfAbsent(user, key -> new HashMap<>());
+        return mapping.computeIfAbsent(capturedAccount, key -> accounts.get(mapping.size() % accounts.size()));
+    }
+
+    private static JsonNode body(TrafficLog.CapturedRequest request) throws Exception {
+        byte[] body = request.getBody();
+        return body.length == 0 || body[0] != '{' ? null : mapper.readTree(body);
+    }
+
+    private static String basic(String name) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((name + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void printDifferences(List<String> baseline, Map<String, Endpoint> endpoints) {
+        Map<String, String[]> previous = new LinkedHashMap<>();
+        baseline.stream().skip(1).map(line -> line.split(",")).forEach(row -> previous.put(row[0], row));
+        System.out.println("endpoint: p50 baseline -> now, p99 baseline -> now");
+        endpoints.forEach((name, endpoint) -> {
+            String[] row = previous.get(name);
+            if (row == null) {
+                System.out.printf("%s: not in baseline%n", name);
+                return;
+            }
+            double p50 = Double.parseDouble(row[4]);
+            double p99 = Double.parseDouble(row[5]);
+            double nowP50 = millis(endpoint.percentile(endpoint.replayed, 0.5));
+            double nowP99 = millis(endpoint.percentile(endpoint.replayed, 0.99));
+            System.out.printf(Locale.ROOT, "%s: p50 %.2f -> %.2f ms (%+.1f%%), p99 %.2f -> %.2f ms (%+.1f%%)%n",
+                    name, p50, nowP50, change(p50, nowP50), p99, nowP99, change(p99, nowP99));
+        });
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Endpoint {
+        private final List<Long> replayed = new ArrayList<>();
+        private final List<Long> captured = new ArrayList<>();
+        private int errors;
+
+        private synchronized void record(long nanos, boolean ok) {
+            replayed.add(nanos);
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        private synchronized long percentile(List<Long> values, double quantile) {
+            if (values.isEmpty()) {
+                return 0;
+            }
+            List<Long> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * quantile)));
+        }
+
+        private synchronized String toCsv(String name) {
+            double mean = replayed.stream().mapToLong(Long::longValue).average().orElse(0);
+            return String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.2f,%.2f,%.2f%n",
+                    name, replayed.size(), errors, millis((long) mean),
+                    millis(percentile(replayed, 0.5)), millis(percentile(replayed, 0.99)),
+                    millis(percentile(captured, 0.5)));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.skypro.simplebanking.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skypro.simplebanking.configuration.BankingBinaryHttpMessageConverter;
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON and the binary wire format for the hottest payloads.
+ * Run {@link #main} from the test classpath; it prints payload sizes before the timings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    private AccountDTO account;
+    private byte[] transferJson;
+    private byte[] transferBinary;
+
+    @Setup
+    public void setUp() throws IOException {
+        account = new AccountDTO(123_456_789L, 987_654_321L, AccountCurrency.EUR);
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setFromAccountId(123_456_789L);
+        transferRequest.setToUserId(42_424_242L);
+        transferRequest.setToAccountId(123_456_790L);
+        transferRequest.setAmount(50_000L);
+        transferJson = objectMapper.writeValueAsBytes(transferRequest);
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        BankingBinaryHttpMessageConverter.writeTransferRequest(binary, transferRequest);
+        transferBinary = binary.toByteArray();
+    }
+
+    @Benchmark
+    public int writeAccountJson() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, account);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writeAccountBinary() throws IOException {
+        out.reset();
+        BankingBinaryHttpMessageConverter.writeAccount(out, account);
+        return out.size();
+    }
+
+    @Benchmark
+    public TransferRequest readTransferJson() throws IOException {
+        return objectMapper.readValue(transferJson, TransferRequest.class);
+    }
+
+    @Benchmark
+    public TransferRequest readTransferBinary() throws IOException {
+        return BankingBinaryHttpMessageConverter.readTransferRequest(
+                new ByteArrayInputStream(transferBinary), null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        WireFormatBenchmark sizes = new WireFormatBenchmark();
+        sizes.setUp();
+        System.out.printf("AccountDTO payload: json=%d bytes, binary=%d bytes%n",
+                sizes.writeAccountJson(), sizes.writeAccountBinary());
+        System.out.printf("TransferRequest payload: json=%d bytes, binary=%d bytes%n",
+                sizes.transferJson.length, sizes.transferBinary.length);
+        Options options = new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
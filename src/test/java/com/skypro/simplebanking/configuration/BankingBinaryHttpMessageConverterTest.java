@@ -0,0 +1,65 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.BalanceChangeRequest;
+import com.skypro.simplebanking.dto.TransferRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BankingBinaryHttpMessageConverterTest {
+    private final BankingBinaryHttpMessageConverter converter = new BankingBinaryHttpMessageConverter();
+
+    @Test
+    void exactRecord_IsRead() throws Exception {
+        TransferRequest request = (TransferRequest) converter.read(
+                TransferRequest.class, message(transfer()));
+
+        assertThat(request.getFromAccountId()).isEqualTo(1);
+        assertThat(request.getToUserId()).isEqualTo(2);
+        assertThat(request.getToAccountId()).isEqualTo(3);
+        assertThat(request.getAmount()).isEqualTo(400);
+    }
+
+    @Test
+    void trailingBytes_AreRejected() throws Exception {
+        byte[] payload = Arrays.copyOf(transfer(), BankingBinaryHttpMessageConverter.TRANSFER_REQUEST_SIZE + 1);
+
+        assertThatThrownBy(() -> converter.read(TransferRequest.class, message(payload)))
+                .isInstanceOf(HttpMessageNotReadableException.class)
+                .hasMessageContaining("longer than");
+    }
+
+    @Test
+    void recordOfAnotherType_IsRejected() throws Exception {
+        assertThatThrownBy(() -> converter.read(BalanceChangeRequest.class, message(transfer())))
+                .isInstanceOf(HttpMessageNotReadableException.class)
+                .hasMessageContaining("longer than");
+        byte[] deposit = Arrays.copyOf(transfer(), BankingBinaryHttpMessageConverter.BALANCE_CHANGE_REQUEST_SIZE);
+        assertThatThrownBy(() -> converter.read(TransferRequest.class, message(deposit)))
+                .isInstanceOf(HttpMessageNotReadableException.class)
+                .hasMessageContaining("Truncated");
+    }
+
+    private static byte[] transfer() throws Exception {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(1L);
+        request.setToUserId(2L);
+        request.setToAccountId(3L);
+        request.setAmount(400L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BankingBinaryHttpMessageConverter.writeTransferRequest(out, request);
+        return out.toByteArray();
+    }
+
+    private static MockHttpInputMessage message(byte[] payload) {
+        MockHttpInputMessage message = new MockHttpInputMessage(payload);
+        message.getHeaders().setContentType(BankingBinaryHttpMessageConverter.MEDIA_TYPE);
+        return message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.skypro.simplebanking.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkheadFilterTest {
+    private static final Duration WAIT = Duration.ofSeconds(1);
+
+    @Test
+    void bulkheadsBelowContainerThreads_AreAccepted() {
+        assertThatCode(() -> new BulkheadFilter(60, 40, WAIT, 40, 20, WAIT, 200))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void bulkheadsFillingContainerThreads_AreRejected() {
+        assertThatThrownBy(() -> new BulkheadFilter(100, 100, WAIT, 50, 50, WAIT, 200))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("300");
+    }
+}
@@ -0,0 +1,97 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.service.UserService;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class BulkheadTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.bulkhead.pool-partitions", () -> true);
+        registry.add("app.bulkhead.write.max-concurrent", () -> 1);
+        registry.add("app.bulkhead.write.max-queued", () -> 0);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private BulkheadFilter bulkheadFilter;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void addUser() {
+        userService.createUser("user1", "user1");
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void saturatedWritesAreRejectedWhileReadsProceed() throws Exception {
+        Bulkhead write = bulkheadFilter.getBulkhead(BulkheadFilter.TrafficClass.WRITE);
+        write.tryEnter();
+        try {
+            JSONObject deposit = new JSONObject();
+            deposit.put("amount", 100L);
+            mockMvc.perform(post("/account/deposit/1")
+                            .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(deposit.toString()))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+            mockMvc.perform(get("/user/me")
+                            .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/admin/bulkheads")
+                            .header("X-SECURITY-ADMIN-KEY", "SUPER_SECRET_KEY_FROM_ADMIN"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].name").value("read"))
+                    .andExpect(jsonPath("$[0].poolSize").value(10))
+                    .andExpect(jsonPath("$[1].name").value("write"))
+                    .andExpect(jsonPath("$[1].active").value(1))
+                    .andExpect(jsonPath("$[1].rejected").value(1));
+        } finally {
+            write.exit();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.User;
+import com.skypro.simplebanking.repository.AccountRepository;
+import com.skypro.simplebanking.repository.UserRepository;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ReplicaRoutingTest {
+    @Container
+    private static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+    @Container
+    private static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("app.datasource.replica.urls", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.lag-check-interval", () -> "100ms");
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    MockMvc mockMvc;
+
+    private static JdbcTemplate replicaJdbc;
+    private Account account;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        replicaJdbc = new JdbcTemplate(new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+        replicaJdbc.execute("CREATE TABLE users (id bigint PRIMARY KEY, username varchar(255), password varchar(255))");
+        replicaJdbc.execute("CREATE TABLE accounts (id bigint PRIMARY KEY, account_currency integer, amount bigint, user_id bigint NOT NULL,"
+                + " version bigint NOT NULL DEFAULT 0, held bigint NOT NULL DEFAULT 0)");
+    }
+
+    @BeforeEach
+    void addUserToBothDatabases() throws InterruptedException {
+        User user = new User();
+        user.setUsername("user1");
+        user.setPassword(passwordEncoder.encode("user1"));
+        userRepository.save(user);
+        account = new Account();
+        account.setUser(user);
+        account.setAccountCurrency(AccountCurrency.USD);
+        account.setAmount(1500L);
+        accountRepository.save(account);
+
+        replicaJdbc.update("INSERT INTO users VALUES (?, ?, ?)", user.getId(), user.getUsername(), user.getPassword());
+        replicaJdbc.update("INSERT INTO accounts VALUES (?, ?, ?, ?)",
+                account.getId(), AccountCurrency.USD.ordinal(), 999L, user.getId());
+        Thread.sleep(300);
+    }
+
+    @AfterEach
+    void cleanData() {
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+        replicaJdbc.update("DELETE FROM accounts");
+        replicaJdbc.update("DELETE FROM users");
+    }
+
+    @Test
+    void readOnlyRequest_IsServedByReplica() throws Exception {
+        mockMvc.perform(get("/account/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(999L));
+    }
+
+    @Test
+    void readAfterOwnWrite_IsServedByPrimary() throws Exception {
+        JSONObject deposit = new JSONObject();
+        deposit.put("amount", 500L);
+
+        mockMvc.perform(post("/account/deposit/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deposit.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(2000L));
+
+        mockMvc.perform(get("/account/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(2000L));
+    }
+}
@@ -0,0 +1,172 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.TransferStatus;
+import com.skypro.simplebanking.repository.TransferRepository;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.ShardRouter;
+import com.skypro.simplebanking.service.UserService;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ShardingTest {
+    @Container
+    private static final PostgreSQLContainer<?> firstShard = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+    @Container
+    private static final PostgreSQLContainer<?> secondShard = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", firstShard::getJdbcUrl);
+        registry.add("spring.datasource.username", firstShard::getUsername);
+        registry.add("spring.datasource.password", firstShard::getPassword);
+        registry.add("app.sharding.urls", secondShard::getJdbcUrl);
+    }
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransferRepository transferRepository;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    MockMvc mockMvc;
+
+    private UserDTO firstShardUser;
+    private UserDTO secondShardUser;
+
+    @BeforeEach
+    void createUserOnEachShard() {
+        firstShardUser = userService.createUser(usernameOnShard(0), "password");
+        secondShardUser = userService.createUser(usernameOnShard(1), "password");
+        accountService.depositToAccount(firstShardUser.getId(), usdAccount(firstShardUser).getId(), 999L);
+    }
+
+    @AfterEach
+    void cleanData() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            shardRouter.onShard(shard, () -> {
+                jdbcTemplate.update("DELETE FROM transfer_receipts");
+                jdbcTemplate.update("DELETE FROM transfers");
+                jdbcTemplate.update("DELETE FROM balance_movements");
+                jdbcTemplate.update("DELETE FROM accounts");
+                jdbcTemplate.update("DELETE FROM users");
+            });
+        }
+    }
+
+    @Test
+    void usersAreStoredOnTheirOwnShard() {
+        assertThat(shardRouter.shardForId(firstShardUser.getId())).isEqualTo(0);
+        assertThat(shardRouter.shardForId(secondShardUser.getId())).isEqualTo(1);
+        assertThat(shardRouter.shardForId(usdAccount(secondShardUser).getId())).isEqualTo(1);
+        long usersOnSecondShard = shardRouter.onShard(1,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        assertThat(usersOnSecondShard).isEqualTo(1L);
+    }
+
+    @Test
+    void authenticationAndListing_WorkAcrossShards() throws Exception {
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(secondShardUser.getUsername(), "password")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(secondShardUser.getId()));
+
+        assertThat(userService.listUsers()).hasSize(2);
+    }
+
+    @Test
+    void crossShardTransfer_MovesMoneyAndCompletes() throws Exception {
+        AccountDTO source = usdAccount(firstShardUser);
+        AccountDTO destination = usdAccount(secondShardUser);
+        JSONObject transfer = new JSONObject();
+        transfer.put("fromAccountId", source.getId());
+        transfer.put("toUserId", secondShardUser.getId());
+        transfer.put("toAccountId", destination.getId());
+        transfer.put("amount", 500L);
+
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(firstShardUser.getUsername(), "password"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transfer.toString()))
+                .andExpect(status().isOk());
+
+        assertThat(accountService.getAccount(firstShardUser.getId(), source.getId()).getAmount()).isEqualTo(500L);
+        assertThat(accountService.getAccount(secondShardUser.getId(), destination.getId()).getAmount()).isEqualTo(501L);
+        assertThat(shardRouter.onShard(0, () -> transferRepository.findAll()))
+                .singleElement()
+                .extracting("status")
+                .isEqualTo(TransferStatus.COMPLETED);
+    }
+
+    @Test
+    void idsOutsideEveryShard_AreNotFound() throws Exception {
+        String authorization = getAuthenticationHeader(firstShardUser.getUsername(), "password");
+        mockMvc.perform(get("/account/{id}", ShardRouter.firstId(7) + 1)
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isNotFound());
+
+        JSONObject transfer = new JSONObject();
+        transfer.put("fromAccountId", usdAccount(firstShardUser).getId());
+        transfer.put("toUserId", -1L);
+        transfer.put("toAccountId", usdAccount(secondShardUser).getId());
+        transfer.put("amount", 1L);
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transfer.toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    private String usernameOnShard(int shard) {
+        for (int i = 0; ; i++) {
+            String username = "user" + i;
+            if (shardRouter.shardForUsername(username) == shard) {
+                return username;
+            }
+        }
+    }
+
+    private static AccountDTO usdAccount(UserDTO user) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == AccountCurrency.USD)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,50 @@
+package com.skypro.simplebanking.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingDataSourceTest {
+    private final DataSource dataSource = new TimingDataSource(stub(DataSource.class));
+
+    @AfterEach
+    void stopTimings() {
+        RequestTimings.stop();
+    }
+
+    @Test
+    void statementsAreTimed() throws Exception {
+        RequestTimings timings = RequestTimings.start();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("SELECT 1").executeQuery();
+            connection.createStatement().execute("SELECT 2");
+            connection.commit();
+        }
+
+        assertThat(timings.toLogFields())
+                .contains("sqlCount=2", "commitCount=1", "SELECT 1", "SELECT 2");
+    }
+
+    /** Every JDBC object the stub hands out is another stub; other calls return null. */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(
+                TimingDataSourceTest.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    Class<?> returned = method.getReturnType();
+                    if (returned == Connection.class || returned == Statement.class
+                            || returned == PreparedStatement.class) {
+                        return stub(returned);
+                    }
+                    return returned == boolean.class ? false : null;
+                });
+    }
+}
@@ -0,0 +1,121 @@
+package com.skypro.simplebanking.configuration;
+
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.service.UserService;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class TrafficCaptureTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    private static final Path captureDirectory = createCaptureDirectory();
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.capture.enabled", () -> true);
+        registry.add("app.capture.directory", captureDirectory::toString);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private TrafficCaptureFilter trafficCaptureFilter;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Path createCaptureDirectory() {
+        try {
+            return Files.createTempDirectory("capture");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void capturesRequestsWithUserAndBody() throws Exception {
+        UserDTO user = userService.createUser("user1", "user1");
+        long accountId = user.getAccounts().get(0).getId();
+
+        JSONObject deposit = new JSONObject();
+        deposit.put("amount", 100L);
+        mockMvc.perform(post("/account/deposit/{id}", accountId)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deposit.toString()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/admin/startup")
+                        .header("X-SECURITY-ADMIN-KEY", "SUPER_SECRET_KEY_FROM_ADMIN"))
+                .andExpect(status().isOk());
+        trafficCaptureFilter.destroy();
+
+        List<Path> logs;
+        try (Stream<Path> files = Files.list(captureDirectory)) {
+            logs = files.collect(Collectors.toList());
+        }
+        assertThat(logs).hasSize(1);
+        List<TrafficLog.CapturedRequest> requests = TrafficLog.read(logs.get(0));
+        assertThat(requests).hasSize(2);
+
+        TrafficLog.CapturedRequest depositRequest = requests.get(0);
+        assertThat(depositRequest.getMethod()).isEqualTo("POST");
+        assertThat(depositRequest.getPattern()).isEqualTo("/account/deposit/{id}");
+        assertThat(depositRequest.getPath()).isEqualTo("/account/deposit/" + accountId);
+        assertThat(depositRequest.getUserId()).isEqualTo(user.getId());
+        assertThat(new String(depositRequest.getBody(), StandardCharsets.UTF_8)).isEqualTo(deposit.toString());
+        assertThat(depositRequest.getStatus()).isEqualTo(200);
+
+        TrafficLog.CapturedRequest profileRequest = requests.get(1);
+        assertThat(profileRequest.getPattern()).isEqualTo("/user/me");
+        assertThat(profileRequest.getBody()).isEmpty();
+        assertThat(profileRequest.getArrivalMicros()).isGreaterThanOrEqualTo(depositRequest.getArrivalMicros());
+    }
+}
@@ -0,0 +1,29 @@
+package com.skypro.simplebanking.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrafficCaptureWriterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void closeWritesEverythingQueued() throws Exception {
+        Path file = directory.resolve("capture.bin");
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(file, 100_000, 0);
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(writer.offer(new TrafficLog.CapturedRequest(
+                    i, 1, "POST", "/account/deposit/{id}", "/account/deposit/" + i,
+                    "{\"amount\":1}".getBytes(StandardCharsets.UTF_8), 200, 10)));
+        }
+        writer.close();
+
+        assertEquals(50_000, TrafficLog.read(file).size());
+    }
+}
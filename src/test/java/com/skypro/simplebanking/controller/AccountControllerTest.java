@@ -1,19 +1,23 @@
 package com.skypro.simplebanking.controller;
 
+import com.skypro.simplebanking.configuration.BankingBinaryHttpMessageConverter;
 import com.skypro.simplebanking.entity.Account;
 import com.skypro.simplebanking.entity.AccountCurrency;
 import com.skypro.simplebanking.entity.User;
 import com.skypro.simplebanking.repository.AccountRepository;
 import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.BalanceSnapshotService;
 import com.skypro.simplebanking.service.UserService;
 import net.minidev.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -24,13 +28,23 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
 import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -61,6 +75,8 @@ public class AccountControllerTest {
     private UserService userService;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
 
     @AfterEach
     public void cleanData() {
@@ -217,4 +233,197 @@ public class AccountControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void depositToAccountTest_BinaryFormat() throws Exception {
+
+        Account account = getAnyAccount();
+        User user = account.getUser();
+
+        byte[] response = mockMvc.perform(post("/account/deposit/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(user.getUsername(), "user1"))
+                        .content(ByteBuffer.allocate(8).putLong(500L).array())
+                        .contentType(BankingBinaryHttpMessageConverter.MEDIA_TYPE)
+                        .accept(BankingBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BankingBinaryHttpMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ByteBuffer buffer = ByteBuffer.wrap(response);
+        assertEquals(BankingBinaryHttpMessageConverter.ACCOUNT_SIZE, response.length);
+        assertEquals(account.getId(), buffer.getLong());
+        assertEquals(2000L, buffer.getLong());
+        assertEquals(account.getAccountCurrency().ordinal(), buffer.get());
+    }
+
+    @Test
+    void streamAccountEvents_StartsWithSnapshot() throws Exception {
+
+        Account account = getAnyAccount();
+        User user = account.getUser();
+
+        String stream = mockMvc.perform(get("/account/{id}/events", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(user.getUsername(), "user1")))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(stream.contains("event:snapshot"));
+        assertTrue(stream.contains("\"amount\":1500"));
+    }
+
+    @Test
+    void streamAccountEvents_ResumesFromLastEventId() throws Exception {
+
+        Account account = getAnyAccount();
+        User user = account.getUser();
+
+        mockMvc.perform(post("/account/deposit/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(user.getUsername(), "user1"))
+                        .content(getBalanceChangeRequest(500L).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        String stream = mockMvc.perform(get("/account/{id}/events", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(user.getUsername(), "user1"))
+                        .header("Last-Event-ID", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(stream.contains("event:balance"));
+        assertTrue(stream.contains("\"balance\":2000"));
+        assertTrue(stream.contains("\"type\":\"DEPOSIT\""));
+    }
+
+    @Test
+    void streamAccountEvents_OfAnotherUser() throws Exception {
+
+        Account account = getAnyAccount();
+        String otherUser = account.getUser().getUsername().equals("user1") ? "user2" : "user1";
+
+        mockMvc.perform(get("/account/{id}/events", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(otherUser, otherUser)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUserAccount_NotModified() throws Exception {
+
+        Account account = getAnyAccount();
+        User user = account.getUser();
+
+        String etag = mockMvc.perform(get("/account/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/account/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/account/deposit/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1"))
+                        .content(getBalanceChangeRequest(500L).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        String changedEtag = mockMvc.perform(get("/account/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(2000L))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changedEtag);
+    }
+
+    @Test
+    void depositToAccount_ServerTimingWhenEnabled(@Value("${app.security.admin-token}") String token) throws Exception {
+
+        Account account = getAnyAccount();
+        User user = account.getUser();
+
+        mockMvc.perform(put("/admin/request-timing")
+                        .header("X-SECURITY-ADMIN-KEY", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"serverTiming\": true, \"slowThresholdMillis\": 500}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serverTiming").value(true));
+        try {
+            String serverTiming = mockMvc.perform(post("/account/deposit/{id}", account.getId())
+                            .header(HttpHeaders.AUTHORIZATION,
+                                    getAuthenticationHeader(user.getUsername(), "user1"))
+                            .content(getBalanceChangeRequest(500L).toString())
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("Server-Timing");
+
+            assertTrue(serverTiming.contains("auth;dur="));
+            assertTrue(serverTiming.contains("sql;dur="));
+            assertTrue(serverTiming.contains("tx;dur="));
+            assertTrue(serverTiming.contains("commit;dur="));
+            assertTrue(serverTiming.contains("total;dur="));
+        } finally {
+            mockMvc.perform(put("/admin/request-timing")
+                    .header("X-SECURITY-ADMIN-KEY", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"serverTiming\": false, \"slowThresholdMillis\": 500}"));
+        }
+
+        mockMvc.perform(get("/account/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
+    @Test
+    void getBalanceAsOf_FromSnapshots() throws Exception {
+
+        Account account = getAnyAccount();
+        User user = account.getUser();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        mockMvc.perform(post("/account/deposit/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1"))
+                        .content(getBalanceChangeRequest(500L).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        new JdbcTemplate(dataSource).update(
+                "UPDATE balance_movements SET created_at = created_at - interval '3 days' WHERE account_id = ?",
+                account.getId());
+        balanceSnapshotService.snapshotThrough(today.minusDays(1));
+
+        mockMvc.perform(post("/account/deposit/{id}", account.getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1"))
+                        .content(getBalanceChangeRequest(100L).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/account/{id}/balance", account.getId())
+                        .param("asOf", today.minusDays(4).toString())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(1500));
+        mockMvc.perform(get("/account/{id}/balance", account.getId())
+                        .param("asOf", today.minusDays(3).toString())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(2000));
+        mockMvc.perform(get("/account/{id}/balance", account.getId())
+                        .param("asOf", today.minusDays(1).toString())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(2000));
+        mockMvc.perform(get("/account/{id}/balance", account.getId())
+                        .param("asOf", today.toString())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader(user.getUsername(), "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(2100));
+    }
 }
@@ -0,0 +1,167 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class AccrualControllerTest {
+    private static final String ACCRUAL = "{\"period\":\"2024-01\","
+            + "\"interestBasisPoints\":{\"USD\":100},"
+            + "\"monthlyFee\":{\"EUR\":100}}";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.accrual.range-size", () -> "1");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${app.security.admin-token}")
+    private String token;
+
+    private long usd;
+    private long eur;
+
+    @BeforeEach
+    void addUser() {
+        UserDTO user = userService.createUser("user1", "user1");
+        usd = account(user, AccountCurrency.USD).getId();
+        eur = account(user, AccountCurrency.EUR).getId();
+        jdbcTemplate.update("UPDATE accounts SET amount = 10000 WHERE id = ?", usd);
+        jdbcTemplate.update("UPDATE accounts SET amount = 10000, held = 9950 WHERE id = ?", eur);
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM accrual_checkpoints");
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM balance_events");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void accrual_AppliesInterestAndStopsFeesAtHeldAmount() throws Exception {
+        runAccrual();
+
+        assertEquals(10100L, amount(usd));
+        assertEquals(9950L, amount(eur));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM balance_movements WHERE account_id IN (?, ?)",
+                Integer.class, usd, eur));
+        assertEquals(10100L, jdbcTemplate.queryForObject(
+                "SELECT balance FROM balance_events WHERE account_id = ? AND amount = 100",
+                Long.class, usd));
+        assertEquals(9950L, jdbcTemplate.queryForObject(
+                "SELECT balance FROM balance_events WHERE account_id = ? AND amount = -50",
+                Long.class, eur));
+    }
+
+    @Test
+    void accrual_SamePeriodTwiceAppliesOnce() throws Exception {
+        runAccrual();
+        runAccrual();
+
+        mockMvc.perform(get("/admin/accrual").header("X-SECURITY-ADMIN-KEY", token))
+                .andExpect(jsonPath("$.completedUnits").value(0));
+        assertEquals(10100L, amount(usd));
+        assertEquals(9950L, amount(eur));
+    }
+
+    @Test
+    void accrual_ResumeSkipsCheckpointedRanges() throws Exception {
+        jdbcTemplate.update("INSERT INTO accrual_checkpoints"
+                        + " (id, period, range_start, range_end, accounts_updated, completed_at)"
+                        + " VALUES (?, '2024-01', ?, ?, 1, now())",
+                "2024-01:" + usd, usd, usd + 1);
+
+        runAccrual();
+
+        mockMvc.perform(get("/admin/accrual").header("X-SECURITY-ADMIN-KEY", token))
+                .andExpect(jsonPath("$.skippedUnits").value(1));
+        assertEquals(10000L, amount(usd));
+        assertEquals(9950L, amount(eur));
+    }
+
+    @Test
+    void accrual_RejectsNegativeRatesAndFees() throws Exception {
+        for (String request : List.of(
+                "{\"period\":\"2024-01\",\"interestBasisPoints\":{\"USD\":-100}}",
+                "{\"period\":\"2024-01\",\"monthlyFee\":{\"EUR\":-100}}")) {
+            mockMvc.perform(post("/admin/accrual")
+                            .header("X-SECURITY-ADMIN-KEY", token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(request))
+                    .andExpect(status().isBadRequest());
+        }
+
+        assertEquals(10000L, amount(usd));
+        assertEquals(10000L, amount(eur));
+    }
+
+    private void runAccrual() throws Exception {
+        mockMvc.perform(post("/admin/accrual")
+                        .header("X-SECURITY-ADMIN-KEY", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ACCRUAL))
+                .andExpect(status().isOk());
+        long deadline = System.currentTimeMillis() + 10000;
+        String status;
+        do {
+            Thread.sleep(100);
+            status = new org.json.JSONObject(mockMvc.perform(get("/admin/accrual")
+                            .header("X-SECURITY-ADMIN-KEY", token))
+                    .andReturn().getResponse().getContentAsString()).getString("status");
+        } while ("RUNNING".equals(status) && System.currentTimeMillis() < deadline);
+        assertEquals("COMPLETED", status);
+    }
+
+    private long amount(long accountId) {
+        return jdbcTemplate.queryForObject("SELECT amount FROM accounts WHERE id = ?", Long.class, accountId);
+    }
+
+    private static AccountDTO account(UserDTO user, AccountCurrency currency) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == currency)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,124 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.service.FlightRecordingService;
+import com.skypro.simplebanking.service.UserService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class FlightRecorderControllerTest {
+    private static final String ADMIN_HEADER = "X-SECURITY-ADMIN-KEY";
+    private static final String ADMIN_KEY = "SUPER_SECRET_KEY_FROM_ADMIN";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanData() {
+        flightRecordingService.close();
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void recordingContainsBankingEvents() throws Exception {
+        UserDTO user = userService.createUser("user1", "user1");
+        long accountId = user.getAccounts().get(0).getId();
+
+        mockMvc.perform(post("/admin/jfr/start").header(ADMIN_HEADER, ADMIN_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(true))
+                .andExpect(jsonPath("$.settings").value("DEFAULT"));
+        mockMvc.perform(post("/admin/jfr/start").header(ADMIN_HEADER, ADMIN_KEY))
+                .andExpect(status().isConflict());
+
+        JSONObject deposit = new JSONObject();
+        deposit.put("amount", 100L);
+        mockMvc.perform(post("/account/deposit/{id}", accountId)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deposit.toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/admin/jfr/stop").header(ADMIN_HEADER, ADMIN_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(false));
+        byte[] recording = mockMvc.perform(get("/admin/jfr/recording").header(ADMIN_HEADER, ADMIN_KEY))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        Path file = Files.createTempFile("recording", ".jfr");
+        try {
+            Files.write(file, recording);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Set<String> names = events.stream()
+                    .map(event -> event.getEventType().getName())
+                    .collect(Collectors.toSet());
+            assertThat(names).contains(
+                    "simplebanking.UserLookup",
+                    "simplebanking.PasswordCheck",
+                    "simplebanking.AccountLock",
+                    "simplebanking.Commit");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void stopWithoutRecordingIsNotFound() throws Exception {
+        mockMvc.perform(post("/admin/jfr/stop").header(ADMIN_HEADER, ADMIN_KEY))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,180 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.UserService;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class HoldControllerTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.holds.tick-ms", () -> "100");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDTO user;
+
+    @BeforeEach
+    void addUsers() {
+        user = userService.createUser("user1", "user1");
+        userService.createUser("user2", "user2");
+        accountService.depositToAccount(user.getId(), usdAccount(user).getId(), 999L);
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM holds");
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    JSONObject getHoldRequest(long amount, String expiresIn) {
+        JSONObject request = new JSONObject();
+        request.put("accountId", usdAccount(user).getId());
+        request.put("amount", amount);
+        request.put("expiresIn", expiresIn);
+        return request;
+    }
+
+    JSONObject getAmountRequest(long amount) {
+        JSONObject request = new JSONObject();
+        request.put("amount", amount);
+        return request;
+    }
+
+    long authorize(long amount, String expiresIn) throws Exception {
+        String response = mockMvc.perform(post("/hold")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getHoldRequest(amount, expiresIn).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andReturn().getResponse().getContentAsString();
+        return new org.json.JSONObject(response).getLong("id");
+    }
+
+    @Test
+    void hold_ReducesAvailableBalanceUntilCaptured() throws Exception {
+        long id = authorize(600L, "PT1H");
+        assertEquals(1000L, balance());
+
+        mockMvc.perform(post("/account/withdraw/{id}", usdAccount(user).getId())
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getAmountRequest(500L).toString()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/hold/{id}/capture", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getAmountRequest(200L).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andExpect(jsonPath("$.captured").value(200))
+                .andExpect(jsonPath("$.accountAvailable").value(400));
+        assertEquals(800L, balance());
+
+        mockMvc.perform(post("/hold/{id}/capture", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getAmountRequest(500L).toString()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/hold/{id}/release", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RELEASED"))
+                .andExpect(jsonPath("$.accountAvailable").value(800));
+
+        mockMvc.perform(post("/hold/{id}/release", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void hold_ExpiresAndReleasesFunds() throws Exception {
+        long id = authorize(1000L, "PT0.3S");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"EXPIRED".equals(holdStatus(id)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        mockMvc.perform(get("/hold/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("EXPIRED"))
+                .andExpect(jsonPath("$.accountAvailable").value(1000));
+    }
+
+    @Test
+    void hold_OfAnotherUser() throws Exception {
+        long id = authorize(100L, "PT1H");
+
+        mockMvc.perform(post("/hold/{id}/release", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user2", "user2")))
+                .andExpect(status().isNotFound());
+    }
+
+    private String holdStatus(long id) throws Exception {
+        String response = mockMvc.perform(get("/hold/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andReturn().getResponse().getContentAsString();
+        return new org.json.JSONObject(response).getString("status");
+    }
+
+    private long balance() {
+        return accountService.getAccount(user.getId(), usdAccount(user).getId()).getAmount();
+    }
+
+    private static AccountDTO usdAccount(UserDTO user) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == AccountCurrency.USD)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,188 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.Account;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.UserService;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class LazyAccountControllerTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.accounts.lazy", () -> true);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${app.security.admin-token}")
+    private String token;
+
+    private UserDTO user1;
+    private UserDTO user2;
+
+    @BeforeEach
+    void addUsers() {
+        user1 = userService.createUser("user1", "user1");
+        user2 = userService.createUser("user2", "user2");
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM accrual_checkpoints");
+        jdbcTemplate.update("DELETE FROM transfers");
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    long accountRows() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    @Test
+    void signupReportsVirtualAccountsWithoutRows() throws Exception {
+        assertEquals(0, accountRows());
+        assertEquals(AccountCurrency.values().length, user1.getAccounts().size());
+
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts.length()").value(AccountCurrency.values().length))
+                .andExpect(jsonPath("$.accounts[0].amount").value(AccountService.INITIAL_AMOUNT));
+
+        long usdAccount = Account.virtualId(user1.getId(), AccountCurrency.USD);
+        mockMvc.perform(get("/account/{id}", usdAccount)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currency").value("USD"))
+                .andExpect(jsonPath("$.amount").value(AccountService.INITIAL_AMOUNT));
+
+        mockMvc.perform(get("/account/{id}", Account.virtualId(user2.getId(), AccountCurrency.USD))
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isNotFound());
+        assertEquals(0, accountRows());
+    }
+
+    @Test
+    void firstDepositAndIncomingTransferCreateTheRow() throws Exception {
+        long fromAccount = Account.virtualId(user1.getId(), AccountCurrency.USD);
+        long toAccount = Account.virtualId(user2.getId(), AccountCurrency.USD);
+
+        JSONObject deposit = new JSONObject();
+        deposit.put("amount", 100L);
+        mockMvc.perform(post("/account/deposit/{id}", fromAccount)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deposit.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(fromAccount))
+                .andExpect(jsonPath("$.amount").value(AccountService.INITIAL_AMOUNT + 100));
+        assertEquals(1, accountRows());
+
+        JSONObject transfer = new JSONObject();
+        transfer.put("fromAccountId", fromAccount);
+        transfer.put("toUserId", user2.getId());
+        transfer.put("toAccountId", toAccount);
+        transfer.put("amount", 50L);
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transfer.toString()))
+                .andExpect(status().isOk());
+        assertEquals(2, accountRows());
+
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user2", "user2")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts.length()").value(AccountCurrency.values().length))
+                .andExpect(jsonPath("$.accounts[?(@.id == %d)].amount", toAccount)
+                        .value((int) AccountService.INITIAL_AMOUNT + 50));
+    }
+
+    @Test
+    void failedFirstWithdrawalLeavesNoRow() throws Exception {
+        JSONObject withdraw = new JSONObject();
+        withdraw.put("amount", 100L);
+        mockMvc.perform(post("/account/withdraw/{id}", Account.virtualId(user1.getId(), AccountCurrency.EUR))
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(withdraw.toString()))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, accountRows());
+    }
+
+    @Test
+    void monthlyFeeChargesOnlyUsedAccounts() throws Exception {
+        long usedAccount = Account.virtualId(user1.getId(), AccountCurrency.USD);
+        JSONObject deposit = new JSONObject();
+        deposit.put("amount", 100L);
+        mockMvc.perform(post("/account/deposit/{id}", usedAccount)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deposit.toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/admin/accrual")
+                        .header("X-SECURITY-ADMIN-KEY", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"period\":\"2024-01\",\"monthlyFee\":{\"USD\":10}}"))
+                .andExpect(status().isOk());
+        long deadline = System.currentTimeMillis() + 10000;
+        String status;
+        do {
+            Thread.sleep(100);
+            status = new org.json.JSONObject(mockMvc.perform(get("/admin/accrual")
+                            .header("X-SECURITY-ADMIN-KEY", token))
+                    .andReturn().getResponse().getContentAsString()).getString("status");
+        } while ("RUNNING".equals(status) && System.currentTimeMillis() < deadline);
+        assertEquals("COMPLETED", status);
+
+        assertEquals(1, accountRows());
+        mockMvc.perform(get("/account/{id}", usedAccount)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(jsonPath("$.amount").value(AccountService.INITIAL_AMOUNT + 100 - 10));
+        mockMvc.perform(get("/account/{id}", Account.virtualId(user2.getId(), AccountCurrency.USD))
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user2", "user2")))
+                .andExpect(jsonPath("$.amount").value(AccountService.INITIAL_AMOUNT));
+    }
+}
@@ -0,0 +1,252 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.PayrollImportService;
+import com.skypro.simplebanking.service.UserService;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class PayrollImportControllerTest {
+    private static final String DIRECTORY =
+            System.getProperty("java.io.tmpdir") + "/payroll-test-" + System.nanoTime();
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.payroll.directory", () -> DIRECTORY);
+        registry.add("app.payroll.chunk-size", () -> "2");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private PayrollImportService payrollImportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${app.security.admin-token}")
+    private String token;
+    @Value("${app.payroll.directory}")
+    private String directory;
+
+    private UserDTO employee1;
+    private UserDTO employee2;
+
+    @BeforeEach
+    void addUsers() {
+        employee1 = userService.createUser("user1", "user1");
+        employee2 = userService.createUser("user2", "user2");
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM payroll_checkpoints");
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void importPayroll_AppliesValidLinesAndReportsEveryLine() throws Exception {
+        long usd1 = account(employee1, AccountCurrency.USD).getId();
+        long usd2 = account(employee2, AccountCurrency.USD).getId();
+        String file = "userId,accountId,currency,amount\n"
+                + employee1.getId() + "," + usd1 + ",USD,1000\n"
+                + employee2.getId() + "," + usd2 + ",USD,2000\n"
+                + employee2.getId() + "," + usd1 + ",USD,3000\n"
+                + employee1.getId() + "," + usd1 + ",EUR,4000\n"
+                + "not,a,payroll,line\n"
+                + employee1.getId() + "," + usd1 + ",USD,0\n"
+                + employee1.getId() + "," + usd1 + ",USD,500\n";
+
+        mockMvc.perform(put("/admin/payroll/{id}", "march")
+                        .header("X-SECURITY-ADMIN-KEY", token)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("march"));
+
+        waitForCompletion("march");
+
+        mockMvc.perform(get("/admin/payroll/{id}", "march")
+                        .header("X-SECURITY-ADMIN-KEY", token))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.completedUnits").value(4))
+                .andExpect(jsonPath("$.processedItems").value(7));
+
+        String result = mockMvc.perform(get("/admin/payroll/{id}/result", "march")
+                        .header("X-SECURITY-ADMIN-KEY", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("line,accountId,status\n"
+                + "2," + usd1 + ",APPLIED\n"
+                + "3," + usd2 + ",APPLIED\n"
+                + "4," + usd1 + ",ACCOUNT_NOT_FOUND\n"
+                + "5," + usd1 + ",WRONG_CURRENCY\n"
+                + "6,,MALFORMED\n"
+                + "7," + usd1 + ",INVALID_AMOUNT\n"
+                + "8," + usd1 + ",APPLIED\n", result);
+
+        assertEquals(1501L, accountService.getAccount(employee1.getId(), usd1).getAmount());
+        assertEquals(2001L, accountService.getAccount(employee2.getId(), usd2).getAmount());
+    }
+
+    @Test
+    void importPayroll_SameIdTwice() throws Exception {
+        long usd1 = account(employee1, AccountCurrency.USD).getId();
+        String file = employee1.getId() + "," + usd1 + ",USD,1000\n";
+
+        mockMvc.perform(put("/admin/payroll/{id}", "april")
+                        .header("X-SECURITY-ADMIN-KEY", token)
+                        .content(file))
+                .andExpect(status().isOk());
+        waitForCompletion("april");
+
+        mockMvc.perform(put("/admin/payroll/{id}", "april")
+                        .header("X-SECURITY-ADMIN-KEY", token)
+                        .content(file))
+                .andExpect(status().isConflict());
+        assertEquals(1001L, accountService.getAccount(employee1.getId(), usd1).getAmount());
+    }
+
+    @Test
+    void importPayroll_ForUser() throws Exception {
+        mockMvc.perform(put("/admin/payroll/{id}", "may")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .content("1,1,USD,1\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void crashedImport_ResumesAfterLastCheckpoint() throws Exception {
+        long usd1 = account(employee1, AccountCurrency.USD).getId();
+        String file = employee1.getId() + "," + usd1 + ",USD,100\n"
+                + employee1.getId() + "," + usd1 + ",USD,200\n"
+                + employee1.getId() + "," + usd1 + ",USD,300\n";
+        jdbcTemplate.update("UPDATE accounts SET amount = 301 WHERE id = ?", usd1);
+        checkpoint("crash:0:0", "crash", 2, sha256(file),
+                "1," + usd1 + ",APPLIED\n2," + usd1 + ",APPLIED\n");
+        Files.createDirectories(Paths.get(directory));
+        Files.writeString(Paths.get(directory, "crash.payroll.csv"), file);
+
+        payrollImportService.resumeImports();
+        waitForCompletion("crash");
+
+        assertEquals(601L, accountService.getAccount(employee1.getId(), usd1).getAmount());
+        assertEquals("line,accountId,status\n"
+                + "1," + usd1 + ",APPLIED\n"
+                + "2," + usd1 + ",APPLIED\n"
+                + "3," + usd1 + ",APPLIED\n",
+                Files.readString(payrollImportService.getResultFile("crash")));
+    }
+
+    @Test
+    void crashedImport_WithAnotherChunkSize_IsNotResumed() throws Exception {
+        long usd1 = account(employee1, AccountCurrency.USD).getId();
+        String file = employee1.getId() + "," + usd1 + ",USD,100\n"
+                + employee1.getId() + "," + usd1 + ",USD,200\n"
+                + employee1.getId() + "," + usd1 + ",USD,300\n";
+        checkpoint("resized:0:0", "resized", 3, sha256(file),
+                "1," + usd1 + ",APPLIED\n2," + usd1 + ",APPLIED\n3," + usd1 + ",APPLIED\n");
+        Files.createDirectories(Paths.get(directory));
+        Files.writeString(Paths.get(directory, "resized.payroll.csv"), file);
+
+        payrollImportService.resumeImports();
+
+        assertEquals("FAILED", waitForStatus("resized"));
+        assertEquals(1L, accountService.getAccount(employee1.getId(), usd1).getAmount());
+    }
+
+    @Test
+    void importPayroll_DifferentFileUnderStartedId() throws Exception {
+        long usd1 = account(employee1, AccountCurrency.USD).getId();
+        checkpoint("june:0:0", "june", 2, sha256("another file"), "1," + usd1 + ",APPLIED\n");
+
+        mockMvc.perform(put("/admin/payroll/{id}", "june")
+                        .header("X-SECURITY-ADMIN-KEY", token)
+                        .content(employee1.getId() + "," + usd1 + ",USD,1000\n"))
+                .andExpect(status().isBadRequest());
+        assertEquals(1L, accountService.getAccount(employee1.getId(), usd1).getAmount());
+    }
+
+    private void checkpoint(String id, String importId, int chunkSize, String fileHash,
+                            String results) {
+        jdbcTemplate.update("INSERT INTO payroll_checkpoints (id, import_id, chunk_index,"
+                        + " lines_applied, lines_rejected, chunk_size, file_hash, results, completed_at)"
+                        + " VALUES (?, ?, 0, ?, 0, ?, ?, ?, ?)",
+                id, importId, results.split("\n").length, chunkSize, fileHash, results,
+                Timestamp.from(Instant.now()));
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void waitForCompletion(String importId) throws Exception {
+        assertEquals("COMPLETED", waitForStatus(importId));
+    }
+
+    private String waitForStatus(String importId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        String status;
+        do {
+            Thread.sleep(100);
+            status = new org.json.JSONObject(mockMvc.perform(get("/admin/payroll/{id}", importId)
+                            .header("X-SECURITY-ADMIN-KEY", token))
+                    .andReturn().getResponse().getContentAsString()).getString("status");
+        } while ("RUNNING".equals(status) && System.currentTimeMillis() < deadline);
+        return status;
+    }
+
+    private static AccountDTO account(UserDTO user, AccountCurrency currency) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == currency)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.entity.MovementType;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.OpeningBalanceBackfill;
+import com.skypro.simplebanking.service.UserService;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ReconciliationControllerTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.reconciliation.range-size", () -> "2");
+        registry.add("app.reconciliation.max-reported-discrepancies", () -> "1");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private OpeningBalanceBackfill openingBalanceBackfill;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${app.security.admin-token}")
+    private String token;
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void reconciliation_ReportsPlantedDiscrepanciesPerUser() throws Exception {
+        UserDTO user1 = userService.createUser("user1", "user1");
+        UserDTO user2 = userService.createUser("user2", "user2");
+        long usd1 = account(user1, AccountCurrency.USD).getId();
+        long eur1 = account(user1, AccountCurrency.EUR).getId();
+        long usd2 = account(user2, AccountCurrency.USD).getId();
+        long rub2 = account(user2, AccountCurrency.RUB).getId();
+        accountService.depositToAccount(user2.getId(), rub2, 500);
+        jdbcTemplate.update("UPDATE accounts SET amount = amount + 10 WHERE id = ?", usd1);
+        jdbcTemplate.update("UPDATE accounts SET amount = amount + 5 WHERE id = ?", eur1);
+        jdbcTemplate.update("UPDATE accounts SET amount = amount - 1 WHERE id = ?", usd2);
+
+        mockMvc.perform(post("/admin/reconciliation").header("X-SECURITY-ADMIN-KEY", token))
+                .andExpect(status().isOk());
+        JSONObject report = waitForCompletion();
+
+        assertEquals(3, report.getLong("discrepancyCount"));
+        assertEquals(1, report.getJSONArray("discrepancies").length());
+        JSONObject userDifferences = report.getJSONObject("userDifferences");
+        assertEquals(2, userDifferences.length());
+        assertEquals(15, userDifferences.getLong(Long.toString(user1.getId())));
+        assertEquals(-1, userDifferences.getLong(Long.toString(user2.getId())));
+    }
+
+    @Test
+    void reconciliation_AcceptsBalancesSetBeforeTheJournalExisted() throws Exception {
+        UserDTO user = userService.createUser("user1", "user1");
+        long usd = account(user, AccountCurrency.USD).getId();
+        long eur = account(user, AccountCurrency.EUR).getId();
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM journal_migrations");
+        jdbcTemplate.update("UPDATE accounts SET amount = 700 WHERE id = ?", usd);
+        openingBalanceBackfill.start();
+        accountService.depositToAccount(user.getId(), eur, 50);
+        openingBalanceBackfill.start();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM balance_movements WHERE type = ?", Integer.class,
+                MovementType.OPENING.ordinal()));
+        mockMvc.perform(post("/admin/reconciliation").header("X-SECURITY-ADMIN-KEY", token))
+                .andExpect(status().isOk());
+        JSONObject report = waitForCompletion();
+
+        assertEquals(0, report.getLong("discrepancyCount"));
+    }
+
+    private JSONObject waitForCompletion() throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        JSONObject report;
+        do {
+            Thread.sleep(100);
+            report = new JSONObject(mockMvc.perform(get("/admin/reconciliation")
+                            .header("X-SECURITY-ADMIN-KEY", token))
+                    .andReturn().getResponse().getContentAsString());
+        } while ("RUNNING".equals(report.getJSONObject("progress").getString("status"))
+                && System.currentTimeMillis() < deadline);
+        assertEquals("COMPLETED", report.getJSONObject("progress").getString("status"));
+        return report;
+    }
+
+    private static AccountDTO account(UserDTO user, AccountCurrency currency) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == currency)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,198 @@
+package com.skypro.simplebanking.controller;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.service.AccountService;
+import com.skypro.simplebanking.service.ScheduledTransferService;
+import com.skypro.simplebanking.service.UserService;
+import net.minidev.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ScheduledTransferControllerTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.scheduled-transfers.tick", () -> "100ms");
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDTO payer;
+    private UserDTO payee;
+
+    @BeforeEach
+    void addUsers() {
+        payer = userService.createUser("user1", "user1");
+        payee = userService.createUser("user2", "user2");
+        accountService.depositToAccount(payer.getId(), usdAccount(payer).getId(), 999L);
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM scheduled_transfer_executions");
+        jdbcTemplate.update("DELETE FROM scheduled_transfers");
+        jdbcTemplate.update("DELETE FROM transfers");
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    JSONObject getScheduledTransferRequest(Instant executeAt, String recurrence, long amount) {
+        JSONObject request = new JSONObject();
+        request.put("fromAccountId", usdAccount(payer).getId());
+        request.put("toUserId", payee.getId());
+        request.put("toAccountId", usdAccount(payee).getId());
+        request.put("amount", amount);
+        request.put("executeAt", executeAt.toString());
+        request.put("recurrence", recurrence);
+        return request;
+    }
+
+    @Test
+    void scheduledTransfer_IsExecutedWhenDue() throws Exception {
+        JSONObject request = getScheduledTransferRequest(Instant.now().plusMillis(300), "MONTHLY", 500L);
+
+        mockMvc.perform(post("/transfer/scheduled")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.executions").value(0));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (balance(payee) == 1L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(501L, balance(payee));
+        assertEquals(500L, balance(payer));
+
+        mockMvc.perform(get("/transfer/scheduled")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].executions").value(1))
+                .andExpect(jsonPath("$[0].active").value(true));
+    }
+
+    @Test
+    void cancelledScheduledTransfer_IsNotExecuted() throws Exception {
+        String response = mockMvc.perform(post("/transfer/scheduled")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getScheduledTransferRequest(Instant.now().plus(1, ChronoUnit.SECONDS), "ONCE", 500L).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = new org.json.JSONObject(response).getLong("id");
+
+        mockMvc.perform(delete("/transfer/scheduled/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk());
+        Thread.sleep(1500);
+
+        assertEquals(1L, balance(payee));
+    }
+
+    @Test
+    void cancelScheduledTransfer_OfAnotherUser() throws Exception {
+        String response = mockMvc.perform(post("/transfer/scheduled")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getScheduledTransferRequest(Instant.now().plus(1, ChronoUnit.DAYS), "ONCE", 500L).toString()))
+                .andReturn().getResponse().getContentAsString();
+        long id = new org.json.JSONObject(response).getLong("id");
+
+        mockMvc.perform(delete("/transfer/scheduled/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user2", "user2")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void pendingExecution_IsFinishedOnceAfterCrash() throws Exception {
+        Instant due = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        String response = mockMvc.perform(post("/transfer/scheduled")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getScheduledTransferRequest(due, "ONCE", 500L).toString()))
+                .andReturn().getResponse().getContentAsString();
+        long id = new org.json.JSONObject(response).getLong("id");
+        // what a node leaves behind when it crashes right after claiming the execution
+        jdbcTemplate.update("UPDATE scheduled_transfers SET active = false, executions = 1 WHERE id = ?", id);
+        jdbcTemplate.update("INSERT INTO scheduled_transfer_executions"
+                        + " (id, scheduled_transfer_id, due_at, status, claimed_at) VALUES (?, ?, ?, 0, ?)",
+                id + ":" + due.toEpochMilli(), id, Timestamp.from(due),
+                Timestamp.from(Instant.now().minus(10, ChronoUnit.MINUTES)));
+
+        scheduledTransferService.recoverPendingExecutions();
+        scheduledTransferService.recoverPendingExecutions();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (balance(payee) == 1L && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        Thread.sleep(500);
+        scheduledTransferService.recoverPendingExecutions();
+        Thread.sleep(500);
+        assertEquals(501L, balance(payee));
+        assertEquals(500L, balance(payer));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT status FROM scheduled_transfer_executions WHERE scheduled_transfer_id = ?",
+                Integer.class, id));
+    }
+
+    private long balance(UserDTO user) {
+        return accountService.getAccount(user.getId(), usdAccount(user).getId()).getAmount();
+    }
+
+    private static AccountDTO usdAccount(UserDTO user) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == AccountCurrency.USD)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -5,6 +5,7 @@ import com.skypro.simplebanking.entity.AccountCurrency;
 import com.skypro.simplebanking.entity.User;
 import com.skypro.simplebanking.repository.AccountRepository;
 import com.skypro.simplebanking.repository.UserRepository;
+import com.skypro.simplebanking.service.FxRateService;
 import com.skypro.simplebanking.service.UserService;
 import net.minidev.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
@@ -26,10 +27,12 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -46,6 +49,7 @@ public class TransferControllerTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.velocity.limits.default.minute-count", () -> 3);
     }
 
     @Autowired
@@ -60,9 +64,12 @@ public class TransferControllerTest {
     private UserService userService;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private FxRateService fxRateService;
 
     @AfterEach
     public void cleanData() {
+        fxRateService.publish(Map.of());
         userRepository.deleteAll();
         accountRepository.deleteAll();
     }
@@ -202,4 +209,83 @@ public class TransferControllerTest {
                 .andExpect(status().isNotFound());
 
     }
+
+    @Test
+    void transferTest_CrossCurrency() throws Exception {
+
+        User fromUser = getFirstUser();
+        Account fromAccount = getAccountsUser(fromUser).get(0);
+
+        User toUser = getSecondUser();
+        Account toAccount = getAccountsUser(toUser).get(1);
+
+        JSONObject transfer = getTransferRequest(fromAccount.getId(), toUser.getId(), toAccount.getId(), 500L);
+
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(fromUser.getUsername(), "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transfer.toString()))
+                .andExpect(status().isBadRequest());
+
+        fxRateService.publish(Map.of(
+                fromAccount.getAccountCurrency() + "/" + toAccount.getAccountCurrency(), "1.5"));
+
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(fromUser.getUsername(), "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(transfer.toString()))
+                .andExpect(status().isOk());
+
+        assertEquals(1000L, accountRepository.findById(fromAccount.getId()).orElseThrow().getAmount());
+        assertEquals(2250L, accountRepository.findById(toAccount.getId()).orElseThrow().getAmount());
+    }
+
+    @Test
+    void transferTest_VelocityLimit() throws Exception {
+
+        User fromUser = getFirstUser();
+        Account fromAccount = getAccountsUser(fromUser).get(2);
+
+        User toUser = getSecondUser();
+        Account toAccount = getAccountsUser(toUser).stream()
+                .filter(account -> account.getAccountCurrency() == fromAccount.getAccountCurrency())
+                .findFirst()
+                .orElseThrow();
+
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(fromUser.getUsername(), "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getTransferRequest(fromAccount.getId(), toUser.getId(), toAccount.getId(), 100000L).toString()))
+                .andExpect(status().isBadRequest());
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/transfer")
+                            .header(HttpHeaders.AUTHORIZATION,
+                                    getAuthenticationHeader(fromUser.getUsername(), "user1"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(getTransferRequest(fromAccount.getId(), toUser.getId(), toAccount.getId(), 100L).toString()))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/transfer")
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(fromUser.getUsername(), "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(getTransferRequest(fromAccount.getId(), toUser.getId(), toAccount.getId(), 100L).toString()))
+                .andExpect(status().isTooManyRequests());
+
+        JSONObject withdrawal = new JSONObject();
+        withdrawal.put("amount", 100L);
+        mockMvc.perform(post("/account/withdraw/{id}", fromAccount.getId())
+                        .header(HttpHeaders.AUTHORIZATION,
+                                getAuthenticationHeader(fromUser.getUsername(), "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(withdrawal.toString()))
+                .andExpect(status().isTooManyRequests());
+
+        assertEquals(1200L, accountRepository.findById(fromAccount.getId()).orElseThrow().getAmount());
+    }
 }
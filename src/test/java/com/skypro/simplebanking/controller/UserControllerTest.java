@@ -4,6 +4,7 @@ import com.skypro.simplebanking.component.ComponentTest;
 import com.skypro.simplebanking.repository.AccountRepository;
 import com.skypro.simplebanking.repository.UserRepository;
 import com.skypro.simplebanking.service.UserService;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,17 +18,22 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.skypro.simplebanking.component.ComponentTest.createUser;
 import static com.skypro.simplebanking.component.ComponentTest.getAuthenticationHeader;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -139,6 +145,69 @@ public class UserControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchUsers_PrefixMatchesFirstThenSubstring() throws Exception {
+        userService.createUser("malice", "malice");
+        userService.createUser("alina", "alina");
+        userService.createUser("alice", "alice");
+        userService.createUser("bob", "bob");
+
+        mockMvc.perform(get("/user/search").param("q", "ali"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].username").value("alice"))
+                .andExpect(jsonPath("$[1].username").value("alina"))
+                .andExpect(jsonPath("$[2].username").value("malice"))
+                .andExpect(jsonPath("$[0].accounts.length()").value(3));
+
+        mockMvc.perform(get("/user/search").param("q", "ali").param("after", "alina"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].username").value("malice"));
+
+        mockMvc.perform(get("/user/search").param("q", "al%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchUsers_PagesNeitherOverlapNorSkip() throws Exception {
+        List<String> expected = List.of("alan", "alarm", "balance", "halal", "kalahari", "scala");
+        for (String username : List.of("scala", "alarm", "kalahari", "alb", "halal", "alan", "balance")) {
+            userService.createUser(username, username);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        for (int page = 0; page < expected.size(); page++) {
+            MockHttpServletRequestBuilder request = get("/user/search").param("q", "ala").param("size", "4");
+            if (after != null) {
+                request.param("after", after);
+            }
+            JSONArray users = new JSONArray(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (users.length() == 0) {
+                break;
+            }
+            for (int i = 0; i < users.length(); i++) {
+                seen.add(users.getJSONObject(i).getString("username"));
+            }
+            after = seen.get(seen.size() - 1);
+        }
+
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void searchUsers_ForUser() throws Exception {
+        mockMvc.perform(get("/user/search").param("q", "user"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void getMyProfile_Test() throws Exception {
@@ -151,4 +220,35 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value("user1"));
     }
+
+    @Test
+    void getMyProfile_NotModifiedUntilAnAccountChanges() throws Exception {
+
+        addUsersToRepository();
+        long accountId = userService.getUser(userRepository.findByUsername("user1").orElseThrow().getId())
+                .getAccounts().get(0).getId();
+
+        String etag = mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/account/deposit/{id}", accountId)
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/user/me")
+                        .header(HttpHeaders.AUTHORIZATION, getAuthenticationHeader("user1", "user1"))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("user1"));
+    }
 }
@@ -0,0 +1,60 @@
+package com.skypro.simplebanking.dto;
+
+import com.skypro.simplebanking.entity.AccountCurrency;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NodeStatsDTOTest {
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void merge_AddsEveryNodesChangesToTheEarliestSeed() {
+        // node-a seeds 100 and deposits 10; node-b starts later, so its seed already has that 10
+        NodeStatsDTO first = node("node-a", T0, 4, 100, 4, 110, 1, 10);
+        NodeStatsDTO second = node("node-b", T0.plusSeconds(60), 4, 110, 5, 116, 1, 5);
+
+        NodeStatsDTO merged = NodeStatsDTO.merge(List.of(second, first));
+
+        CurrencyStatsDTO usd = merged.getCurrencies().get(0);
+        assertThat(usd.getBalance()).isEqualTo(116);
+        assertThat(usd.getAccounts()).isEqualTo(5);
+        assertThat(usd.getSeedBalance()).isEqualTo(100);
+        assertThat(usd.getDepositCount()).isEqualTo(2);
+        assertThat(usd.getDepositVolume()).isEqualTo(15);
+        assertThat(merged.getSeededAt()).isEqualTo(T0);
+        assertThat(merged.getCapturedAt()).isEqualTo(T0.plusSeconds(120));
+    }
+
+    @Test
+    void merge_SingleNodeIsUnchanged() {
+        NodeStatsDTO node = node("node-a", T0, 4, 100, 6, 150, 3, 48);
+
+        CurrencyStatsDTO usd = NodeStatsDTO.merge(List.of(node)).getCurrencies().get(0);
+
+        assertThat(usd.getBalance()).isEqualTo(150);
+        assertThat(usd.getAccounts()).isEqualTo(6);
+    }
+
+    private static NodeStatsDTO node(String nodeId, Instant seededAt, long seedAccounts,
+                                     long seedBalance, long accounts, long balance,
+                                     long deposits, long depositVolume) {
+        CurrencyStatsDTO usd = new CurrencyStatsDTO();
+        usd.setCurrency(AccountCurrency.USD);
+        usd.setSeedAccounts(seedAccounts);
+        usd.setSeedBalance(seedBalance);
+        usd.setAccounts(accounts);
+        usd.setBalance(balance);
+        usd.setDepositCount(deposits);
+        usd.setDepositVolume(depositVolume);
+        NodeStatsDTO node = new NodeStatsDTO();
+        node.setNodeId(nodeId);
+        node.setSeededAt(seededAt);
+        node.setCapturedAt(seededAt.plusSeconds(60));
+        node.setCurrencies(List.of(usd));
+        return node;
+    }
+}
@@ -0,0 +1,32 @@
+package com.skypro.simplebanking.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecurrenceTest {
+    private static final Instant JANUARY_31 = Instant.parse("2024-01-31T09:00:00Z");
+
+    @Test
+    void monthly_KeepsTheAnchorDayAfterShortMonths() {
+        Instant february = Recurrence.MONTHLY.next(JANUARY_31, JANUARY_31);
+        Instant march = Recurrence.MONTHLY.next(JANUARY_31, february);
+        Instant april = Recurrence.MONTHLY.next(JANUARY_31, march);
+
+        assertThat(february).isEqualTo(Instant.parse("2024-02-29T09:00:00Z"));
+        assertThat(march).isEqualTo(Instant.parse("2024-03-31T09:00:00Z"));
+        assertThat(april).isEqualTo(Instant.parse("2024-04-30T09:00:00Z"));
+    }
+
+    @Test
+    void next_SkipsExecutionsThatArePast() {
+        Instant late = Instant.parse("2024-03-15T00:00:00Z");
+
+        assertThat(Recurrence.MONTHLY.next(JANUARY_31, late)).isEqualTo(Instant.parse("2024-03-31T09:00:00Z"));
+        assertThat(Recurrence.WEEKLY.next(JANUARY_31, late)).isEqualTo(Instant.parse("2024-03-20T09:00:00Z"));
+        assertThat(Recurrence.DAILY.next(JANUARY_31, late)).isEqualTo(Instant.parse("2024-03-15T09:00:00Z"));
+        assertThat(Recurrence.ONCE.next(JANUARY_31, JANUARY_31)).isNull();
+    }
+}
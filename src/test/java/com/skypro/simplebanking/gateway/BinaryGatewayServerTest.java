@@ -0,0 +1,183 @@
+package com.skypro.simplebanking.gateway;
+
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+public class BinaryGatewayServerTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    private static final int port = freePort();
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.gateway.enabled", () -> true);
+        registry.add("app.gateway.port", () -> port);
+        registry.add("app.velocity.enabled", () -> false);
+    }
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long accountId;
+    private Socket socket;
+    private DataOutputStream out;
+    private DataInputStream in;
+
+    @BeforeEach
+    void connect() throws IOException {
+        UserDTO user = userService.createUser("user1", "user1");
+        accountId = user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == AccountCurrency.USD)
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        socket = new Socket("localhost", port);
+        socket.setSoTimeout(10000);
+        out = new DataOutputStream(socket.getOutputStream());
+        in = new DataInputStream(socket.getInputStream());
+    }
+
+    @AfterEach
+    void cleanData() throws IOException {
+        socket.close();
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void auth_ThenBalance() throws IOException {
+        out.write(auth(1, "user1", "user1"));
+        out.write(command(GatewayProtocol.BALANCE, 2, accountId));
+
+        assertThat(readResponse()).containsExactly(GatewayProtocol.OK, 1);
+        assertThat(readResponse()).containsExactly(
+                GatewayProtocol.OK, 2, accountId, 1, AccountCurrency.USD.ordinal());
+    }
+
+    @Test
+    void commandBeforeAuth_IsRejected() throws IOException {
+        out.write(command(GatewayProtocol.BALANCE, 1, accountId));
+        out.write(auth(2, "user1", "wrong"));
+        out.write(command(GatewayProtocol.BALANCE, 3, accountId));
+
+        assertThat(readResponse()).containsExactly(GatewayProtocol.NOT_AUTHENTICATED, 1);
+        assertThat(readResponse()).containsExactly(GatewayProtocol.AUTHENTICATION_FAILED, 2);
+        assertThat(readResponse()).containsExactly(GatewayProtocol.NOT_AUTHENTICATED, 3);
+    }
+
+    @Test
+    void failingCommand_DoesNotStallTheConnection() throws IOException {
+        out.write(auth(1, "user1", "user1"));
+        out.write(command(GatewayProtocol.WITHDRAW, 2, accountId, 1000));
+        out.write(command(GatewayProtocol.BALANCE, 3, accountId + 1_000_000));
+        out.write(command(GatewayProtocol.DEPOSIT, 4, accountId, 10));
+
+        assertThat(readResponse()).containsExactly(GatewayProtocol.OK, 1);
+        assertThat(readResponse()).containsExactly(GatewayProtocol.INSUFFICIENT_FUNDS, 2);
+        assertThat(readResponse()).containsExactly(GatewayProtocol.ACCOUNT_NOT_FOUND, 3);
+        assertThat(readResponse()).containsExactly(
+                GatewayProtocol.OK, 4, accountId, 11, AccountCurrency.USD.ordinal());
+    }
+
+    @Test
+    void pipelinedCommands_AreAnsweredInOrder() throws IOException {
+        int deposits = 50;
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        batch.write(auth(0, "user1", "user1"));
+        for (int i = 1; i <= deposits; i++) {
+            batch.write(command(GatewayProtocol.DEPOSIT, i, accountId, 1));
+        }
+        out.write(batch.toByteArray());
+
+        assertThat(readResponse()).containsExactly(GatewayProtocol.OK, 0);
+        for (int i = 1; i <= deposits; i++) {
+            assertThat(readResponse()).containsExactly(
+                    GatewayProtocol.OK, i, accountId, 1 + i, AccountCurrency.USD.ordinal());
+        }
+    }
+
+    /** Status, correlation id and, for account responses, account id, amount and currency. */
+    private long[] readResponse() throws IOException {
+        int length = in.readInt();
+        byte status = in.readByte();
+        long correlationId = in.readLong();
+        if (length == GatewayProtocol.RESPONSE_SIZE) {
+            return new long[] {status, correlationId};
+        }
+        return new long[] {status, correlationId, in.readLong(), in.readLong(), in.readByte()};
+    }
+
+    private static byte[] auth(long correlationId, String username, String password) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(payload);
+        data.writeByte(GatewayProtocol.AUTH);
+        data.writeLong(correlationId);
+        for (String value : new String[] {username, password}) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+        return frame(payload.toByteArray());
+    }
+
+    private static byte[] command(byte opcode, long correlationId, long... arguments) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(payload);
+        data.writeByte(opcode);
+        data.writeLong(correlationId);
+        for (long argument : arguments) {
+            data.writeLong(argument);
+        }
+        return frame(payload.toByteArray());
+    }
+
+    private static byte[] frame(byte[] payload) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(frame);
+        data.writeInt(payload.length);
+        data.write(payload);
+        return frame.toByteArray();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.CurrencyStatsDTO;
+import com.skypro.simplebanking.dto.NodeStatsDTO;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+public class BankingStatisticsTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BankingStatistics bankingStatistics;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void countersFollowCommittedChanges() {
+        CurrencyStatsDTO before = usd(bankingStatistics.snapshot());
+        UserDTO user = userService.createUser("user1", "user1");
+        long accountId = user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == AccountCurrency.USD)
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        accountService.depositToAccount(user.getId(), accountId, 100);
+
+        CurrencyStatsDTO after = usd(bankingStatistics.snapshot());
+        assertThat(after.getAccounts() - before.getAccounts()).isEqualTo(1);
+        assertThat(after.getBalance() - before.getBalance())
+                .isEqualTo(AccountService.INITIAL_AMOUNT + 100);
+        assertThat(after.getDepositCount() - before.getDepositCount()).isEqualTo(1);
+        assertThat(after.getSeedBalance()).isEqualTo(before.getSeedBalance());
+    }
+
+    @Test
+    void seedMatchesDatabase() {
+        UserDTO user = userService.createUser("user1", "user1");
+        userService.createUser("user2", "user2");
+        accountService.depositToAccount(user.getId(), user.getAccounts().get(0).getId(), 250);
+
+        BankingStatistics fresh = new BankingStatistics(jdbcTemplate, shardRouter, "fresh");
+        fresh.start();
+
+        for (CurrencyStatsDTO stats : fresh.snapshot().getCurrencies()) {
+            long[] expected = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*), COALESCE(SUM(amount), 0) FROM accounts WHERE account_currency = ?",
+                    (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+                    stats.getCurrency().ordinal());
+            assertThat(stats.getSeedAccounts()).isEqualTo(expected[0]);
+            assertThat(stats.getSeedBalance()).isEqualTo(expected[1]);
+            assertThat(stats.getBalance()).isEqualTo(expected[1]);
+        }
+    }
+
+    private static CurrencyStatsDTO usd(NodeStatsDTO node) {
+        return node.getCurrencies().stream()
+                .filter(stats -> stats.getCurrency() == AccountCurrency.USD)
+                .findFirst()
+                .orElseThrow();
+    }
+}
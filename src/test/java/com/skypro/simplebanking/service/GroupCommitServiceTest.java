@@ -0,0 +1,154 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.GroupCommitStatsDTO;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Testcontainers
+public class GroupCommitServiceTest {
+    private static final int THREADS = 16;
+    private static final int DEPOSITS_PER_THREAD = 50;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.group-commit.enabled", () -> true);
+        registry.add("app.group-commit.window", () -> "5ms");
+        registry.add("app.velocity.enabled", () -> false);
+    }
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private GroupCommitService groupCommitService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDTO payer;
+    private UserDTO payee;
+
+    @BeforeEach
+    void addUsers() {
+        payer = userService.createUser("user1", "user1");
+        payee = userService.createUser("user2", "user2");
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM transfers");
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void concurrentDeposits_ShareCommits() throws Exception {
+        GroupCommitStatsDTO before = groupCommitService.getStats();
+        long accountId = usdAccount(payer).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int j = 0; j < DEPOSITS_PER_THREAD; j++) {
+                    accountService.depositToAccount(payer.getId(), accountId, 10L);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        int deposits = THREADS * DEPOSITS_PER_THREAD;
+        GroupCommitStatsDTO after = groupCommitService.getStats();
+        assertThat(balance(payer)).isEqualTo(1L + deposits * 10L);
+        assertThat(after.getOperations() - before.getOperations()).isEqualTo(deposits);
+        assertThat(after.getBatches() - before.getBatches()).isLessThan(deposits);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM balance_movements WHERE account_id = ?", Long.class, accountId))
+                .isEqualTo(deposits);
+    }
+
+    @Test
+    void rejectedOperation_FailsAlone() {
+        long accountId = usdAccount(payer).getId();
+        accountService.depositToAccount(payer.getId(), accountId, 99L);
+
+        assertThatThrownBy(() -> accountService.withdrawFromAccount(payer.getId(), accountId, 500L))
+                .isInstanceOf(InsufficientFundsException.class);
+        AccountDTO account = accountService.withdrawFromAccount(payer.getId(), accountId, 40L);
+
+        assertThat(account.getAmount()).isEqualTo(60L);
+        assertThat(balance(payer)).isEqualTo(60L);
+    }
+
+    @Test
+    void transfer_IsAppliedInBatch() {
+        accountService.depositToAccount(payer.getId(), usdAccount(payer).getId(), 99L);
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(usdAccount(payer).getId());
+        request.setToUserId(payee.getId());
+        request.setToAccountId(usdAccount(payee).getId());
+        request.setAmount(30L);
+
+        transferService.transfer(payer.getId(), request);
+
+        assertThat(balance(payer)).isEqualTo(70L);
+        assertThat(balance(payee)).isEqualTo(31L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfers", Long.class)).isEqualTo(1L);
+    }
+
+    private long balance(UserDTO user) {
+        return accountService.getAccount(user.getId(), usdAccount(user).getId()).getAmount();
+    }
+
+    private static AccountDTO usdAccount(UserDTO user) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == AccountCurrency.USD)
+                .findFirst()
+                .orElseThrow();
+    }
+}
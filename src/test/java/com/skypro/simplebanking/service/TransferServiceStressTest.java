@@ -0,0 +1,223 @@
+package com.skypro.simplebanking.service;
+
+import com.skypro.simplebanking.dto.AccountDTO;
+import com.skypro.simplebanking.dto.TransferRequest;
+import com.skypro.simplebanking.dto.UserDTO;
+import com.skypro.simplebanking.entity.AccountCurrency;
+import com.skypro.simplebanking.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs concurrent transfers, deposits and withdrawals over a few hot and many cold accounts and
+ * checks that money is conserved per currency. Sizes and the lock strategy come from system
+ * properties, e.g. {@code -Dstress.operations=20000 -Dstress.lock-order=ACCESS}.
+ */
+@SpringBootTest
+@Testcontainers
+public class TransferServiceStressTest {
+    private static final int THREADS = Integer.getInteger("stress.threads", 16);
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 4000);
+    private static final int HOT_USERS = Integer.getInteger("stress.hot-users", 4);
+    private static final int COLD_USERS = Integer.getInteger("stress.cold-users", 40);
+    private static final int HOT_PERCENT = Integer.getInteger("stress.hot-percent", 80);
+    private static final String LOCK_ORDER = System.getProperty("stress.lock-order", "ACCOUNT_ID");
+    private static final long FUNDING = 10_000L;
+    private static final long MAX_AMOUNT = 300L;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withUsername("banking")
+            .withPassword("super-safe-pass");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+        registry.add("app.transfer.lock-order", () -> LOCK_ORDER);
+        registry.add("app.velocity.enabled", () -> false);
+    }
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransferService transferService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UserDTO> users = new ArrayList<>();
+
+    @BeforeEach
+    void createFundedUsers() {
+        for (int i = 0; i < HOT_USERS + COLD_USERS; i++) {
+            UserDTO user = userService.createUser("stress" + i, "password");
+            for (AccountDTO account : user.getAccounts()) {
+                accountService.depositToAccount(user.getId(), account.getId(), FUNDING);
+            }
+            users.add(user);
+        }
+    }
+
+    @AfterEach
+    void cleanData() {
+        jdbcTemplate.update("DELETE FROM transfers");
+        jdbcTemplate.update("DELETE FROM balance_movements");
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM users");
+        users.clear();
+    }
+
+    @Test
+    void concurrentMoneyMovement_ConservesMoneyPerCurrency() throws Exception {
+        Map<AccountCurrency, Long> before = totalsByCurrency();
+        LongAdder[] deposited = adders();
+        LongAdder[] withdrawn = adders();
+        LongAdder completed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder concurrencyFailures = new LongAdder();
+        List<Throwable> unexpected = new ArrayList<>();
+        long retriesBefore = transferService.getRetryCount();
+        long deadlocksBefore = deadlocks();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    runRandomOperation(deposited, withdrawn);
+                    completed.increment();
+                } catch (InsufficientFundsException e) {
+                    rejected.increment();
+                } catch (ConcurrencyFailureException e) {
+                    concurrencyFailures.increment();
+                } catch (Throwable e) {
+                    synchronized (unexpected) {
+                        unexpected.add(e);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).as("operations finished").isTrue();
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        long retries = transferService.getRetryCount() - retriesBefore;
+        Thread.sleep(1000);
+        long deadlocks = deadlocks() - deadlocksBefore;
+        System.out.printf(
+                "lock-order=%s threads=%d operations=%d completed=%d rejected=%d concurrency-failures=%d"
+                        + " retries=%d deadlocks=%d throughput=%.1f ops/s%n",
+                LOCK_ORDER, THREADS, OPERATIONS, completed.sum(), rejected.sum(),
+                concurrencyFailures.sum(), retries, deadlocks, OPERATIONS / seconds);
+
+        assertThat(unexpected).isEmpty();
+        Map<AccountCurrency, Long> after = totalsByCurrency();
+        for (AccountCurrency currency : AccountCurrency.values()) {
+            int i = currency.ordinal();
+            assertThat(after.get(currency))
+                    .as("total %s", currency)
+                    .isEqualTo(before.get(currency) + deposited[i].sum() - withdrawn[i].sum());
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE amount < 0", Long.class))
+                .isZero();
+        if ("ACCOUNT_ID".equals(LOCK_ORDER)) {
+            assertThat(deadlocks).isZero();
+            assertThat(retries).isZero();
+            assertThat(concurrencyFailures.sum()).isZero();
+        }
+    }
+
+    private void runRandomOperation(LongAdder[] deposited, LongAdder[] withdrawn) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AccountCurrency currency = AccountCurrency.values()[random.nextInt(AccountCurrency.values().length)];
+        UserDTO user = pickUser(random);
+        AccountDTO account = accountOf(user, currency);
+        long amount = 1 + random.nextLong(MAX_AMOUNT);
+        int kind = random.nextInt(10);
+        if (kind < 6) {
+            UserDTO target = pickUser(random);
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountId(account.getId());
+            request.setToUserId(target.getId());
+            request.setToAccountId(accountOf(target, currency).getId());
+            request.setAmount(amount);
+            transferService.transfer(user.getId(), request);
+        } else if (kind < 8) {
+            accountService.depositToAccount(user.getId(), account.getId(), amount);
+            deposited[currency.ordinal()].add(amount);
+        } else {
+            accountService.withdrawFromAccount(user.getId(), account.getId(), amount);
+            withdrawn[currency.ordinal()].add(amount);
+        }
+    }
+
+    private UserDTO pickUser(ThreadLocalRandom random) {
+        if (COLD_USERS == 0 || random.nextInt(100) < HOT_PERCENT) {
+            return users.get(random.nextInt(HOT_USERS));
+        }
+        return users.get(HOT_USERS + random.nextInt(COLD_USERS));
+    }
+
+    private static AccountDTO accountOf(UserDTO user, AccountCurrency currency) {
+        return user.getAccounts().stream()
+                .filter(account -> account.getCurrency() == currency)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Map<AccountCurrency, Long> totalsByCurrency() {
+        Map<AccountCurrency, Long> totals = new EnumMap<>(AccountCurrency.class);
+        for (AccountCurrency currency : AccountCurrency.values()) {
+            totals.put(currency, 0L);
+        }
+        jdbcTemplate.query(
+                "SELECT account_currency, SUM(amount) FROM accounts GROUP BY account_currency",
+                rs -> {
+                    totals.put(AccountCurrency.values()[rs.getInt(1)], rs.getLong(2));
+                });
+        return totals;
+    }
+
+    private long deadlocks() {
+        return jdbcTemplate.queryForObject(
+                "SELECT deadlocks FROM pg_stat_database WHERE datname = current_database()", Long.class);
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[AccountCurrency.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}